@@ -0,0 +1,60 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.benchmark;
+
+import android.os.Debug;
+import android.util.Log;
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import java.util.Locale;
+
+/** Helpers shared by all benchmarks. */
+public final class Benchmarks {
+
+  /** Tag allocation counts are logged under. */
+  public static final String TAG = "MaterialBenchmark";
+
+  private static final int ALLOCATION_ITERATIONS = 100;
+
+  private Benchmarks() {}
+
+  /**
+   * Measures {@code operation} with {@code benchmarkRule}, which reports its time per op, then logs
+   * the number of objects it allocates per op, which the rule doesn't report.
+   */
+  public static void measure(BenchmarkRule benchmarkRule, String name, Runnable operation) {
+    BenchmarkState state = benchmarkRule.getState();
+    while (state.keepRunning()) {
+      operation.run();
+    }
+    Log.i(
+        TAG,
+        String.format(
+            Locale.US, "%s: %.1f allocations/op", name, countAllocations(operation)));
+  }
+
+  @SuppressWarnings("deprecation")
+  private static float countAllocations(Runnable operation) {
+    Debug.resetThreadAllocCount();
+    Debug.startAllocCounting();
+    for (int i = 0; i < ALLOCATION_ITERATIONS; i++) {
+      operation.run();
+    }
+    Debug.stopAllocCounting();
+    return Debug.getThreadAllocCount() / (float) ALLOCATION_ITERATIONS;
+  }
+}
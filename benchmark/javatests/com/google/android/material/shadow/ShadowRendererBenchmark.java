@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shadow;
+
+import static com.google.android.material.benchmark.Benchmarks.measure;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.RectF;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.filters.LargeTest;
+import androidx.test.runner.AndroidJUnit4;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Benchmarks for {@link ShadowRenderer}. */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class ShadowRendererBenchmark {
+
+  private static final int ELEVATION = 8;
+  private static final float CORNER_SIZE = 24;
+  private static final float EDGE_LENGTH = 300;
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private final ShadowRenderer shadowRenderer = new ShadowRenderer(Color.BLACK);
+  private final Canvas canvas =
+      new Canvas(Bitmap.createBitmap(400, 400, Bitmap.Config.ARGB_8888));
+  private final Matrix transform = new Matrix();
+  private final RectF bounds = new RectF();
+
+  @Test
+  public void drawEdgeShadow() {
+    measure(
+        benchmarkRule,
+        "drawEdgeShadow",
+        new Runnable() {
+          @Override
+          public void run() {
+            // The renderer moves the bounds to fit the shadow.
+            bounds.set(0, 0, EDGE_LENGTH, 0);
+            shadowRenderer.drawEdgeShadow(canvas, transform, bounds, ELEVATION);
+          }
+        });
+  }
+
+  @Test
+  public void drawCornerShadow() {
+    measure(
+        benchmarkRule,
+        "drawCornerShadow",
+        new Runnable() {
+          @Override
+          public void run() {
+            bounds.set(0, 0, CORNER_SIZE * 2, CORNER_SIZE * 2);
+            shadowRenderer.drawCornerShadow(canvas, transform, bounds, ELEVATION, 180, 90);
+          }
+        });
+  }
+
+  @Test
+  public void drawCornerShadow_insideBounds() {
+    measure(
+        benchmarkRule,
+        "drawCornerShadow_insideBounds",
+        new Runnable() {
+          @Override
+          public void run() {
+            bounds.set(0, 0, CORNER_SIZE * 2, CORNER_SIZE * 2);
+            shadowRenderer.drawCornerShadow(canvas, transform, bounds, ELEVATION, 270, -90);
+          }
+        });
+  }
+
+  @Test
+  public void setShadowColor() {
+    measure(
+        benchmarkRule,
+        "setShadowColor",
+        new Runnable() {
+          private int frame;
+
+          @Override
+          public void run() {
+            frame = (frame + 1) % 2;
+            shadowRenderer.setShadowColor(frame == 0 ? Color.BLACK : Color.DKGRAY);
+            bounds.set(0, 0, CORNER_SIZE * 2, CORNER_SIZE * 2);
+            shadowRenderer.drawCornerShadow(canvas, transform, bounds, ELEVATION, 180, 90);
+          }
+        });
+  }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+/** Shapes shared by the shape benchmarks. */
+final class BenchmarkShapes {
+
+  /** Shapes benchmarks are parameterized with, covering each way a shape can be rendered. */
+  static final String ROUNDED = "rounded";
+  static final String ROUNDED_MIXED = "roundedMixed";
+  static final String CUT = "cut";
+  static final String CUT_MIXED = "cutMixed";
+  static final String TRIANGLE_EDGE = "triangleEdge";
+
+  static final int SHAPE_SIZE = 300;
+
+  private static final float CORNER_SIZE = 24;
+
+  private BenchmarkShapes() {}
+
+  static Object[] shapes() {
+    return new Object[] {ROUNDED, ROUNDED_MIXED, CUT, CUT_MIXED, TRIANGLE_EDGE};
+  }
+
+  static ShapeAppearanceModel createShapeAppearanceModel(String shape) {
+    ShapeAppearanceModel shapeAppearanceModel = new ShapeAppearanceModel();
+    switch (shape) {
+      case ROUNDED:
+        shapeAppearanceModel.setAllCorners(CornerFamily.ROUNDED, (int) CORNER_SIZE);
+        break;
+      case ROUNDED_MIXED:
+        shapeAppearanceModel.setCornerRadii(
+            CORNER_SIZE / 2, CORNER_SIZE, CORNER_SIZE * 2, CORNER_SIZE * 3);
+        break;
+      case CUT:
+        shapeAppearanceModel.setAllCorners(CornerFamily.CUT, (int) CORNER_SIZE);
+        break;
+      case CUT_MIXED:
+        shapeAppearanceModel.setAllCorners(CornerFamily.CUT, (int) CORNER_SIZE);
+        shapeAppearanceModel.setCornerRadii(
+            CORNER_SIZE / 2, CORNER_SIZE, CORNER_SIZE * 2, CORNER_SIZE * 3);
+        break;
+      case TRIANGLE_EDGE:
+        shapeAppearanceModel.setAllCorners(CornerFamily.ROUNDED, (int) CORNER_SIZE);
+        shapeAppearanceModel.setTopEdge(new TriangleEdgeTreatment(CORNER_SIZE, false));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown shape " + shape);
+    }
+    return shapeAppearanceModel;
+  }
+}
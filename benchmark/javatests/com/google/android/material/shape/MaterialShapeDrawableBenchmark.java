@@ -0,0 +1,197 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import static com.google.android.material.benchmark.Benchmarks.measure;
+import static com.google.android.material.shape.BenchmarkShapes.SHAPE_SIZE;
+
+import android.content.res.ColorStateList;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.RectF;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.filters.LargeTest;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Benchmarks for {@link MaterialShapeDrawable}. {@link #drawPath()} draws the same shape as a
+ * generic {@link Path}, as a baseline for the specialized renderers the drawable picks.
+ */
+@LargeTest
+@RunWith(Parameterized.class)
+public class MaterialShapeDrawableBenchmark {
+
+  private static final int ELEVATION = 8;
+  private static final int[] FILL_COLORS = new int[] {Color.BLACK, Color.WHITE};
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private final String shape;
+  private final ShapeAppearanceModel shapeAppearanceModel;
+  private final MaterialShapeDrawable drawable;
+  private final Canvas canvas =
+      new Canvas(
+          Bitmap.createBitmap(SHAPE_SIZE + ELEVATION * 4, SHAPE_SIZE + ELEVATION * 4,
+              Bitmap.Config.ARGB_8888));
+
+  @Parameters(name = "{0}")
+  public static Object[] data() {
+    return BenchmarkShapes.shapes();
+  }
+
+  public MaterialShapeDrawableBenchmark(String shape) {
+    this.shape = shape;
+    shapeAppearanceModel = BenchmarkShapes.createShapeAppearanceModel(shape);
+    drawable = new MaterialShapeDrawable(shapeAppearanceModel);
+  }
+
+  @Before
+  public void setUpDrawable() {
+    drawable.setFillColor(ColorStateList.valueOf(Color.BLACK));
+    drawable.setBounds(ELEVATION * 2, ELEVATION * 2, SHAPE_SIZE, SHAPE_SIZE);
+  }
+
+  @Test
+  public void draw() {
+    measure(
+        benchmarkRule,
+        "draw[" + shape + "]",
+        new Runnable() {
+          @Override
+          public void run() {
+            drawable.draw(canvas);
+          }
+        });
+  }
+
+  @Test
+  public void drawPath() {
+    final Path path = new Path();
+    new ShapeAppearancePathProvider()
+        .calculatePath(
+            shapeAppearanceModel, 1, new RectF(drawable.getBounds()), path);
+    final Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    paint.setColor(Color.BLACK);
+    measure(
+        benchmarkRule,
+        "drawPath[" + shape + "]",
+        new Runnable() {
+          @Override
+          public void run() {
+            canvas.drawPath(path, paint);
+          }
+        });
+  }
+
+  @Test
+  public void draw_afterInterpolationChange() {
+    measure(
+        benchmarkRule,
+        "draw_afterInterpolationChange[" + shape + "]",
+        new Runnable() {
+          private int frame;
+
+          @Override
+          public void run() {
+            frame = (frame + 1) % 100;
+            drawable.setInterpolation(frame / 100f);
+            drawable.draw(canvas);
+          }
+        });
+  }
+
+  @Test
+  public void draw_afterInterpolationChange_interpolateKeyPoints() {
+    drawable.setInterpolateKeyPoints(true);
+    measure(
+        benchmarkRule,
+        "draw_afterInterpolationChange_interpolateKeyPoints[" + shape + "]",
+        new Runnable() {
+          private int frame;
+
+          @Override
+          public void run() {
+            frame = (frame + 1) % 100;
+            drawable.setInterpolation(frame / 100f);
+            drawable.draw(canvas);
+          }
+        });
+  }
+
+  @Test
+  public void draw_afterFillColorChange() {
+    final ColorStateList[] fillColors = new ColorStateList[FILL_COLORS.length];
+    for (int i = 0; i < FILL_COLORS.length; i++) {
+      fillColors[i] = ColorStateList.valueOf(FILL_COLORS[i]);
+    }
+    measure(
+        benchmarkRule,
+        "draw_afterFillColorChange[" + shape + "]",
+        new Runnable() {
+          private int frame;
+
+          @Override
+          public void run() {
+            frame = (frame + 1) % fillColors.length;
+            drawable.setFillColor(fillColors[frame]);
+            drawable.draw(canvas);
+          }
+        });
+  }
+
+  @Test
+  public void draw_compatShadow() {
+    drawable.setShadowCompatibilityMode(MaterialShapeDrawable.SHADOW_COMPAT_MODE_ALWAYS);
+    drawable.setElevation(ELEVATION);
+    measure(
+        benchmarkRule,
+        "draw_compatShadow[" + shape + "]",
+        new Runnable() {
+          @Override
+          public void run() {
+            drawable.draw(canvas);
+          }
+        });
+  }
+
+  @Test
+  public void draw_compatShadow_afterBoundsChange() {
+    drawable.setShadowCompatibilityMode(MaterialShapeDrawable.SHADOW_COMPAT_MODE_ALWAYS);
+    drawable.setElevation(ELEVATION);
+    measure(
+        benchmarkRule,
+        "draw_compatShadow_afterBoundsChange[" + shape + "]",
+        new Runnable() {
+          private int frame;
+
+          @Override
+          public void run() {
+            frame = (frame + 1) % 2;
+            drawable.setBounds(ELEVATION * 2, ELEVATION * 2, SHAPE_SIZE - frame, SHAPE_SIZE);
+            drawable.draw(canvas);
+          }
+        });
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import static com.google.android.material.benchmark.Benchmarks.measure;
+import static com.google.android.material.shape.BenchmarkShapes.SHAPE_SIZE;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.filters.LargeTest;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/** Benchmarks for {@link ShapeAppearancePathProvider}. */
+@LargeTest
+@RunWith(Parameterized.class)
+public class ShapeAppearancePathProviderBenchmark {
+
+  /** More sizes than the provider caches paths for, so that every calculation misses the cache. */
+  private static final int SIZE_COUNT = 8;
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private final String shape;
+  private final ShapeAppearanceModel shapeAppearanceModel;
+  private final ShapeAppearancePathProvider pathProvider = new ShapeAppearancePathProvider();
+  private final RectF bounds = new RectF(0, 0, SHAPE_SIZE, SHAPE_SIZE);
+  private final Path path = new Path();
+
+  @Parameters(name = "{0}")
+  public static Object[] data() {
+    return BenchmarkShapes.shapes();
+  }
+
+  public ShapeAppearancePathProviderBenchmark(String shape) {
+    this.shape = shape;
+    shapeAppearanceModel = BenchmarkShapes.createShapeAppearanceModel(shape);
+  }
+
+  @Test
+  public void calculatePath() {
+    measure(
+        benchmarkRule,
+        "calculatePath[" + shape + "]",
+        new Runnable() {
+          private int size;
+
+          @Override
+          public void run() {
+            size = (size + 1) % SIZE_COUNT;
+            bounds.right = SHAPE_SIZE + size;
+            pathProvider.calculatePath(shapeAppearanceModel, 1, bounds, path);
+          }
+        });
+  }
+
+  @Test
+  public void calculatePath_cached() {
+    measure(
+        benchmarkRule,
+        "calculatePath_cached[" + shape + "]",
+        new Runnable() {
+          @Override
+          public void run() {
+            pathProvider.calculatePath(shapeAppearanceModel, 1, bounds, path);
+          }
+        });
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import static com.google.android.material.benchmark.Benchmarks.measure;
+
+import android.graphics.Matrix;
+import android.graphics.Path;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.filters.LargeTest;
+import androidx.test.runner.AndroidJUnit4;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/** Benchmarks for {@link ShapePath}. */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class ShapePathBenchmark {
+
+  private static final float CORNER_SIZE = 24;
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private final ShapePath shapePath = new ShapePath();
+  private final Matrix transform = new Matrix();
+  private final Path path = new Path();
+
+  @Test
+  public void buildCorner() {
+    final RoundedCornerTreatment cornerTreatment = new RoundedCornerTreatment(CORNER_SIZE);
+    measure(
+        benchmarkRule,
+        "buildCorner",
+        new Runnable() {
+          @Override
+          public void run() {
+            cornerTreatment.getCornerPath(90, 1, shapePath);
+          }
+        });
+  }
+
+  @Test
+  public void buildEdge() {
+    final TriangleEdgeTreatment edgeTreatment = new TriangleEdgeTreatment(CORNER_SIZE, false);
+    measure(
+        benchmarkRule,
+        "buildEdge",
+        new Runnable() {
+          @Override
+          public void run() {
+            shapePath.reset(0, 0);
+            edgeTreatment.getEdgePath(CORNER_SIZE * 10, CORNER_SIZE * 5, 1, shapePath);
+          }
+        });
+  }
+
+  @Test
+  public void applyToPath() {
+    new RoundedCornerTreatment(CORNER_SIZE).getCornerPath(90, 1, shapePath);
+    transform.setRotate(90);
+    transform.postTranslate(CORNER_SIZE * 10, 0);
+    measure(
+        benchmarkRule,
+        "applyToPath",
+        new Runnable() {
+          @Override
+          public void run() {
+            path.rewind();
+            path.moveTo(0, 0);
+            shapePath.applyToPath(transform, path);
+          }
+        });
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.tabs;
+
+import com.google.android.material.R;
+
+import static com.google.android.material.benchmark.Benchmarks.measure;
+
+import android.app.Activity;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup.LayoutParams;
+import androidx.appcompat.view.ContextThemeWrapper;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.rule.ActivityTestRule;
+import androidx.test.runner.AndroidJUnit4;
+import com.google.android.material.testapp.TabLayoutPoolingActivity;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Benchmarks for moving the indicator of a {@link TabLayout} while swiping through pages or
+ * selecting tabs, which shouldn't allocate once the tabs are laid out.
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class TabLayoutBenchmark {
+
+  private static final int TAB_COUNT = 10;
+  private static final int WIDTH = 1080;
+  private static final int HEIGHT = 144;
+  // Number of scroll callbacks for each page swiped through.
+  private static final int STEPS_PER_PAGE = 16;
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  // Only launched by benchmarks which need the tabs to be attached, so that they animate.
+  @Rule
+  public final ActivityTestRule<TabLayoutPoolingActivity> activityRule =
+      new ActivityTestRule<>(TabLayoutPoolingActivity.class, false, false);
+
+  private final Context context =
+      new ContextThemeWrapper(
+          ApplicationProvider.getApplicationContext(), R.style.Theme_MaterialComponents_Light);
+  private final Canvas canvas =
+      new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+
+  private TabLayout tabLayout;
+  private int step;
+
+  @Before
+  public void createTabLayout() {
+    tabLayout = new TabLayout(context);
+    tabLayout.setTabMode(TabLayout.MODE_SCROLLABLE);
+    for (int i = 0; i < TAB_COUNT; i++) {
+      tabLayout.addTab(tabLayout.newTab().setText("Tab " + i));
+    }
+    tabLayout.measure(
+        MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+    tabLayout.layout(0, 0, WIDTH, HEIGHT);
+  }
+
+  @Test
+  public void swipeThroughPages() {
+    measure(
+        benchmarkRule,
+        "swipeThroughPages",
+        new Runnable() {
+          @Override
+          public void run() {
+            swipe();
+          }
+        });
+  }
+
+  @Test
+  public void swipeThroughPagesAndDraw() {
+    measure(
+        benchmarkRule,
+        "swipeThroughPagesAndDraw",
+        new Runnable() {
+          @Override
+          public void run() {
+            swipe();
+            tabLayout.draw(canvas);
+          }
+        });
+  }
+
+  @Test
+  public void selectTabs() throws Throwable {
+    final Activity activity = activityRule.launchActivity(null);
+    activityRule.runOnUiThread(
+        new Runnable() {
+          @Override
+          public void run() {
+            activity.setContentView(tabLayout, new LayoutParams(WIDTH, HEIGHT));
+          }
+        });
+    InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+
+    // Tabs only animate to the selected tab on the main thread, where the scroll and indicator
+    // animators are restarted by each selection.
+    activityRule.runOnUiThread(
+        new Runnable() {
+          @Override
+          public void run() {
+            measure(
+                benchmarkRule,
+                "selectTabs",
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    selectNextTab();
+                  }
+                });
+          }
+        });
+  }
+
+  /** Selects the first and last tabs in turn, so that the tabs scroll on every selection. */
+  private void selectNextTab() {
+    tabLayout.selectTab(tabLayout.getTabAt(step % 2 == 0 ? TAB_COUNT - 1 : 0));
+    step = (step + 1) % 2;
+  }
+
+  /** Reports the next scroll position of a swipe back and forth through all the pages. */
+  private void swipe() {
+    final int lastStep = (TAB_COUNT - 1) * STEPS_PER_PAGE;
+    final int pageStep = step <= lastStep ? step : 2 * lastStep - step;
+    tabLayout.setScrollPosition(
+        pageStep / STEPS_PER_PAGE, (pageStep % STEPS_PER_PAGE) / (float) STEPS_PER_PAGE, true);
+    step = (step + 1) % (2 * lastStep);
+  }
+}
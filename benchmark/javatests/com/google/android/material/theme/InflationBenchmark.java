@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.theme;
+
+import com.google.android.material.R;
+
+import static com.google.android.material.benchmark.Benchmarks.measure;
+
+import android.content.Context;
+import androidx.appcompat.view.ContextThemeWrapper;
+import androidx.appcompat.widget.AppCompatButton;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.filters.LargeTest;
+import androidx.test.runner.AndroidJUnit4;
+import com.google.android.material.button.MaterialButton;
+import com.google.android.material.card.MaterialCardView;
+import com.google.android.material.chip.Chip;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Benchmarks for creating components, which includes the theme checks every component runs when
+ * it obtains its attributes. {@link #createAppCompatButton()} is a baseline without those checks.
+ */
+@LargeTest
+@RunWith(AndroidJUnit4.class)
+public class InflationBenchmark {
+
+  @Rule public final BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+  private final Context context =
+      new ContextThemeWrapper(
+          ApplicationProvider.getApplicationContext(), R.style.Theme_MaterialComponents_Light);
+
+  @Test
+  public void createAppCompatButton() {
+    measure(
+        benchmarkRule,
+        "createAppCompatButton",
+        new Runnable() {
+          @Override
+          public void run() {
+            new AppCompatButton(context);
+          }
+        });
+  }
+
+  @Test
+  public void createMaterialButton() {
+    measure(
+        benchmarkRule,
+        "createMaterialButton",
+        new Runnable() {
+          @Override
+          public void run() {
+            new MaterialButton(context);
+          }
+        });
+  }
+
+  @Test
+  public void createChip() {
+    measure(
+        benchmarkRule,
+        "createChip",
+        new Runnable() {
+          @Override
+          public void run() {
+            new Chip(context);
+          }
+        });
+  }
+
+  @Test
+  public void createMaterialCardView() {
+    measure(
+        benchmarkRule,
+        "createMaterialCardView",
+        new Runnable() {
+          @Override
+          public void run() {
+            new MaterialCardView(context);
+          }
+        });
+  }
+}
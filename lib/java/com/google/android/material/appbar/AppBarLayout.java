@@ -166,6 +166,13 @@ public class AppBarLayout extends LinearLayout {
   private int downPreScrollRange = INVALID_SCROLL_RANGE;
   private int downScrollRange = INVALID_SCROLL_RANGE;
 
+  // The top, bottom and scrollable height of each child, used to interpolate scroll offsets.
+  // Computed once per layout along with the scroll ranges, or when the children change.
+  static final int CHILD_SCROLL_INFO_SIZE = 3;
+  private int[] childScrollInfo = new int[0];
+  private int childScrollInfoCount;
+  private boolean childScrollInfoValid;
+
   private boolean haveChildWithInterpolator;
 
   private int pendingAction = PENDING_ACTION_NONE;
@@ -173,6 +180,20 @@ public class AppBarLayout extends LinearLayout {
   private WindowInsetsCompat lastInsets;
 
   private List<BaseOnOffsetChangedListener> listeners;
+  // Listeners of library components, which are never coalesced since they draw the offset.
+  private List<BaseOnOffsetChangedListener> internalListeners;
+
+  private boolean coalesceOffsetUpdates;
+  private boolean offsetUpdatePending;
+  private int coalescedOffsetCount;
+  private final Runnable offsetUpdateRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          offsetUpdatePending = false;
+          dispatchOffsetUpdates(listeners, currentOffset);
+        }
+      };
 
   private boolean liftableOverride;
   private boolean liftable;
@@ -310,6 +331,67 @@ public class AppBarLayout extends LinearLayout {
     removeOnOffsetChangedListener((BaseOnOffsetChangedListener) listener);
   }
 
+  /**
+   * Adds a listener which is called synchronously on every offset change, even when offset updates
+   * are coalesced, for library components which move along with this {@link AppBarLayout}.
+   */
+  void addInternalOnOffsetChangedListener(BaseOnOffsetChangedListener listener) {
+    if (internalListeners == null) {
+      internalListeners = new ArrayList<>();
+    }
+    if (listener != null && !internalListeners.contains(listener)) {
+      internalListeners.add(listener);
+    }
+  }
+
+  void removeInternalOnOffsetChangedListener(BaseOnOffsetChangedListener listener) {
+    if (internalListeners != null && listener != null) {
+      internalListeners.remove(listener);
+    }
+  }
+
+  /**
+   * Sets whether offset changes should be coalesced, so that listeners added with {@link
+   * #addOnOffsetChangedListener(OnOffsetChangedListener)} are called at most once per frame with
+   * the latest offset, instead of once for every offset change while scrolling. A child {@link
+   * CollapsingToolbarLayout} is always updated immediately, so it never lags behind the offset.
+   *
+   * <p>Updates are dispatched on the next animation frame, so offset changes made while the frame
+   * is being animated, for example while flinging, reach listeners one frame later.
+   *
+   * @see #getCoalescedOffsetCount()
+   */
+  public void setCoalesceOffsetUpdates(boolean coalesceOffsetUpdates) {
+    this.coalesceOffsetUpdates = coalesceOffsetUpdates;
+    if (!coalesceOffsetUpdates) {
+      flushPendingOffsetUpdate();
+    }
+  }
+
+  /**
+   * Returns whether offset changes are coalesced to at most one update per frame.
+   *
+   * @see #setCoalesceOffsetUpdates(boolean)
+   */
+  public boolean isCoalesceOffsetUpdates() {
+    return coalesceOffsetUpdates;
+  }
+
+  /**
+   * Returns the number of offset changes which were not dispatched to listeners because a more
+   * recent offset was dispatched in the same frame.
+   *
+   * @see #setCoalesceOffsetUpdates(boolean)
+   */
+  public int getCoalescedOffsetCount() {
+    return coalescedOffsetCount;
+  }
+
+  /** Resets the count returned by {@link #getCoalescedOffsetCount()}. */
+  public void resetCoalescedOffsetCount() {
+    coalescedOffsetCount = 0;
+  }
+
   /**
    * Set the drawable to use for the status bar foreground drawable. Providing null will disable the
    * scrim functionality.
@@ -490,11 +572,68 @@ public class AppBarLayout extends LinearLayout {
     return false;
   }
 
+  @Override
+  public void onViewAdded(View child) {
+    super.onViewAdded(child);
+    invalidateScrollRanges();
+  }
+
+  @Override
+  public void onViewRemoved(View child) {
+    super.onViewRemoved(child);
+    invalidateScrollRanges();
+  }
+
   private void invalidateScrollRanges() {
     // Invalidate the scroll ranges
     totalScrollRange = INVALID_SCROLL_RANGE;
     downPreScrollRange = INVALID_SCROLL_RANGE;
     downScrollRange = INVALID_SCROLL_RANGE;
+    childScrollInfoValid = false;
+  }
+
+  /**
+   * Returns the top, bottom and scrollable height of each child, in groups of {@link
+   * #CHILD_SCROLL_INFO_SIZE}. The returned array is re-used until the next layout or change of
+   * children, and may be longer than needed for the current children.
+   */
+  int[] getChildScrollInfo() {
+    final int childCount = getChildCount();
+    if (childScrollInfoValid && childScrollInfoCount == childCount) {
+      return childScrollInfo;
+    }
+
+    if (childScrollInfo.length < childCount * CHILD_SCROLL_INFO_SIZE) {
+      childScrollInfo = new int[childCount * CHILD_SCROLL_INFO_SIZE];
+    }
+    for (int i = 0; i < childCount; i++) {
+      final View child = getChildAt(i);
+      final LayoutParams childLp = (LayoutParams) child.getLayoutParams();
+      int childScrollableHeight = 0;
+      final int flags = childLp.getScrollFlags();
+      if ((flags & LayoutParams.SCROLL_FLAG_SCROLL) != 0) {
+        // We're set to scroll so add the child's height plus margin
+        childScrollableHeight += child.getHeight() + childLp.topMargin + childLp.bottomMargin;
+
+        if ((flags & LayoutParams.SCROLL_FLAG_EXIT_UNTIL_COLLAPSED) != 0) {
+          // For a collapsing scroll, we to take the collapsed height
+          // into account.
+          childScrollableHeight -= ViewCompat.getMinimumHeight(child);
+        }
+      }
+
+      if (ViewCompat.getFitsSystemWindows(child)) {
+        childScrollableHeight -= getTopInset();
+      }
+
+      final int index = i * CHILD_SCROLL_INFO_SIZE;
+      childScrollInfo[index] = child.getTop();
+      childScrollInfo[index + 1] = child.getBottom();
+      childScrollInfo[index + 2] = childScrollableHeight;
+    }
+    childScrollInfoCount = childCount;
+    childScrollInfoValid = true;
+    return childScrollInfo;
   }
 
   @Override
@@ -582,6 +721,7 @@ public class AppBarLayout extends LinearLayout {
   protected void onDetachedFromWindow() {
     super.onDetachedFromWindow();
 
+    flushPendingOffsetUpdate();
     clearLiftOnScrollTargetView();
   }
 
@@ -726,6 +866,33 @@ public class AppBarLayout extends LinearLayout {
       ViewCompat.postInvalidateOnAnimation(this);
     }
 
+    dispatchOffsetUpdates(internalListeners, offset);
+
+    if (coalesceOffsetUpdates && listeners != null && !listeners.isEmpty()) {
+      if (offsetUpdatePending) {
+        // The pending update will dispatch the latest offset.
+        coalescedOffsetCount++;
+      } else {
+        offsetUpdatePending = true;
+        ViewCompat.postOnAnimation(this, offsetUpdateRunnable);
+      }
+      return;
+    }
+
+    dispatchOffsetUpdates(listeners, offset);
+  }
+
+  /** Immediately dispatches an offset update which is waiting for the next frame, if any. */
+  private void flushPendingOffsetUpdate() {
+    if (offsetUpdatePending) {
+      removeCallbacks(offsetUpdateRunnable);
+      offsetUpdatePending = false;
+      dispatchOffsetUpdates(listeners, currentOffset);
+    }
+  }
+
+  private void dispatchOffsetUpdates(
+      @Nullable List<BaseOnOffsetChangedListener> listeners, int offset) {
     // Iterate backwards through the list so that most recently added listeners
     // get the first chance to decide
     if (listeners != null) {
@@ -1639,41 +1806,27 @@ public class AppBarLayout extends LinearLayout {
 
     private int interpolateOffset(T layout, final int offset) {
       final int absOffset = Math.abs(offset);
+      final int[] childScrollInfo = layout.getChildScrollInfo();
 
       for (int i = 0, z = layout.getChildCount(); i < z; i++) {
-        final View child = layout.getChildAt(i);
-        final AppBarLayout.LayoutParams childLp = (LayoutParams) child.getLayoutParams();
-        final Interpolator interpolator = childLp.getScrollInterpolator();
-
-        if (absOffset >= child.getTop() && absOffset <= child.getBottom()) {
-          if (interpolator != null) {
-            int childScrollableHeight = 0;
-            final int flags = childLp.getScrollFlags();
-            if ((flags & LayoutParams.SCROLL_FLAG_SCROLL) != 0) {
-              // We're set to scroll so add the child's height plus margin
-              childScrollableHeight += child.getHeight() + childLp.topMargin + childLp.bottomMargin;
-
-              if ((flags & LayoutParams.SCROLL_FLAG_EXIT_UNTIL_COLLAPSED) != 0) {
-                // For a collapsing scroll, we to take the collapsed height
-                // into account.
-                childScrollableHeight -= ViewCompat.getMinimumHeight(child);
-              }
-            }
-
-            if (ViewCompat.getFitsSystemWindows(child)) {
-              childScrollableHeight -= layout.getTopInset();
-            }
-
-            if (childScrollableHeight > 0) {
-              final int offsetForView = absOffset - child.getTop();
-              final int interpolatedDiff =
-                  Math.round(
-                      childScrollableHeight
-                          * interpolator.getInterpolation(
-                              offsetForView / (float) childScrollableHeight));
-
-              return Integer.signum(offset) * (child.getTop() + interpolatedDiff);
-            }
+        final int index = i * CHILD_SCROLL_INFO_SIZE;
+        final int childTop = childScrollInfo[index];
+        final int childBottom = childScrollInfo[index + 1];
+
+        if (absOffset >= childTop && absOffset <= childBottom) {
+          final LayoutParams childLp = (LayoutParams) layout.getChildAt(i).getLayoutParams();
+          final Interpolator interpolator = childLp.getScrollInterpolator();
+          final int childScrollableHeight = childScrollInfo[index + 2];
+
+          if (interpolator != null && childScrollableHeight > 0) {
+            final int offsetForView = absOffset - childTop;
+            final int interpolatedDiff =
+                Math.round(
+                    childScrollableHeight
+                        * interpolator.getInterpolation(
+                            offsetForView / (float) childScrollableHeight));
+
+            return Integer.signum(offset) * (childTop + interpolatedDiff);
           }
 
           // If we get to here then the view on the offset isn't suitable for interpolated
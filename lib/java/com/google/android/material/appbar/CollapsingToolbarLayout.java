@@ -257,7 +257,7 @@ public class CollapsingToolbarLayout extends FrameLayout {
       if (onOffsetChangedListener == null) {
         onOffsetChangedListener = new OffsetUpdateListener();
       }
-      ((AppBarLayout) parent).addOnOffsetChangedListener(onOffsetChangedListener);
+      ((AppBarLayout) parent).addInternalOnOffsetChangedListener(onOffsetChangedListener);
 
       // We're attached, so lets request an inset dispatch
       ViewCompat.requestApplyInsets(this);
@@ -269,7 +269,7 @@ public class CollapsingToolbarLayout extends FrameLayout {
     // Remove our OnOffsetChangedListener if possible and it exists
     final ViewParent parent = getParent();
     if (onOffsetChangedListener != null && parent instanceof AppBarLayout) {
-      ((AppBarLayout) parent).removeOnOffsetChangedListener(onOffsetChangedListener);
+      ((AppBarLayout) parent).removeInternalOnOffsetChangedListener(onOffsetChangedListener);
     }
 
     super.onDetachedFromWindow();
@@ -576,6 +576,30 @@ public class CollapsingToolbarLayout extends FrameLayout {
     return collapsingTitleEnabled;
   }
 
+  /**
+   * Sets whether the title should be recorded into a {@link android.graphics.RenderNode} and
+   * animated by only updating its transform while this view collapses, rather than being drawn on
+   * every frame. This only has an effect on API 29 and above with hardware acceleration, when the
+   * collapsed and expanded titles have the same color and shadow.
+   *
+   * <p>While only the transform of the title changes, drawing this view again only re-issues the
+   * recorded title instead of drawing its text.
+   *
+   * @see #isTitleRenderNodeEnabled()
+   */
+  public void setTitleRenderNodeEnabled(boolean enabled) {
+    collapsingTextHelper.setRenderNodeEnabled(enabled);
+  }
+
+  /**
+   * Returns whether the title is recorded into a {@link android.graphics.RenderNode} when possible.
+   *
+   * @see #setTitleRenderNodeEnabled(boolean)
+   */
+  public boolean isTitleRenderNodeEnabled() {
+    return collapsingTextHelper.isRenderNodeEnabled();
+  }
+
   /**
    * Set whether the content scrim and/or status bar scrim should be shown or not. Any change in the
    * vertical scroll may overwrite this value. Any visibility change will be animated if this view
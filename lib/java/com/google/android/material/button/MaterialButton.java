@@ -23,7 +23,6 @@ import static com.google.android.material.internal.ThemeEnforcement.createThemed
 
 import android.content.Context;
 import android.content.res.ColorStateList;
-import android.content.res.TypedArray;
 import android.graphics.Paint;
 import android.graphics.PorterDuff;
 import android.graphics.PorterDuff.Mode;
@@ -40,9 +39,6 @@ import androidx.annotation.Nullable;
 import androidx.annotation.Px;
 import androidx.annotation.RequiresApi;
 import androidx.annotation.RestrictTo;
-import com.google.android.material.internal.ThemeEnforcement;
-import com.google.android.material.internal.ViewUtils;
-import com.google.android.material.resources.MaterialResources;
 import com.google.android.material.shape.ShapeAppearanceModel;
 import com.google.android.material.shape.Shapeable;
 import androidx.core.graphics.drawable.DrawableCompat;
@@ -196,31 +192,20 @@ public class MaterialButton extends AppCompatButton implements Checkable, Shapea
     // Ensure we are using the correctly themed context rather than the context that was passed in.
     context = getContext();
 
-    TypedArray attributes =
-        ThemeEnforcement.obtainStyledAttributes(
-            context, attrs, R.styleable.MaterialButton, defStyleAttr, DEF_STYLE_RES);
+    MaterialButtonAttributes attributes =
+        MaterialButtonAttributes.obtain(context, attrs, defStyleAttr, DEF_STYLE_RES);
 
-    iconPadding = attributes.getDimensionPixelSize(R.styleable.MaterialButton_iconPadding, 0);
-    iconTintMode =
-        ViewUtils.parseTintMode(
-            attributes.getInt(R.styleable.MaterialButton_iconTintMode, -1), Mode.SRC_IN);
-
-    iconTint =
-        MaterialResources.getColorStateList(
-            getContext(), attributes, R.styleable.MaterialButton_iconTint);
-    icon = MaterialResources.getDrawable(getContext(), attributes, R.styleable.MaterialButton_icon);
-    iconGravity = attributes.getInteger(R.styleable.MaterialButton_iconGravity, ICON_GRAVITY_START);
-
-    iconSize = attributes.getDimensionPixelSize(R.styleable.MaterialButton_iconSize, 0);
-    ShapeAppearanceModel shapeAppearanceModel =
-        new ShapeAppearanceModel(context, attrs, defStyleAttr, DEF_STYLE_RES);
+    iconPadding = attributes.iconPadding;
+    iconTintMode = attributes.iconTintMode;
+    iconTint = attributes.iconTint;
+    icon = attributes.newIcon(context);
+    iconGravity = attributes.iconGravity;
+    iconSize = attributes.iconSize;
 
     // Loads and sets background drawable attributes
-    materialButtonHelper = new MaterialButtonHelper(this, shapeAppearanceModel);
+    materialButtonHelper = new MaterialButtonHelper(this, attributes.newShapeAppearanceModel());
     materialButtonHelper.loadFromAttributes(attributes);
 
-    attributes.recycle();
-
     setCompoundDrawablePadding(iconPadding);
     updateIcon();
   }
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.button;
+
+import com.google.android.material.R;
+
+import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.TypedArray;
+import android.graphics.PorterDuff.Mode;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.Drawable.ConstantState;
+import androidx.annotation.AttrRes;
+import androidx.annotation.Nullable;
+import androidx.annotation.Px;
+import androidx.annotation.RestrictTo;
+import androidx.annotation.StyleRes;
+import com.google.android.material.internal.ThemeEnforcement;
+import com.google.android.material.internal.ViewUtils;
+import com.google.android.material.resources.MaterialResources;
+import com.google.android.material.resources.ThemeCache;
+import com.google.android.material.shape.ShapeAppearanceModel;
+import android.util.AttributeSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The resolved styled attributes of a {@link MaterialButton}.
+ *
+ * <p>When the cache is enabled, the attributes resolved for a layout element in a theme are kept
+ * and shared by every button inflated from an element with the same attributes in the same theme,
+ * for example the items of a {@code RecyclerView}, so that their attributes are only resolved
+ * once. Attributes are cached with a {@link ThemeCache}, so they are only shared by buttons in the
+ * same theme and configuration. Shared attributes must not be modified.
+ *
+ * @hide
+ */
+@RestrictTo(LIBRARY_GROUP)
+public final class MaterialButtonAttributes {
+
+  // Maximum number of layout elements cached per theme.
+  private static final int MAX_CACHED_ELEMENTS = 64;
+
+  private static final ThemeCache<Map<Key, MaterialButtonAttributes>> cache = new ThemeCache<>();
+
+  private static volatile boolean cacheEnabled;
+
+  @Px final int iconPadding;
+  final Mode iconTintMode;
+  @Nullable final ColorStateList iconTint;
+  @Nullable private final Drawable icon;
+  @Nullable private final ConstantState iconState;
+  @MaterialButton.IconGravity final int iconGravity;
+  @Px final int iconSize;
+  private final ShapeAppearanceModel shapeAppearanceModel;
+
+  @Px final int insetLeft;
+  @Px final int insetRight;
+  @Px final int insetTop;
+  @Px final int insetBottom;
+  final boolean hasCornerRadius;
+  @Px final int cornerRadius;
+  @Px final int strokeWidth;
+  final Mode backgroundTintMode;
+  @Nullable final ColorStateList backgroundTint;
+  @Nullable final ColorStateList strokeColor;
+  @Nullable final ColorStateList rippleColor;
+  final boolean checkable;
+  @Px final int elevation;
+
+  // Whether these attributes are cached, in which case they are shared by several buttons.
+  private boolean shared;
+
+  private MaterialButtonAttributes(
+      Context context,
+      @Nullable AttributeSet attrs,
+      @AttrRes int defStyleAttr,
+      @StyleRes int defStyleRes) {
+    TypedArray attributes =
+        ThemeEnforcement.obtainStyledAttributes(
+            context, attrs, R.styleable.MaterialButton, defStyleAttr, defStyleRes);
+
+    iconPadding = attributes.getDimensionPixelSize(R.styleable.MaterialButton_iconPadding, 0);
+    iconTintMode =
+        ViewUtils.parseTintMode(
+            attributes.getInt(R.styleable.MaterialButton_iconTintMode, -1), Mode.SRC_IN);
+    iconTint =
+        MaterialResources.getColorStateList(
+            context, attributes, R.styleable.MaterialButton_iconTint);
+    icon = MaterialResources.getDrawable(context, attributes, R.styleable.MaterialButton_icon);
+    iconState = icon != null ? icon.getConstantState() : null;
+    iconGravity =
+        attributes.getInteger(
+            R.styleable.MaterialButton_iconGravity, MaterialButton.ICON_GRAVITY_START);
+    iconSize = attributes.getDimensionPixelSize(R.styleable.MaterialButton_iconSize, 0);
+    shapeAppearanceModel = new ShapeAppearanceModel(context, attrs, defStyleAttr, defStyleRes);
+
+    insetLeft = attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetLeft, 0);
+    insetRight =
+        attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetRight, 0);
+    insetTop = attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetTop, 0);
+    insetBottom =
+        attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetBottom, 0);
+    hasCornerRadius = attributes.hasValue(R.styleable.MaterialButton_cornerRadius);
+    cornerRadius = attributes.getDimensionPixelSize(R.styleable.MaterialButton_cornerRadius, -1);
+    strokeWidth = attributes.getDimensionPixelSize(R.styleable.MaterialButton_strokeWidth, 0);
+    backgroundTintMode =
+        ViewUtils.parseTintMode(
+            attributes.getInt(R.styleable.MaterialButton_backgroundTintMode, -1), Mode.SRC_IN);
+    backgroundTint =
+        MaterialResources.getColorStateList(
+            context, attributes, R.styleable.MaterialButton_backgroundTint);
+    strokeColor =
+        MaterialResources.getColorStateList(
+            context, attributes, R.styleable.MaterialButton_strokeColor);
+    rippleColor =
+        MaterialResources.getColorStateList(
+            context, attributes, R.styleable.MaterialButton_rippleColor);
+    checkable = attributes.getBoolean(R.styleable.MaterialButton_android_checkable, false);
+    elevation = attributes.getDimensionPixelSize(R.styleable.MaterialButton_elevation, 0);
+
+    attributes.recycle();
+  }
+
+  /**
+   * Returns the attributes of a button created with the given attributes and styles. If the cache
+   * is enabled, the returned attributes may be shared with other buttons.
+   */
+  static MaterialButtonAttributes obtain(
+      Context context,
+      @Nullable AttributeSet attrs,
+      @AttrRes int defStyleAttr,
+      @StyleRes int defStyleRes) {
+    if (!cacheEnabled) {
+      return new MaterialButtonAttributes(context, attrs, defStyleAttr, defStyleRes);
+    }
+
+    Key key = new Key(attrs, defStyleAttr, defStyleRes);
+    synchronized (cache) {
+      Map<Key, MaterialButtonAttributes> elements = cache.get(context);
+      MaterialButtonAttributes cached = elements != null ? elements.get(key) : null;
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    MaterialButtonAttributes attributes =
+        new MaterialButtonAttributes(context, attrs, defStyleAttr, defStyleRes);
+    // Icons which can't be copied can't be shared by several buttons.
+    if (attributes.icon == null || attributes.iconState != null) {
+      synchronized (cache) {
+        Map<Key, MaterialButtonAttributes> elements = cache.get(context);
+        if (elements == null) {
+          elements = new HashMap<>();
+          cache.put(context, elements);
+        }
+        if (elements.size() < MAX_CACHED_ELEMENTS) {
+          elements.put(key, attributes);
+          attributes.shared = true;
+        }
+      }
+    }
+    return attributes;
+  }
+
+  /** Returns the icon for a new button, which is never shared with other buttons. */
+  @Nullable
+  Drawable newIcon(Context context) {
+    return shared && iconState != null ? iconState.newDrawable(context.getResources()) : icon;
+  }
+
+  /** Returns the shape appearance for a new button, which is never shared with other buttons. */
+  ShapeAppearanceModel newShapeAppearanceModel() {
+    return shared ? new ShapeAppearanceModel(shapeAppearanceModel) : shapeAppearanceModel;
+  }
+
+  /**
+   * Sets whether the attributes of buttons inflated from the same layout element in the same theme
+   * are only resolved once. Disabling the cache clears it.
+   */
+  public static void setCacheEnabled(boolean enabled) {
+    cacheEnabled = enabled;
+    if (!enabled) {
+      clearCache();
+    }
+  }
+
+  /** Returns whether the attributes of buttons are cached. */
+  public static boolean isCacheEnabled() {
+    return cacheEnabled;
+  }
+
+  /**
+   * Clears all cached attributes. Attributes are already invalidated when the configuration of a
+   * theme changes, and on API 23+ when a style is applied to it.
+   */
+  public static void clearCache() {
+    cache.clear();
+  }
+
+  /**
+   * Identifies a layout element by its styles and the raw values of its attributes, which resolve
+   * to the same attributes in a given theme.
+   */
+  private static final class Key {
+    @AttrRes private final int defStyleAttr;
+    @StyleRes private final int defStyleRes;
+    @StyleRes private final int styleAttribute;
+    private final int[] names;
+    private final String[] values;
+    private final int hashCode;
+
+    Key(@Nullable AttributeSet attrs, @AttrRes int defStyleAttr, @StyleRes int defStyleRes) {
+      this.defStyleAttr = defStyleAttr;
+      this.defStyleRes = defStyleRes;
+      int count = attrs != null ? attrs.getAttributeCount() : 0;
+      styleAttribute = attrs != null ? attrs.getStyleAttribute() : 0;
+      names = new int[count];
+      values = new String[count];
+      for (int i = 0; i < count; i++) {
+        names[i] = attrs.getAttributeNameResource(i);
+        values[i] = attrs.getAttributeValue(i);
+      }
+
+      int result = defStyleAttr;
+      result = 31 * result + defStyleRes;
+      result = 31 * result + styleAttribute;
+      result = 31 * result + Arrays.hashCode(names);
+      result = 31 * result + Arrays.hashCode(values);
+      hashCode = result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return hashCode == that.hashCode
+          && defStyleAttr == that.defStyleAttr
+          && defStyleRes == that.defStyleRes
+          && styleAttribute == that.styleAttribute
+          && Arrays.equals(names, that.names)
+          && Arrays.equals(values, that.values);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
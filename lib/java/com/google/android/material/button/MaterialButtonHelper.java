@@ -21,7 +21,6 @@ import com.google.android.material.R;
 import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP;
 
 import android.content.res.ColorStateList;
-import android.content.res.TypedArray;
 import android.graphics.Color;
 import android.graphics.PorterDuff.Mode;
 import android.graphics.drawable.Drawable;
@@ -33,8 +32,6 @@ import android.os.Build.VERSION_CODES;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
-import com.google.android.material.internal.ViewUtils;
-import com.google.android.material.resources.MaterialResources;
 import com.google.android.material.shape.MaterialShapeDrawable;
 import com.google.android.material.shape.ShapeAppearanceModel;
 import androidx.core.graphics.drawable.DrawableCompat;
@@ -74,38 +71,28 @@ class MaterialButtonHelper {
     this.shapeAppearanceModel = shapeAppearanceModel;
   }
 
-  void loadFromAttributes(TypedArray attributes) {
-    insetLeft = attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetLeft, 0);
-    insetRight =
-        attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetRight, 0);
-    insetTop = attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetTop, 0);
-    insetBottom =
-        attributes.getDimensionPixelOffset(R.styleable.MaterialButton_android_insetBottom, 0);
+  void loadFromAttributes(MaterialButtonAttributes attributes) {
+    insetLeft = attributes.insetLeft;
+    insetRight = attributes.insetRight;
+    insetTop = attributes.insetTop;
+    insetBottom = attributes.insetBottom;
 
     // cornerRadius should override whatever corner radius is set in shapeAppearanceModel
-    if (attributes.hasValue(R.styleable.MaterialButton_cornerRadius)) {
-      cornerRadius = attributes.getDimensionPixelSize(R.styleable.MaterialButton_cornerRadius, -1);
-      shapeAppearanceModel.setCornerRadius(cornerRadius);
+    if (attributes.hasCornerRadius) {
+      cornerRadius = attributes.cornerRadius;
+      shapeAppearanceModel = shapeAppearanceModel.withCornerRadius(cornerRadius);
       cornerRadiusSet = true;
     }
 
-    strokeWidth = attributes.getDimensionPixelSize(R.styleable.MaterialButton_strokeWidth, 0);
+    strokeWidth = attributes.strokeWidth;
 
-    backgroundTintMode =
-        ViewUtils.parseTintMode(
-            attributes.getInt(R.styleable.MaterialButton_backgroundTintMode, -1), Mode.SRC_IN);
-    backgroundTint =
-        MaterialResources.getColorStateList(
-            materialButton.getContext(), attributes, R.styleable.MaterialButton_backgroundTint);
-    strokeColor =
-        MaterialResources.getColorStateList(
-            materialButton.getContext(), attributes, R.styleable.MaterialButton_strokeColor);
-    rippleColor =
-        MaterialResources.getColorStateList(
-            materialButton.getContext(), attributes, R.styleable.MaterialButton_rippleColor);
+    backgroundTintMode = attributes.backgroundTintMode;
+    backgroundTint = attributes.backgroundTint;
+    strokeColor = attributes.strokeColor;
+    rippleColor = attributes.rippleColor;
 
-    checkable = attributes.getBoolean(R.styleable.MaterialButton_android_checkable, false);
-    int elevation = attributes.getDimensionPixelSize(R.styleable.MaterialButton_elevation, 0);
+    checkable = attributes.checkable;
+    int elevation = attributes.elevation;
 
     // Store padding before setting background, since background overwrites padding values
     int paddingStart = ViewCompat.getPaddingStart(materialButton);
@@ -321,7 +308,8 @@ class MaterialButtonHelper {
     if (!cornerRadiusSet || this.cornerRadius != cornerRadius) {
       this.cornerRadius = cornerRadius;
       cornerRadiusSet = true;
-      shapeAppearanceModel.setCornerRadius(cornerRadius + (strokeWidth / 2f));
+      shapeAppearanceModel =
+          shapeAppearanceModel.withCornerRadius(cornerRadius + (strokeWidth / 2f));
       updateButtonShape(shapeAppearanceModel);
     }
   }
@@ -453,24 +453,30 @@ public class MaterialButtonToggleGroup extends RelativeLayout {
         if (button.getShapeAppearanceModel() != null) {
           ShapeAppearanceModel shapeAppearanceModel = button.getShapeAppearanceModel();
           CornerData cornerData = originalCornerData.get(i);
+          // Models built by a ShapeAppearanceModel.Builder are immutable, so they are replaced by a
+          // copy with the new corners instead of being modified.
           if (numChildren == 1) {
             // If there is only one child, sets its original corners
-            shapeAppearanceModel.setCornerRadii(
-                cornerData.topLeft,
-                cornerData.topRight,
-                cornerData.bottomRight,
-                cornerData.bottomLeft);
+            shapeAppearanceModel =
+                shapeAppearanceModel.withCornerRadii(
+                    cornerData.topLeft,
+                    cornerData.topRight,
+                    cornerData.bottomRight,
+                    cornerData.bottomLeft);
           } else {
             if (i == (ViewUtils.isLayoutRtl(this) ? (numChildren - 1) : 0)) {
               // Keeps the left corners of the first child in LTR, or the last child in RTL
-              shapeAppearanceModel.setCornerRadii(cornerData.topLeft, 0, 0, cornerData.bottomLeft);
+              shapeAppearanceModel =
+                  shapeAppearanceModel.withCornerRadii(
+                      cornerData.topLeft, 0, 0, cornerData.bottomLeft);
             } else if (i != 0 && i < numChildren - 1) {
               // Sets corner radii of all middle children to 0
-              shapeAppearanceModel.setCornerRadius(0);
+              shapeAppearanceModel = shapeAppearanceModel.withCornerRadius(0);
             } else if (i == (ViewUtils.isLayoutRtl(this) ? 0 : (numChildren - 1))) {
               // Keeps the right corners of the last child in LTR, or the first child in RTL
-              shapeAppearanceModel.setCornerRadii(
-                  0, cornerData.topRight, cornerData.bottomRight, 0);
+              shapeAppearanceModel =
+                  shapeAppearanceModel.withCornerRadii(
+                      0, cornerData.topRight, cornerData.bottomRight, 0);
             }
           }
           button.setShapeAppearanceModel(shapeAppearanceModel);
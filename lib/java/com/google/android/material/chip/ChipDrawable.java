@@ -65,7 +65,6 @@ import com.google.android.material.internal.ThemeEnforcement;
 import com.google.android.material.resources.MaterialResources;
 import com.google.android.material.resources.TextAppearance;
 import com.google.android.material.shape.MaterialShapeDrawable;
-import com.google.android.material.shape.ShapeAppearanceModel;
 import androidx.core.graphics.ColorUtils;
 import androidx.core.graphics.drawable.DrawableCompat;
 import androidx.core.graphics.drawable.TintAwareDrawable;
@@ -1452,9 +1451,8 @@ public class ChipDrawable extends MaterialShapeDrawable
     if (this.chipCornerRadius != chipCornerRadius) {
       this.chipCornerRadius = chipCornerRadius;
 
-      ShapeAppearanceModel shapeAppearanceModel = getShapeAppearanceModel();
-      shapeAppearanceModel.setCornerRadius(chipCornerRadius);
-      invalidateSelf();
+      // Also handles immutable models, which are replaced rather than modified.
+      setCornerRadius(chipCornerRadius);
     }
   }
 
@@ -28,13 +28,14 @@ import com.google.android.material.color.MaterialColors;
 /** Utility for calculating elevation overlay alpha values and colors. */
 public class ElevationOverlayProvider {
 
-  private static final float FORMULA_MULTIPLIER = 4.5f;
-  private static final float FORMULA_OFFSET = 2f;
+  static final float FORMULA_MULTIPLIER = 4.5f;
+  static final float FORMULA_OFFSET = 2f;
 
   private final boolean elevationOverlaysEnabled;
   private final int elevationOverlaysColor;
   private final int colorSurface;
   private final float displayDensity;
+  private final ElevationOverlayTable overlayTable;
 
   public ElevationOverlayProvider(Context context) {
     this.elevationOverlaysEnabled =
@@ -43,6 +44,8 @@ public class ElevationOverlayProvider {
         MaterialColors.getColor(context, R.attr.elevationOverlaysColor, Color.TRANSPARENT);
     this.colorSurface = MaterialColors.getColor(context, R.attr.colorSurface, Color.TRANSPARENT);
     this.displayDensity = context.getResources().getDisplayMetrics().density;
+    this.overlayTable =
+        ElevationOverlayTable.get(colorSurface, elevationOverlaysColor, displayDensity);
   }
 
   /**
@@ -69,8 +72,7 @@ public class ElevationOverlayProvider {
    */
   @ColorInt
   public int layerOverlay(@ColorInt int backgroundColor, float elevation) {
-    float overlayAlpha = calculateOverlayAlphaFraction(elevation);
-    return MaterialColors.layer(backgroundColor, elevationOverlaysColor, overlayAlpha);
+    return overlayTable.layerOverlay(backgroundColor, elevation);
   }
 
   /**
@@ -86,6 +88,10 @@ public class ElevationOverlayProvider {
    * color, based on the provided {@code elevation} value.
    */
   public float calculateOverlayAlphaFraction(float elevation) {
+    return calculateOverlayAlphaFraction(displayDensity, elevation);
+  }
+
+  static float calculateOverlayAlphaFraction(float displayDensity, float elevation) {
     if (displayDensity <= 0 || elevation <= 0) {
       return 0;
     }
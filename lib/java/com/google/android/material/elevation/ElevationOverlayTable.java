@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.elevation;
+
+import android.graphics.Color;
+import androidx.annotation.ColorInt;
+import com.google.android.material.color.MaterialColors;
+import androidx.core.graphics.ColorUtils;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A precomputed table of the elevation overlay colors of a surface color, shared by all {@link
+ * ElevationOverlayProvider}s with the same surface color, overlay color and display density.
+ *
+ * <p>The overlay color layered on top of a background only depends on the alpha of the overlay,
+ * which is rounded to an integer. The table stores the lowest elevation at which each alpha value
+ * is reached, and the surface color layered with the overlay at each alpha value, so looking up an
+ * overlay color doesn't compute any logarithms or blend any colors, and gives the same result as
+ * computing it.
+ */
+final class ElevationOverlayTable {
+
+  private static final int MAX_TABLES = 16;
+
+  // Tables are rarely created, and there are only a few surface colors in an app.
+  private static final List<ElevationOverlayTable> tables = new ArrayList<>();
+
+  private final int surfaceColor;
+  private final int overlayColor;
+  private final float displayDensity;
+
+  // The highest alpha of the overlay, reached at any elevation once the alpha fraction is 1.
+  private final int maxAlpha;
+  // The lowest elevation at which the alpha of the overlay is at least each alpha value. The
+  // threshold for an alpha of 0 is unused.
+  private final float[] alphaThresholds;
+  // The surface color layered with the overlay at each alpha value.
+  private final int[] surfaceColors;
+
+  /** Returns the shared table for the given colors and display density. */
+  static ElevationOverlayTable get(
+      @ColorInt int surfaceColor, @ColorInt int overlayColor, float displayDensity) {
+    synchronized (tables) {
+      for (int i = 0, size = tables.size(); i < size; i++) {
+        ElevationOverlayTable table = tables.get(i);
+        if (table.surfaceColor == surfaceColor
+            && table.overlayColor == overlayColor
+            && table.displayDensity == displayDensity) {
+          return table;
+        }
+      }
+      if (tables.size() == MAX_TABLES) {
+        tables.remove(0);
+      }
+      ElevationOverlayTable table =
+          new ElevationOverlayTable(surfaceColor, overlayColor, displayDensity);
+      tables.add(table);
+      return table;
+    }
+  }
+
+  private ElevationOverlayTable(
+      @ColorInt int surfaceColor, @ColorInt int overlayColor, float displayDensity) {
+    this.surfaceColor = surfaceColor;
+    this.overlayColor = overlayColor;
+    this.displayDensity = displayDensity;
+
+    maxAlpha = calculateAlpha(Float.POSITIVE_INFINITY);
+    alphaThresholds = new float[maxAlpha + 1];
+    surfaceColors = new int[maxAlpha + 1];
+    for (int alpha = 0; alpha <= maxAlpha; alpha++) {
+      if (alpha > 0) {
+        alphaThresholds[alpha] = calculateAlphaThreshold(alpha);
+      }
+      surfaceColors[alpha] =
+          MaterialColors.layer(surfaceColor, ColorUtils.setAlphaComponent(overlayColor, alpha));
+    }
+  }
+
+  /** Returns the alpha of the overlay at {@code elevation}. */
+  int getAlpha(float elevation) {
+    // Find the highest alpha whose threshold has been reached.
+    int low = 0;
+    int high = maxAlpha;
+    while (low < high) {
+      int mid = (low + high + 1) >>> 1;
+      if (alphaThresholds[mid] <= elevation) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+
+  /** Returns {@code backgroundColor} layered with the overlay at {@code elevation}. */
+  @ColorInt
+  int layerOverlay(@ColorInt int backgroundColor, float elevation) {
+    int alpha = getAlpha(elevation);
+    if (backgroundColor == surfaceColor) {
+      return surfaceColors[alpha];
+    }
+    return MaterialColors.layer(backgroundColor, ColorUtils.setAlphaComponent(overlayColor, alpha));
+  }
+
+  /**
+   * Returns the lowest positive elevation at which the alpha of the overlay is at least {@code
+   * alpha}, by inverting the alpha formula and then adjusting the estimate to the exact float at
+   * which the rounded alpha changes. The alpha only ever increases with the elevation.
+   */
+  private float calculateAlphaThreshold(int alpha) {
+    float fraction = (alpha - 0.5f) / Color.alpha(overlayColor);
+    float elevationDp =
+        (float)
+            Math.expm1(
+                (fraction * 100 - ElevationOverlayProvider.FORMULA_OFFSET)
+                    / ElevationOverlayProvider.FORMULA_MULTIPLIER);
+    float threshold = elevationDp * displayDensity;
+    if (!(threshold > 0)) {
+      threshold = Float.MIN_VALUE;
+    }
+    while (threshold > Float.MIN_VALUE && calculateAlpha(previous(threshold)) >= alpha) {
+      threshold = previous(threshold);
+    }
+    while (calculateAlpha(threshold) < alpha) {
+      threshold = Math.nextUp(threshold);
+    }
+    return threshold;
+  }
+
+  private int calculateAlpha(float elevation) {
+    return Math.round(
+        Color.alpha(overlayColor)
+            * ElevationOverlayProvider.calculateOverlayAlphaFraction(displayDensity, elevation));
+  }
+
+  private static float previous(float value) {
+    return Math.nextAfter(value, Double.NEGATIVE_INFINITY);
+  }
+}
@@ -197,7 +197,20 @@ public class ExtendedFloatingActionButton extends MaterialButton implements Atta
     super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 
     if (isUsingPillCorner) {
-      getShapeAppearanceModel().setCornerRadius(getAdjustedRadius(getMeasuredHeight()));
+      setShapeCornerRadius(getAdjustedRadius(getMeasuredHeight()));
+    }
+  }
+
+  /**
+   * Sets the corner size of the shape without changing whether it's using pill corners. Immutable
+   * models are replaced by a copy with the new corners instead of being modified.
+   */
+  private void setShapeCornerRadius(float cornerRadius) {
+    ShapeAppearanceModel shapeAppearanceModel = getShapeAppearanceModel();
+    ShapeAppearanceModel updatedShapeAppearanceModel =
+        shapeAppearanceModel.withCornerRadius(cornerRadius);
+    if (updatedShapeAppearanceModel != shapeAppearanceModel) {
+      super.setShapeAppearanceModel(updatedShapeAppearanceModel);
     }
   }
 
@@ -987,9 +1000,7 @@ public class ExtendedFloatingActionButton extends MaterialButton implements Atta
       new Property<View, Float>(Float.class, "cornerRadius") {
         @Override
         public void set(View object, Float value) {
-          ((ExtendedFloatingActionButton) object)
-              .getShapeAppearanceModel()
-              .setCornerRadius(value.intValue());
+          ((ExtendedFloatingActionButton) object).setShapeCornerRadius(value.intValue());
         }
 
         @Override
@@ -302,11 +302,15 @@ class FloatingActionButtonImpl {
 
   final void setShapeAppearance(ShapeAppearanceModel shapeAppearance, boolean usingDefaultCorner) {
     if (usingDefaultCorner) {
-      shapeAppearance.setCornerRadius(view.getSizeDimension() / 2);
+      shapeAppearance = shapeAppearance.withCornerRadius(view.getSizeDimension() / 2);
     }
 
-    this.shapeAppearance = shapeAppearance;
     this.usingDefaultCorner = usingDefaultCorner;
+    updateShapeAppearance(shapeAppearance);
+  }
+
+  private void updateShapeAppearance(ShapeAppearanceModel shapeAppearance) {
+    this.shapeAppearance = shapeAppearance;
     if (shapeDrawable != null) {
       shapeDrawable.setShapeAppearanceModel(shapeAppearance);
     }
@@ -639,8 +643,13 @@ class FloatingActionButtonImpl {
       return;
     }
 
+    // Immutable models are replaced by a copy with the new corners instead of being modified.
     ShapeAppearanceModel shapeAppearanceModel = shapeDrawable.getShapeAppearanceModel();
-    shapeAppearanceModel.setCornerRadius(view.getSizeDimension() / 2f);
+    ShapeAppearanceModel resizedShapeAppearanceModel =
+        shapeAppearanceModel.withCornerRadius(view.getSizeDimension() / 2f);
+    if (resizedShapeAppearanceModel != shapeAppearanceModel) {
+      updateShapeAppearance(resizedShapeAppearanceModel);
+    }
   }
 
   final void updatePadding() {
@@ -718,11 +727,11 @@ class FloatingActionButtonImpl {
   }
 
   MaterialShapeDrawable createShapeDrawable() {
-    ShapeAppearanceModel shapeAppearance = checkNotNull(this.shapeAppearance);
     if (usingDefaultCorner) {
-      shapeAppearance.setCornerRadius(view.getSizeDimension() / 2f);
+      shapeAppearance =
+          checkNotNull(shapeAppearance).withCornerRadius(view.getSizeDimension() / 2f);
     }
-    return new MaterialShapeDrawable(shapeAppearance);
+    return new MaterialShapeDrawable(checkNotNull(shapeAppearance));
   }
 
   boolean isOrWillBeShown() {
@@ -226,11 +226,11 @@ class FloatingActionButtonImplLollipop extends FloatingActionButtonImpl {
 
   @Override
   MaterialShapeDrawable createShapeDrawable() {
-    ShapeAppearanceModel shapeAppearance = checkNotNull(this.shapeAppearance);
     if (usingDefaultCorner) {
-      shapeAppearance.setCornerRadius(view.getSizeDimension() / 2f);
+      shapeAppearance =
+          checkNotNull(shapeAppearance).withCornerRadius(view.getSizeDimension() / 2f);
     }
-    return new AlwaysStatefulMaterialShapeDrawable(shapeAppearance);
+    return new AlwaysStatefulMaterialShapeDrawable(checkNotNull(shapeAppearance));
   }
 
   @Override
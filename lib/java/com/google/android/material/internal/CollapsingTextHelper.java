@@ -100,6 +100,7 @@ public final class CollapsingTextHelper {
 
   private boolean useTexture;
   private Bitmap expandedTitleTexture;
+  private boolean expandedTitleTextureIsAlphaMask;
   private Paint texturePaint;
   private float textureAscent;
   private float textureDescent;
@@ -109,11 +110,20 @@ public final class CollapsingTextHelper {
 
   private int[] state;
 
-  private boolean boundsChanged;
-
   private final TextPaint textPaint;
   private final TextPaint tmpPaint;
 
+  // The ellipsized text and its measurements in the collapsed and expanded states, so that text is
+  // only measured when the text, typeface, size or bounds change rather than on every frame.
+  private final TextLayout collapsedLayout = new TextLayout();
+  private final TextLayout expandedLayout = new TextLayout();
+  private final TextLayout collapsedFullTextLayout = new TextLayout();
+  private TextLayout currentLayout;
+  private int textLayoutCount;
+
+  private boolean renderNodeEnabled;
+  @Nullable private CollapsingTextRenderNodes renderNodes;
+
   private TimeInterpolator positionInterpolator;
   private TimeInterpolator textSizeInterpolator;
 
@@ -127,6 +137,9 @@ public final class CollapsingTextHelper {
   private float expandedShadowDy;
   private ColorStateList expandedShadowColor;
 
+  // Radius of the shadow layer last set on textPaint, since Paint only exposes it from API 29.
+  private float currentShadowRadius;
+
   public CollapsingTextHelper(View view) {
     this.view = view;
 
@@ -179,7 +192,6 @@ public final class CollapsingTextHelper {
   public void setExpandedBounds(int left, int top, int right, int bottom) {
     if (!rectEquals(expandedBounds, left, top, right, bottom)) {
       expandedBounds.set(left, top, right, bottom);
-      boundsChanged = true;
       onBoundsChanged();
     }
   }
@@ -191,7 +203,6 @@ public final class CollapsingTextHelper {
   public void setCollapsedBounds(int left, int top, int right, int bottom) {
     if (!rectEquals(collapsedBounds, left, top, right, bottom)) {
       collapsedBounds.set(left, top, right, bottom);
-      boundsChanged = true;
       onBoundsChanged();
     }
   }
@@ -201,12 +212,12 @@ public final class CollapsingTextHelper {
   }
 
   public void getCollapsedTextActualBounds(RectF bounds) {
-    boolean isRtl = calculateIsRtl(text);
+    TextLayout layout = getCollapsedFullTextLayout();
+    boolean isRtl = layout.isRtl;
 
-    bounds.left =
-        !isRtl ? collapsedBounds.left : collapsedBounds.right - calculateCollapsedTextWidth();
+    bounds.left = !isRtl ? collapsedBounds.left : collapsedBounds.right - layout.width;
     bounds.top = collapsedBounds.top;
-    bounds.right = !isRtl ? bounds.left + calculateCollapsedTextWidth() : collapsedBounds.right;
+    bounds.right = !isRtl ? bounds.left + layout.width : collapsedBounds.right;
     bounds.bottom = collapsedBounds.top + getCollapsedTextHeight();
   }
 
@@ -214,8 +225,7 @@ public final class CollapsingTextHelper {
     if (text == null) {
       return 0;
     }
-    getTextPaintCollapsed(tmpPaint);
-    return tmpPaint.measureText(text, 0, text.length());
+    return getCollapsedFullTextLayout().width;
   }
 
   public float getExpandedTextHeight() {
@@ -458,13 +468,19 @@ public final class CollapsingTextHelper {
       textPaint.setColor(getCurrentCollapsedTextColor());
     }
 
+    currentShadowRadius = lerp(expandedShadowRadius, collapsedShadowRadius, fraction, null);
     textPaint.setShadowLayer(
-        lerp(expandedShadowRadius, collapsedShadowRadius, fraction, null),
+        currentShadowRadius,
         lerp(expandedShadowDx, collapsedShadowDx, fraction, null),
         lerp(expandedShadowDy, collapsedShadowDy, fraction, null),
         blendColors(
             getCurrentColor(expandedShadowColor), getCurrentColor(collapsedShadowColor), fraction));
 
+    if (renderNodes != null) {
+      renderNodes.setTransform(currentDrawX, currentDrawY + textPaint.ascent() * scale, scale);
+    }
+
+    // When the title is drawn from renderNodes, drawing the view again only re-issues the nodes.
     ViewCompat.postInvalidateOnAnimation(view);
   }
 
@@ -494,8 +510,7 @@ public final class CollapsingTextHelper {
 
     // We then calculate the collapsed text size, using the same logic
     calculateUsingTextSize(collapsedTextSize);
-    float width =
-        textToDraw != null ? textPaint.measureText(textToDraw, 0, textToDraw.length()) : 0;
+    float width = textToDraw != null ? collapsedLayout.width : 0;
     final int collapsedAbsGravity =
         GravityCompat.getAbsoluteGravity(
             collapsedTextGravity,
@@ -528,7 +543,7 @@ public final class CollapsingTextHelper {
     }
 
     calculateUsingTextSize(expandedTextSize);
-    width = textToDraw != null ? textPaint.measureText(textToDraw, 0, textToDraw.length()) : 0;
+    width = textToDraw != null ? expandedLayout.width : 0;
     final int expandedAbsGravity =
         GravityCompat.getAbsoluteGravity(
             expandedTextGravity,
@@ -562,8 +577,12 @@ public final class CollapsingTextHelper {
 
     // The bounds have changed so we need to clear the texture
     clearTexture();
+    if (renderNodes != null) {
+      renderNodes.invalidate();
+    }
     // Now reset the text size back to the original
     setInterpolatedTextSize(currentTextSize);
+    ViewCompat.postInvalidateOnAnimation(view);
   }
 
   private void interpolateBounds(float fraction) {
@@ -577,6 +596,14 @@ public final class CollapsingTextHelper {
   }
 
   public void draw(Canvas canvas) {
+    if (textToDraw != null && drawTitle && shouldDrawRenderNodes(canvas)) {
+      // The transform of the nodes is updated as the title is interpolated, so the recorded title
+      // is drawn as is.
+      renderNodes.draw(
+          canvas, currentLayout == collapsedLayout, textToDraw, currentLayout.width, textPaint);
+      return;
+    }
+
     final int saveCount = canvas.save();
 
     if (textToDraw != null && drawTitle) {
@@ -610,7 +637,9 @@ public final class CollapsingTextHelper {
       }
 
       if (drawTexture) {
-        // If we should use a texture, draw it instead of text
+        // If we should use a texture, draw it instead of text. Alpha mask textures are tinted with
+        // the current text color, other textures already contain the color of the text.
+        texturePaint.setColor(expandedTitleTextureIsAlphaMask ? textPaint.getColor() : Color.BLACK);
         canvas.drawBitmap(expandedTitleTexture, x, y, texturePaint);
       } else {
         canvas.drawText(textToDraw, 0, textToDraw.length(), x, y, textPaint);
@@ -620,6 +649,25 @@ public final class CollapsingTextHelper {
     canvas.restoreToCount(saveCount);
   }
 
+  private boolean shouldDrawRenderNodes(Canvas canvas) {
+    return renderNodes != null
+        && canvas.isHardwareAccelerated()
+        && currentLayout != null
+        && interpolatesOnlyPositionAndSize();
+  }
+
+  /**
+   * Returns whether the collapsed and expanded titles only differ by their position and size, in
+   * which case the title can be interpolated by only changing its transform.
+   */
+  private boolean interpolatesOnlyPositionAndSize() {
+    return getCurrentExpandedTextColor() == getCurrentCollapsedTextColor()
+        && expandedShadowRadius == collapsedShadowRadius
+        && expandedShadowDx == collapsedShadowDx
+        && expandedShadowDy == collapsedShadowDy
+        && getCurrentColor(expandedShadowColor) == getCurrentColor(collapsedShadowColor);
+  }
+
   private boolean calculateIsRtl(CharSequence text) {
     final boolean defaultIsRtl =
         ViewCompat.getLayoutDirection(view) == ViewCompat.LAYOUT_DIRECTION_RTL;
@@ -639,37 +687,18 @@ public final class CollapsingTextHelper {
       // Make sure we have an expanded texture if needed
       ensureExpandedTexture();
     }
-
-    ViewCompat.postInvalidateOnAnimation(view);
   }
 
-  @SuppressWarnings("ReferenceEquality") // Matches the Typeface comparison in TextView
   private void calculateUsingTextSize(final float textSize) {
     if (text == null) {
       return;
     }
 
-    final float collapsedWidth = collapsedBounds.width();
-    final float expandedWidth = expandedBounds.width();
-
-    final float availableWidth;
-    final float newTextSize;
-    boolean updateDrawText = false;
-
+    final TextLayout layout;
     if (isClose(textSize, collapsedTextSize)) {
-      newTextSize = collapsedTextSize;
       scale = 1f;
-      if (currentTypeface != collapsedTypeface) {
-        currentTypeface = collapsedTypeface;
-        updateDrawText = true;
-      }
-      availableWidth = collapsedWidth;
+      layout = getCollapsedLayout();
     } else {
-      newTextSize = expandedTextSize;
-      if (currentTypeface != expandedTypeface) {
-        currentTypeface = expandedTypeface;
-        updateDrawText = true;
-      }
       if (isClose(textSize, expandedTextSize)) {
         // If we're close to the expanded text size, snap to it and use a scale of 1
         scale = 1f;
@@ -677,43 +706,87 @@ public final class CollapsingTextHelper {
         // Else, we'll scale down from the expanded text size
         scale = textSize / expandedTextSize;
       }
+      layout = getExpandedLayout();
+    }
 
-      final float textSizeRatio = collapsedTextSize / expandedTextSize;
-      // This is the size of the expanded bounds when it is scaled to match the
-      // collapsed text size
-      final float scaledDownWidth = expandedWidth * textSizeRatio;
+    currentTextSize = layout.textSize;
+    currentTypeface = layout.typeface;
+    textPaint.setTextSize(currentTextSize);
+    textPaint.setTypeface(currentTypeface);
+    // Use linear text scaling if we're scaling the canvas
+    textPaint.setLinearText(scale != 1f);
+    textToDraw = layout.ellipsizedText;
+    isRtl = layout.isRtl;
+    currentLayout = layout;
+  }
 
-      if (scaledDownWidth > collapsedWidth) {
-        // If the scaled down size is larger than the actual collapsed width, we need to
-        // cap the available width so that when the expanded text scales down, it matches
-        // the collapsed width
-        availableWidth = Math.min(collapsedWidth / textSizeRatio, expandedWidth);
-      } else {
-        // Otherwise we'll just use the expanded width
-        availableWidth = expandedWidth;
-      }
-    }
+  private TextLayout getCollapsedLayout() {
+    updateTextLayout(
+        collapsedLayout, collapsedTypeface, collapsedTextSize, collapsedBounds.width());
+    return collapsedLayout;
+  }
 
-    if (availableWidth > 0) {
-      updateDrawText = (currentTextSize != newTextSize) || boundsChanged || updateDrawText;
-      currentTextSize = newTextSize;
-      boundsChanged = false;
+  private TextLayout getExpandedLayout() {
+    final float collapsedWidth = collapsedBounds.width();
+    final float expandedWidth = expandedBounds.width();
+    final float availableWidth;
+
+    final float textSizeRatio = collapsedTextSize / expandedTextSize;
+    // This is the size of the expanded bounds when it is scaled to match the
+    // collapsed text size
+    final float scaledDownWidth = expandedWidth * textSizeRatio;
+
+    if (scaledDownWidth > collapsedWidth) {
+      // If the scaled down size is larger than the actual collapsed width, we need to
+      // cap the available width so that when the expanded text scales down, it matches
+      // the collapsed width
+      availableWidth = Math.min(collapsedWidth / textSizeRatio, expandedWidth);
+    } else {
+      // Otherwise we'll just use the expanded width
+      availableWidth = expandedWidth;
     }
 
-    if (textToDraw == null || updateDrawText) {
-      textPaint.setTextSize(currentTextSize);
-      textPaint.setTypeface(currentTypeface);
-      // Use linear text scaling if we're scaling the canvas
-      textPaint.setLinearText(scale != 1f);
+    updateTextLayout(expandedLayout, expandedTypeface, expandedTextSize, availableWidth);
+    return expandedLayout;
+  }
 
-      // If we don't currently have text to draw, or the text size has changed, ellipsize...
-      final CharSequence title =
-          TextUtils.ellipsize(text, textPaint, availableWidth, TextUtils.TruncateAt.END);
-      if (!TextUtils.equals(title, textToDraw)) {
-        textToDraw = title;
-        isRtl = calculateIsRtl(textToDraw);
-      }
+  /** Returns the layout of the whole collapsed text, which is never ellipsized. */
+  private TextLayout getCollapsedFullTextLayout() {
+    updateTextLayout(
+        collapsedFullTextLayout, collapsedTypeface, collapsedTextSize, Float.POSITIVE_INFINITY);
+    return collapsedFullTextLayout;
+  }
+
+  private void updateTextLayout(
+      TextLayout layout, Typeface typeface, float textSize, float availableWidth) {
+    final boolean defaultIsRtl =
+        ViewCompat.getLayoutDirection(view) == ViewCompat.LAYOUT_DIRECTION_RTL;
+    if (layout.matches(text, typeface, textSize, availableWidth, defaultIsRtl)) {
+      return;
     }
+
+    tmpPaint.setTextSize(textSize);
+    tmpPaint.setTypeface(typeface);
+    tmpPaint.setLinearText(false);
+    final CharSequence ellipsizedText =
+        availableWidth == Float.POSITIVE_INFINITY
+            ? text
+            : TextUtils.ellipsize(text, tmpPaint, availableWidth, TextUtils.TruncateAt.END);
+    layout.set(
+        text,
+        typeface,
+        textSize,
+        availableWidth,
+        defaultIsRtl,
+        ellipsizedText,
+        tmpPaint.measureText(ellipsizedText, 0, ellipsizedText.length()),
+        calculateIsRtl(ellipsizedText));
+    textLayoutCount++;
+  }
+
+  /** Returns the number of times text has been ellipsized and measured, for testing. */
+  int getTextLayoutCount() {
+    return textLayoutCount;
   }
 
   private void ensureExpandedTexture() {
@@ -725,17 +798,30 @@ public final class CollapsingTextHelper {
     textureAscent = textPaint.ascent();
     textureDescent = textPaint.descent();
 
-    final int w = Math.round(textPaint.measureText(textToDraw, 0, textToDraw.length()));
+    final int w = Math.round(expandedLayout.width);
     final int h = Math.round(textureDescent - textureAscent);
 
     if (w <= 0 || h <= 0) {
       return; // If the width or height are 0, return
     }
 
-    expandedTitleTexture = Bitmap.createBitmap(w, h, Bitmap.Config.ARGB_8888);
+    // Without a shadow the text is a single color, so only its coverage needs to be stored and the
+    // texture can be tinted with the text color when it is drawn. The text is drawn with the
+    // paint's current shadow, so that is the shadow which decides.
+    expandedTitleTextureIsAlphaMask = currentShadowRadius == 0;
+    expandedTitleTexture =
+        TextureBitmapPool.acquire(
+            w,
+            h,
+            expandedTitleTextureIsAlphaMask ? Bitmap.Config.ALPHA_8 : Bitmap.Config.ARGB_8888);
 
     Canvas c = new Canvas(expandedTitleTexture);
+    final int textColor = textPaint.getColor();
+    if (expandedTitleTextureIsAlphaMask) {
+      textPaint.setColor(Color.BLACK);
+    }
     c.drawText(textToDraw, 0, textToDraw.length(), 0, h - textPaint.descent(), textPaint);
+    textPaint.setColor(textColor);
 
     if (texturePaint == null) {
       // Make sure we have a paint
@@ -770,13 +856,44 @@ public final class CollapsingTextHelper {
     return text;
   }
 
+  /**
+   * Sets whether the title should be recorded into {@link android.graphics.RenderNode}s on API 29
+   * and above, so that interpolating it only updates the transform of the recorded title instead of
+   * drawing the text on every frame.
+   *
+   * <p>Recorded titles are only used with hardware acceleration, and when the collapsed and
+   * expanded titles have the same color and shadow. Otherwise the title is drawn as usual.
+   */
+  public void setRenderNodeEnabled(boolean enabled) {
+    if (renderNodeEnabled != enabled) {
+      renderNodeEnabled = enabled;
+      renderNodes =
+          enabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q
+              ? new CollapsingTextRenderNodes()
+              : null;
+      recalculate();
+    }
+  }
+
+  public boolean isRenderNodeEnabled() {
+    return renderNodeEnabled;
+  }
+
   private void clearTexture() {
     if (expandedTitleTexture != null) {
-      expandedTitleTexture.recycle();
+      TextureBitmapPool.release(expandedTitleTexture);
       expandedTitleTexture = null;
     }
   }
 
+  /**
+   * Releases the bitmaps pooled for drawing scaled titles on API levels below 18 in response to
+   * {@link android.content.ComponentCallbacks2#onTrimMemory(int)}.
+   */
+  public static void trimTexturePool(int level) {
+    TextureBitmapPool.trimMemory(level);
+  }
+
   /**
    * Returns true if {@code value} is 'close' to it's closest decimal value. Close is currently
    * defined as it's difference being < 0.001.
@@ -819,4 +936,52 @@ public final class CollapsingTextHelper {
   private static boolean rectEquals(Rect r, int left, int top, int right, int bottom) {
     return !(r.left != left || r.top != top || r.right != right || r.bottom != bottom);
   }
+
+  /** The ellipsized text and measurements of the title for a given typeface, size and width. */
+  private static final class TextLayout {
+    private CharSequence text;
+    private Typeface typeface;
+    private float textSize;
+    private float availableWidth;
+    private boolean defaultIsRtl;
+
+    private CharSequence ellipsizedText;
+    private float width;
+    private boolean isRtl;
+
+    @SuppressWarnings("ReferenceEquality") // Matches the Typeface comparison in TextView
+    boolean matches(
+        CharSequence text,
+        Typeface typeface,
+        float textSize,
+        float availableWidth,
+        boolean defaultIsRtl) {
+      // The text is compared by reference since the helper only replaces it when it changes.
+      return ellipsizedText != null
+          && this.text == text
+          && this.typeface == typeface
+          && this.textSize == textSize
+          && this.availableWidth == availableWidth
+          && this.defaultIsRtl == defaultIsRtl;
+    }
+
+    void set(
+        CharSequence text,
+        Typeface typeface,
+        float textSize,
+        float availableWidth,
+        boolean defaultIsRtl,
+        CharSequence ellipsizedText,
+        float width,
+        boolean isRtl) {
+      this.text = text;
+      this.typeface = typeface;
+      this.textSize = textSize;
+      this.availableWidth = availableWidth;
+      this.defaultIsRtl = defaultIsRtl;
+      this.ellipsizedText = ellipsizedText;
+      this.width = width;
+      this.isRtl = isRtl;
+    }
+  }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.internal;
+
+import android.graphics.Canvas;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.os.Build.VERSION_CODES;
+import androidx.annotation.RequiresApi;
+import android.text.TextPaint;
+
+/**
+ * Holds the expanded and collapsed titles of a {@link CollapsingTextHelper} recorded into {@link
+ * RenderNode}s.
+ *
+ * <p>Each title is only recorded once, and interpolating between them only updates the transform
+ * of the nodes, which is applied by the RenderThread without recording the text again.
+ */
+@RequiresApi(VERSION_CODES.Q)
+final class CollapsingTextRenderNodes {
+
+  private final RenderNode expandedNode = new RenderNode("expandedTitle");
+  private final RenderNode collapsedNode = new RenderNode("collapsedTitle");
+
+  // The text each node was recorded with, or null if the node needs to be recorded.
+  private CharSequence expandedText;
+  private CharSequence collapsedText;
+
+  /** Clears the recorded titles, which are recorded again the next time they are drawn. */
+  void invalidate() {
+    expandedText = null;
+    collapsedText = null;
+    expandedNode.discardDisplayList();
+    collapsedNode.discardDisplayList();
+  }
+
+  /**
+   * Sets the transform of both titles, so that the top left corner of the title is at {@code x},
+   * {@code y} and it is scaled by {@code scale}.
+   */
+  void setTransform(float x, float y, float scale) {
+    setTransform(expandedNode, x, y, scale);
+    setTransform(collapsedNode, x, y, scale);
+  }
+
+  private static void setTransform(RenderNode node, float x, float y, float scale) {
+    node.setTranslationX(x);
+    node.setTranslationY(y);
+    node.setScaleX(scale);
+    node.setScaleY(scale);
+  }
+
+  /**
+   * Draws the expanded or collapsed title into {@code canvas}, recording it first with {@code
+   * textPaint} if the title has changed since it was last recorded.
+   */
+  void draw(Canvas canvas, boolean collapsed, CharSequence text, float width, TextPaint textPaint) {
+    RenderNode node = collapsed ? collapsedNode : expandedNode;
+    CharSequence recordedText = collapsed ? collapsedText : expandedText;
+    if (recordedText != text || !node.hasDisplayList()) {
+      record(node, text, width, textPaint);
+      if (collapsed) {
+        collapsedText = text;
+      } else {
+        expandedText = text;
+      }
+    }
+    canvas.drawRenderNode(node);
+  }
+
+  private static void record(RenderNode node, CharSequence text, float width, TextPaint textPaint) {
+    float ascent = textPaint.ascent();
+    node.setPosition(0, 0, (int) Math.ceil(width), (int) Math.ceil(textPaint.descent() - ascent));
+    node.setPivotX(0);
+    node.setPivotY(0);
+    // Don't clip the shadow of the text.
+    node.setClipToBounds(false);
+    RecordingCanvas canvas = node.beginRecording();
+    try {
+      canvas.drawText(text, 0, text.length(), 0, -ascent, textPaint);
+    } finally {
+      node.endRecording();
+    }
+  }
+}
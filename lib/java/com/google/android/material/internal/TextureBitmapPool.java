@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.internal;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A process-wide pool of the bitmaps used by {@link CollapsingTextHelper} to draw scaled titles.
+ *
+ * <p>Bitmap sizes are rounded up to a multiple of {@link #BUCKET_SIZE}, so titles of similar sizes,
+ * such as the titles of several collapsing toolbars in a pager, can share the same bitmaps. All
+ * methods must be called from the main thread.
+ */
+final class TextureBitmapPool {
+
+  /** The granularity, in pixels, of the width and height of pooled bitmaps. */
+  static final int BUCKET_SIZE = 32;
+
+  /** Default number of bytes the bitmaps held by the pool are allowed to use. */
+  static final int DEFAULT_MAX_BYTES = 1024 * 1024;
+
+  // Ordered from least to most recently released.
+  private static final List<Bitmap> bitmaps = new ArrayList<>();
+
+  private static int maxBytes = DEFAULT_MAX_BYTES;
+  private static int pooledBytes;
+
+  private TextureBitmapPool() {}
+
+  /**
+   * Returns a transparent bitmap with the given config which is at least {@code width} by {@code
+   * height} pixels, re-using a pooled bitmap if one of the same bucket is available.
+   */
+  static Bitmap acquire(int width, int height, Bitmap.Config config) {
+    int bucketWidth = roundUpToBucket(width);
+    int bucketHeight = roundUpToBucket(height);
+    for (int i = bitmaps.size() - 1; i >= 0; i--) {
+      Bitmap bitmap = bitmaps.get(i);
+      if (bitmap.getWidth() == bucketWidth
+          && bitmap.getHeight() == bucketHeight
+          && bitmap.getConfig() == config) {
+        bitmaps.remove(i);
+        pooledBytes -= bitmap.getByteCount();
+        bitmap.eraseColor(Color.TRANSPARENT);
+        return bitmap;
+      }
+    }
+    return Bitmap.createBitmap(bucketWidth, bucketHeight, config);
+  }
+
+  /**
+   * Returns {@code bitmap} to the pool. The least recently released bitmaps are recycled if the
+   * pool grows over its budget.
+   */
+  static void release(Bitmap bitmap) {
+    if (bitmap.isRecycled()) {
+      return;
+    }
+    int byteCount = bitmap.getByteCount();
+    if (byteCount > maxBytes) {
+      bitmap.recycle();
+      return;
+    }
+    trimToSize(maxBytes - byteCount);
+    bitmaps.add(bitmap);
+    pooledBytes += byteCount;
+  }
+
+  /** Returns the number of bytes held by pooled bitmaps. */
+  static int getPooledBytes() {
+    return pooledBytes;
+  }
+
+  /** Sets the number of bytes the bitmaps held by the pool are allowed to use. */
+  static void setMaxBytes(int maxBytes) {
+    TextureBitmapPool.maxBytes = maxBytes;
+    trimToSize(maxBytes);
+  }
+
+  /**
+   * Recycles the pooled bitmaps in response to {@link ComponentCallbacks2#onTrimMemory(int)}.
+   * Bitmaps which are in use are not affected.
+   */
+  static void trimMemory(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+      trimToSize(0);
+    }
+  }
+
+  private static void trimToSize(int size) {
+    while (pooledBytes > size && !bitmaps.isEmpty()) {
+      Bitmap bitmap = bitmaps.remove(0);
+      pooledBytes -= bitmap.getByteCount();
+      bitmap.recycle();
+    }
+  }
+
+  private static int roundUpToBucket(int size) {
+    return (size + BUCKET_SIZE - 1) / BUCKET_SIZE * BUCKET_SIZE;
+  }
+}
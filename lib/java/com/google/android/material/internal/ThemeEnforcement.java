@@ -28,8 +28,12 @@ import androidx.annotation.StyleRes;
 import androidx.annotation.StyleableRes;
 import androidx.appcompat.view.ContextThemeWrapper;
 import androidx.appcompat.widget.TintTypedArray;
+import com.google.android.material.resources.ThemeCache;
 import android.util.AttributeSet;
 import android.util.TypedValue;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Utility methods to check Theme compatibility with components.
@@ -49,6 +53,14 @@ public final class ThemeEnforcement {
       new int[] {android.R.attr.theme, R.attr.theme};
   private static final int[] MATERIAL_THEME_OVERLAY_ATTR = new int[] {R.attr.materialThemeOverlay};
 
+  // The themes which passed the AppCompat and Material theme checks.
+  private static final ThemeCache<Boolean> appCompatThemes = new ThemeCache<>();
+  private static final ThemeCache<Boolean> materialThemes = new ThemeCache<>();
+
+  // The styles which passed all checks in each theme, when the checks didn't depend on the
+  // attributes of a view. Keys are only added once checks pass, since failed checks throw.
+  private static final ThemeCache<Set<CheckedStyle>> checkedStyles = new ThemeCache<>();
+
   private ThemeEnforcement() {}
 
   /**
@@ -74,11 +86,10 @@ public final class ThemeEnforcement {
       @StyleRes int defStyleRes,
       @StyleableRes int... textAppearanceResIndices) {
 
-    // First, check for a compatible theme.
-    checkCompatibleTheme(context, set, defStyleAttr, defStyleRes);
-
-    // Then, check that a textAppearance is set if enforceTextAppearance attribute is true
-    checkTextAppearance(context, set, attrs, defStyleAttr, defStyleRes, textAppearanceResIndices);
+    // First, check for a compatible theme, and that a textAppearance is set if
+    // enforceTextAppearance attribute is true.
+    checkThemeAndTextAppearance(
+        context, set, attrs, defStyleAttr, defStyleRes, textAppearanceResIndices);
 
     // Then, safely retrieve the styled attribute information.
     return context.obtainStyledAttributes(set, attrs, defStyleAttr, defStyleRes);
@@ -112,24 +123,98 @@ public final class ThemeEnforcement {
       @StyleRes int defStyleRes,
       @StyleableRes int... textAppearanceResIndices) {
 
-    // First, check for a compatible theme.
-    checkCompatibleTheme(context, set, defStyleAttr, defStyleRes);
-
-    // Then, check that a textAppearance is set if enforceTextAppearance attribute is true
-    checkTextAppearance(context, set, attrs, defStyleAttr, defStyleRes, textAppearanceResIndices);
+    // First, check for a compatible theme, and that a textAppearance is set if
+    // enforceTextAppearance attribute is true.
+    checkThemeAndTextAppearance(
+        context, set, attrs, defStyleAttr, defStyleRes, textAppearanceResIndices);
 
     // Then, safely retrieve the styled attribute information.
     return TintTypedArray.obtainStyledAttributes(context, set, attrs, defStyleAttr, defStyleRes);
   }
 
-  private static void checkCompatibleTheme(
-      Context context, AttributeSet set, @AttrRes int defStyleAttr, @StyleRes int defStyleRes) {
-    TypedArray a =
+  private static void checkThemeAndTextAppearance(
+      Context context,
+      AttributeSet set,
+      @StyleableRes int[] attrs,
+      @AttrRes int defStyleAttr,
+      @StyleRes int defStyleRes,
+      @StyleableRes int... textAppearanceResIndices) {
+    CheckedStyle checkedStyle = null;
+    if (!hasCheckedAttributes(set, attrs, textAppearanceResIndices)) {
+      checkedStyle = new CheckedStyle(defStyleAttr, defStyleRes, attrs, textAppearanceResIndices);
+      synchronized (checkedStyles) {
+        Set<CheckedStyle> styles = checkedStyles.get(context);
+        if (styles != null && styles.contains(checkedStyle)) {
+          return;
+        }
+      }
+    }
+
+    // Both checks read the same attributes, so only obtain them once.
+    TypedArray themeEnforcementAttrs =
         context.obtainStyledAttributes(
             set, R.styleable.ThemeEnforcement, defStyleAttr, defStyleRes);
+    try {
+      checkCompatibleTheme(context, themeEnforcementAttrs);
+      checkTextAppearance(
+          context,
+          set,
+          attrs,
+          defStyleAttr,
+          defStyleRes,
+          themeEnforcementAttrs,
+          textAppearanceResIndices);
+    } finally {
+      themeEnforcementAttrs.recycle();
+    }
+
+    if (checkedStyle != null) {
+      synchronized (checkedStyles) {
+        Set<CheckedStyle> styles = checkedStyles.get(context);
+        if (styles == null) {
+          styles = new HashSet<>();
+          checkedStyles.put(context, styles);
+        }
+        styles.add(checkedStyle);
+      }
+    }
+  }
+
+  /**
+   * Returns whether {@code set} specifies a style or any of the attributes read by the checks, in
+   * which case the result of the checks depends on the view and can't be cached.
+   */
+  private static boolean hasCheckedAttributes(
+      AttributeSet set,
+      @StyleableRes int[] attrs,
+      @StyleableRes int... textAppearanceResIndices) {
+    if (set == null) {
+      return false;
+    }
+    if (set.getStyleAttribute() != 0) {
+      return true;
+    }
+    for (int i = 0, count = set.getAttributeCount(); i < count; i++) {
+      int attr = set.getAttributeNameResource(i);
+      if (attr == R.attr.enforceMaterialTheme
+          || attr == R.attr.enforceTextAppearance
+          || attr == android.R.attr.textAppearance) {
+        return true;
+      }
+      if (textAppearanceResIndices != null) {
+        for (int index : textAppearanceResIndices) {
+          if (attr == attrs[index]) {
+            return true;
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  private static void checkCompatibleTheme(Context context, TypedArray themeEnforcementAttrs) {
     boolean enforceMaterialTheme =
-        a.getBoolean(R.styleable.ThemeEnforcement_enforceMaterialTheme, false);
-    a.recycle();
+        themeEnforcementAttrs.getBoolean(R.styleable.ThemeEnforcement_enforceMaterialTheme, false);
 
     if (enforceMaterialTheme) {
       TypedValue isMaterialTheme = new TypedValue();
@@ -152,15 +237,12 @@ public final class ThemeEnforcement {
       @StyleableRes int[] attrs,
       @AttrRes int defStyleAttr,
       @StyleRes int defStyleRes,
+      TypedArray themeEnforcementAttrs,
       @StyleableRes int... textAppearanceResIndices) {
-    TypedArray themeEnforcementAttrs =
-        context.obtainStyledAttributes(
-            set, R.styleable.ThemeEnforcement, defStyleAttr, defStyleRes);
     boolean enforceTextAppearance =
         themeEnforcementAttrs.getBoolean(R.styleable.ThemeEnforcement_enforceTextAppearance, false);
 
     if (!enforceTextAppearance) {
-      themeEnforcementAttrs.recycle();
       return;
     }
 
@@ -179,8 +261,6 @@ public final class ThemeEnforcement {
               context, set, attrs, defStyleAttr, defStyleRes, textAppearanceResIndices);
     }
 
-    themeEnforcementAttrs.recycle();
-
     if (!validTextAppearance) {
       throw new IllegalArgumentException(
           "This component requires that you specify a valid TextAppearance attribute. Update your "
@@ -223,6 +303,16 @@ public final class ThemeEnforcement {
     return isTheme(context, MATERIAL_CHECK_ATTRS);
   }
 
+  /**
+   * Clears the cached results of the theme checks. Results are tied to the configuration and, on
+   * API 23+, to the applied styles of a theme, so they are already invalidated when either changes.
+   */
+  public static void clearCache() {
+    appCompatThemes.clear();
+    materialThemes.clear();
+    checkedStyles.clear();
+  }
+
   private static boolean isTheme(Context context, int[] themeAttributes) {
     TypedArray a = context.obtainStyledAttributes(themeAttributes);
     for (int i = 0; i < themeAttributes.length; i++) {
@@ -236,12 +326,18 @@ public final class ThemeEnforcement {
   }
 
   private static void checkTheme(Context context, int[] themeAttributes, String themeName) {
+    ThemeCache<Boolean> checkedThemes =
+        themeAttributes == APPCOMPAT_CHECK_ATTRS ? appCompatThemes : materialThemes;
+    if (checkedThemes.get(context) != null) {
+      return;
+    }
     if (!isTheme(context, themeAttributes)) {
       throw new IllegalArgumentException(
           "The style on this component requires your app theme to be "
               + themeName
               + " (or a descendant).");
     }
+    checkedThemes.put(context, Boolean.TRUE);
   }
 
   /**
@@ -304,4 +400,48 @@ public final class ThemeEnforcement {
     a.recycle();
     return materialThemeOverlayId;
   }
+
+  /** The style a component was created with, used as a key for the results of the checks. */
+  private static final class CheckedStyle {
+    @AttrRes private final int defStyleAttr;
+    @StyleRes private final int defStyleRes;
+    @StyleableRes private final int[] attrs;
+    @StyleableRes private final int[] textAppearanceResIndices;
+
+    CheckedStyle(
+        @AttrRes int defStyleAttr,
+        @StyleRes int defStyleRes,
+        @StyleableRes int[] attrs,
+        @StyleableRes int[] textAppearanceResIndices) {
+      this.defStyleAttr = defStyleAttr;
+      this.defStyleRes = defStyleRes;
+      this.attrs = attrs;
+      this.textAppearanceResIndices = textAppearanceResIndices;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof CheckedStyle)) {
+        return false;
+      }
+      CheckedStyle that = (CheckedStyle) o;
+      // Styleable arrays are constants, so they are compared by reference.
+      return defStyleAttr == that.defStyleAttr
+          && defStyleRes == that.defStyleRes
+          && attrs == that.attrs
+          && Arrays.equals(textAppearanceResIndices, that.textAppearanceResIndices);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = defStyleAttr;
+      result = 31 * result + defStyleRes;
+      result = 31 * result + System.identityHashCode(attrs);
+      result = 31 * result + Arrays.hashCode(textAppearanceResIndices);
+      return result;
+    }
+  }
 }
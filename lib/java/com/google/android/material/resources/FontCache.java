@@ -0,0 +1,92 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.resources;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Typeface;
+import androidx.annotation.FontRes;
+import androidx.annotation.Nullable;
+import android.util.SparseArray;
+
+/**
+ * A process-wide cache of the fonts loaded from font resources by {@link TextAppearance}, so that
+ * each font resource is only decoded once, no matter how many text appearances use it.
+ *
+ * <p>Fonts are cached before any text style is applied to them, since applying a style to a loaded
+ * font is cheap. A font is only returned for the configuration it was loaded in, since font
+ * resources may depend on it, and all fonts are cleared when the configuration of the application
+ * changes or when memory is low. The cache can be accessed from any thread, which allows fonts to
+ * be preloaded in the background with {@link TextAppearanceConfig#preloadFonts}.
+ */
+final class FontCache {
+
+  private static final SparseArray<CachedFont> fonts = new SparseArray<>();
+
+  static {
+    ResourceCacheCallbacks.addClearAction(
+        new Runnable() {
+          @Override
+          public void run() {
+            clear();
+          }
+        });
+  }
+
+  private FontCache() {}
+
+  /**
+   * Returns the font loaded from {@code fontResId} in the configuration of {@code context}, or null
+   * if it hasn't been loaded yet.
+   */
+  @Nullable
+  static Typeface get(Context context, @FontRes int fontResId) {
+    Configuration configuration = context.getResources().getConfiguration();
+    synchronized (fonts) {
+      CachedFont cachedFont = fonts.get(fontResId);
+      return cachedFont != null && cachedFont.configuration.equals(configuration)
+          ? cachedFont.font
+          : null;
+    }
+  }
+
+  /** Caches the font loaded from {@code fontResId} in the configuration of {@code context}. */
+  static void put(Context context, @FontRes int fontResId, Typeface font) {
+    ResourceCacheCallbacks.register(context);
+    CachedFont cachedFont =
+        new CachedFont(font, new Configuration(context.getResources().getConfiguration()));
+    synchronized (fonts) {
+      fonts.put(fontResId, cachedFont);
+    }
+  }
+
+  static void clear() {
+    synchronized (fonts) {
+      fonts.clear();
+    }
+  }
+
+  private static final class CachedFont {
+    private final Typeface font;
+    private final Configuration configuration;
+
+    CachedFont(Typeface font, Configuration configuration) {
+      this.font = font;
+      this.configuration = configuration;
+    }
+  }
+}
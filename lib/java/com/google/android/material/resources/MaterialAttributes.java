@@ -42,11 +42,24 @@ public class MaterialAttributes {
    */
   @Nullable
   public static TypedValue resolve(Context context, @AttrRes int attributeResId) {
-    TypedValue typedValue = new TypedValue();
-    if (context.getTheme().resolveAttribute(attributeResId, typedValue, true)) {
-      return typedValue;
+    TypedValue cachedValue = ThemeAttributeCache.resolve(context, attributeResId);
+    if (cachedValue == null) {
+      return null;
     }
-    return null;
+    // Return a copy since the cached value is shared.
+    TypedValue typedValue = new TypedValue();
+    typedValue.setTo(cachedValue);
+    return typedValue;
+  }
+
+  /**
+   * Clears the theme attribute values cached by this class. Values are already invalidated when
+   * the configuration of a theme changes, and on API 23+ when a style is applied to it, so this is
+   * only needed if a style is applied to a theme on older versions after components have been
+   * created with it.
+   */
+  public static void clearCache() {
+    ThemeAttributeCache.clear();
   }
 
   /**
@@ -56,7 +69,7 @@ public class MaterialAttributes {
    */
   public static int resolveOrThrow(
       Context context, @AttrRes int attributeResId, String errorMessageComponent) {
-    TypedValue typedValue = resolve(context, attributeResId);
+    TypedValue typedValue = ThemeAttributeCache.resolve(context, attributeResId);
     if (typedValue == null) {
       String errorMessage =
           "%1$s requires a value for the %2$s attribute to be set in your app theme. "
@@ -98,7 +111,7 @@ public class MaterialAttributes {
    */
   public static boolean resolveBoolean(
       Context context, @AttrRes int attributeResId, boolean defaultValue) {
-    TypedValue typedValue = resolve(context, attributeResId);
+    TypedValue typedValue = ThemeAttributeCache.resolve(context, attributeResId);
     return (typedValue != null && typedValue.type == TypedValue.TYPE_INT_BOOLEAN)
         ? typedValue.data != 0
         : defaultValue;
@@ -118,7 +131,7 @@ public class MaterialAttributes {
   @Px
   public static int resolveDimension(
       Context context, @AttrRes int attributeResId, @DimenRes int defaultDimenResId) {
-    TypedValue dimensionValue = resolve(context, attributeResId);
+    TypedValue dimensionValue = ThemeAttributeCache.resolve(context, attributeResId);
     if (dimensionValue == null || dimensionValue.type != TypedValue.TYPE_DIMENSION) {
       return (int) context.getResources().getDimension(defaultDimenResId);
     } else {
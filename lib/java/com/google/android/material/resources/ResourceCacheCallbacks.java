@@ -0,0 +1,86 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.resources;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Clears the caches of values loaded from resources when the configuration of the application
+ * changes or when memory is low, with a single set of component callbacks for all of them.
+ */
+final class ResourceCacheCallbacks {
+
+  private static final List<Runnable> clearActions = new ArrayList<>();
+  private static boolean registered;
+
+  private ResourceCacheCallbacks() {}
+
+  /** Adds an action which clears a cache. */
+  static void addClearAction(Runnable clearAction) {
+    synchronized (clearActions) {
+      clearActions.add(clearAction);
+    }
+  }
+
+  /** Registers the callbacks with the application of {@code context}, if they aren't already. */
+  static void register(Context context) {
+    synchronized (clearActions) {
+      if (registered) {
+        return;
+      }
+      Context applicationContext = context.getApplicationContext();
+      if (applicationContext == null) {
+        return;
+      }
+      applicationContext.registerComponentCallbacks(
+          new ComponentCallbacks2() {
+            @Override
+            public void onConfigurationChanged(Configuration newConfig) {
+              clearAll();
+            }
+
+            @Override
+            public void onLowMemory() {
+              clearAll();
+            }
+
+            @Override
+            public void onTrimMemory(int level) {
+              if (level >= TRIM_MEMORY_RUNNING_MODERATE) {
+                clearAll();
+              }
+            }
+          });
+      registered = true;
+    }
+  }
+
+  private static void clearAll() {
+    // Caches are cleared without holding the lock, since they may register while holding theirs.
+    Runnable[] actions;
+    synchronized (clearActions) {
+      actions = clearActions.toArray(new Runnable[0]);
+    }
+    for (Runnable clearAction : actions) {
+      clearAction.run();
+    }
+  }
+}
@@ -116,11 +116,15 @@ public class TextAppearance {
       return font;
     }
 
-    // Try resolving fontFamily as a font resource.
-    if (!context.isRestricted()) {
+    // Try resolving fontFamily as a font resource, using the shared cache if it was already loaded.
+    Typeface cachedFont = getCachedFont(context);
+    if (cachedFont != null) {
+      font = Typeface.create(cachedFont, textStyle);
+    } else if (fontFamilyResourceId != 0 && !context.isRestricted()) {
       try {
         font = ResourcesCompat.getFont(context, fontFamilyResourceId);
         if (font != null) {
+          FontCache.put(context, fontFamilyResourceId, font);
           font = Typeface.create(font, textStyle);
         }
       } catch (UnsupportedOperationException | Resources.NotFoundException e) {
@@ -150,8 +154,11 @@ public class TextAppearance {
    * @param callback callback to notify when font is loaded.
    * @see androidx.appcompat.widget.AppCompatTextHelper
    */
-  public void getFontAsync(Context context, @NonNull final TextAppearanceFontCallback callback) {
-    if (TextAppearanceConfig.shouldLoadFontSynchronously()) {
+  public void getFontAsync(
+      final Context context, @NonNull final TextAppearanceFontCallback callback) {
+    // Fonts which were already loaded are resolved synchronously, since that doesn't need to read
+    // the font resource.
+    if (TextAppearanceConfig.shouldLoadFontSynchronously() || getCachedFont(context) != null) {
       getFont(context);
     } else {
       // No-op if font already resolved.
@@ -176,6 +183,7 @@ public class TextAppearance {
           new FontCallback() {
             @Override
             public void onFontRetrieved(@NonNull Typeface typeface) {
+              FontCache.put(context, fontFamilyResourceId, typeface);
               font = Typeface.create(typeface, textStyle);
               fontResolved = true;
               callback.onFontRetrieved(font, false);
@@ -246,6 +254,11 @@ public class TextAppearance {
     return font;
   }
 
+  @Nullable
+  private Typeface getCachedFont(Context context) {
+    return fontFamilyResourceId != 0 ? FontCache.get(context, fontFamilyResourceId) : null;
+  }
+
   private void createFallbackFont() {
     // Try resolving fontFamily as a string name if specified.
     if (font == null && fontFamily != null) {
@@ -18,9 +18,31 @@ package com.google.android.material.resources;
 
 import com.google.android.material.R;
 
+import android.content.Context;
+import androidx.annotation.NonNull;
+import androidx.annotation.StyleRes;
+import android.util.TypedValue;
+import java.util.concurrent.Executor;
+
 /** Utility for configuring TextAppearance. */
 public class TextAppearanceConfig {
 
+  private static final int[] MATERIAL_TEXT_APPEARANCE_ATTRS = {
+    R.attr.textAppearanceHeadline1,
+    R.attr.textAppearanceHeadline2,
+    R.attr.textAppearanceHeadline3,
+    R.attr.textAppearanceHeadline4,
+    R.attr.textAppearanceHeadline5,
+    R.attr.textAppearanceHeadline6,
+    R.attr.textAppearanceSubtitle1,
+    R.attr.textAppearanceSubtitle2,
+    R.attr.textAppearanceBody1,
+    R.attr.textAppearanceBody2,
+    R.attr.textAppearanceCaption,
+    R.attr.textAppearanceButton,
+    R.attr.textAppearanceOverline
+  };
+
   private static boolean shouldLoadFontSynchronously;
 
   /**
@@ -36,4 +58,50 @@ public class TextAppearanceConfig {
   public static boolean shouldLoadFontSynchronously() {
     return shouldLoadFontSynchronously;
   }
+
+  /**
+   * Loads the font resources used by the Material type scale of the theme of {@code context}, such
+   * as {@code textAppearanceHeadline1} and {@code textAppearanceBody1}, on {@code executor}.
+   *
+   * <p>Fonts are loaded once per process and shared by all components, so calling this during app
+   * startup with a background executor avoids decoding font files on the main thread when
+   * components are first inflated.
+   *
+   * @see #preloadFonts(Context, Executor, int...)
+   */
+  public static void preloadFonts(@NonNull Context context, @NonNull Executor executor) {
+    int[] textAppearanceResIds = new int[MATERIAL_TEXT_APPEARANCE_ATTRS.length];
+    int count = 0;
+    TypedValue typedValue = new TypedValue();
+    for (int attr : MATERIAL_TEXT_APPEARANCE_ATTRS) {
+      if (context.getTheme().resolveAttribute(attr, typedValue, true)
+          && typedValue.resourceId != 0) {
+        textAppearanceResIds[count++] = typedValue.resourceId;
+      }
+    }
+    int[] resolvedResIds = new int[count];
+    System.arraycopy(textAppearanceResIds, 0, resolvedResIds, 0, count);
+    preloadFonts(context, executor, resolvedResIds);
+  }
+
+  /**
+   * Loads the font resources used by the given text appearances on {@code executor}, so that
+   * components using them don't have to load the fonts when they are inflated. The text
+   * appearances are resolved with the theme of {@code context}, which is held on to until the fonts
+   * have been loaded.
+   */
+  public static void preloadFonts(
+      @NonNull final Context context,
+      @NonNull Executor executor,
+      @StyleRes final int... textAppearanceResIds) {
+    executor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            for (int textAppearanceResId : textAppearanceResIds) {
+              new TextAppearance(context, textAppearanceResId).getFont(context);
+            }
+          }
+        });
+  }
 }
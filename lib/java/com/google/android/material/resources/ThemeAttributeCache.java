@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.resources;
+
+import android.content.Context;
+import androidx.annotation.AttrRes;
+import androidx.annotation.Nullable;
+import android.util.SparseArray;
+import android.util.TypedValue;
+
+/**
+ * Caches the values of theme attributes resolved by {@link MaterialAttributes}, so that inflating
+ * many components with the same theme only resolves each attribute once.
+ *
+ * <p>Values are cached with a {@link ThemeCache}, so they are only shared by the same theme in the
+ * same configuration. Values returned by this cache are shared and must not be modified.
+ */
+final class ThemeAttributeCache {
+
+  // Stands for attributes which are not present in a theme.
+  private static final TypedValue MISSING = new TypedValue();
+
+  private static final ThemeCache<SparseArray<TypedValue>> cache = new ThemeCache<>();
+
+  private ThemeAttributeCache() {}
+
+  /**
+   * Returns the shared {@link TypedValue} for {@code attributeResId} in the theme of {@code
+   * context}, or null if the attribute is not present in the theme.
+   */
+  @Nullable
+  static TypedValue resolve(Context context, @AttrRes int attributeResId) {
+    synchronized (cache) {
+      SparseArray<TypedValue> values = cache.get(context);
+      if (values == null) {
+        values = new SparseArray<>();
+        cache.put(context, values);
+      }
+
+      TypedValue value = values.get(attributeResId);
+      if (value == null) {
+        value = new TypedValue();
+        if (!context.getTheme().resolveAttribute(attributeResId, value, true)) {
+          value = MISSING;
+        }
+        values.put(attributeResId, value);
+      }
+      return value != MISSING ? value : null;
+    }
+  }
+
+  /** Clears all cached values. */
+  static void clear() {
+    cache.clear();
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.resources;
+
+import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources.Theme;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+import android.util.SparseArray;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+
+/**
+ * A cache of values computed from the theme of a {@link Context}, such as resolved attributes.
+ *
+ * <p>Themes are compared by identity, since on API 23+ {@link Theme#equals(Object)} only compares
+ * the styles applied to themes, so that themes of resources with different configurations would
+ * share values. A value is only returned for the configuration of the resources it was computed
+ * with, and on API 23+ only until another style is applied to its theme. Themes are tracked
+ * weakly, and all caches are cleared when the configuration of the application changes or when
+ * memory is low.
+ *
+ * @hide
+ */
+@RestrictTo(LIBRARY_GROUP)
+public final class ThemeCache<V> {
+
+  // Chains of entries by identity hash code of their themes.
+  private final SparseArray<Entry<V>> entries = new SparseArray<>();
+  private final ReferenceQueue<Theme> queue = new ReferenceQueue<>();
+
+  public ThemeCache() {
+    ResourceCacheCallbacks.addClearAction(
+        new Runnable() {
+          @Override
+          public void run() {
+            clear();
+          }
+        });
+  }
+
+  /**
+   * Returns the value cached for the theme of {@code context}, or null if there is none for the
+   * current configuration and styles of the theme.
+   */
+  @Nullable
+  public synchronized V get(@NonNull Context context) {
+    expungeStaleEntries();
+    Theme theme = context.getTheme();
+    Entry<V> entry = findEntry(theme);
+    if (entry == null) {
+      return null;
+    }
+    if (!entry.isValid(theme, context.getResources().getConfiguration())) {
+      removeEntry(entry);
+      return null;
+    }
+    return entry.value;
+  }
+
+  /** Caches {@code value} for the theme of {@code context} in its current configuration. */
+  public synchronized void put(@NonNull Context context, @NonNull V value) {
+    ResourceCacheCallbacks.register(context);
+    expungeStaleEntries();
+    Theme theme = context.getTheme();
+    Entry<V> entry = findEntry(theme);
+    if (entry != null) {
+      removeEntry(entry);
+    }
+    int hash = System.identityHashCode(theme);
+    Configuration configuration = context.getResources().getConfiguration();
+    entry = new Entry<>(theme, queue, hash, configuration, value, entries.get(hash));
+    entries.put(hash, entry);
+  }
+
+  /** Clears all cached values. */
+  public synchronized void clear() {
+    // Entries enqueued later are ignored, since they can't be found anymore.
+    entries.clear();
+  }
+
+  @Nullable
+  private Entry<V> findEntry(Theme theme) {
+    Entry<V> entry = entries.get(System.identityHashCode(theme));
+    while (entry != null && entry.get() != theme) {
+      entry = entry.next;
+    }
+    return entry;
+  }
+
+  private void removeEntry(Entry<V> entry) {
+    Entry<V> first = entries.get(entry.hash);
+    if (first == entry) {
+      if (entry.next != null) {
+        entries.put(entry.hash, entry.next);
+      } else {
+        entries.remove(entry.hash);
+      }
+      return;
+    }
+    for (Entry<V> previous = first; previous != null; previous = previous.next) {
+      if (previous.next == entry) {
+        previous.next = entry.next;
+        return;
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void expungeStaleEntries() {
+    for (Reference<? extends Theme> reference = queue.poll();
+        reference != null;
+        reference = queue.poll()) {
+      removeEntry((Entry<V>) reference);
+    }
+  }
+
+  /** A value cached for a theme, which is only valid for the state the theme was in. */
+  private static final class Entry<V> extends WeakReference<Theme> {
+
+    private final int hash;
+    private final Configuration configuration;
+    // On API 23+ the hash code of a theme depends on the styles applied to it.
+    private final int themeHashCode;
+    private final V value;
+    @Nullable private Entry<V> next;
+
+    Entry(
+        Theme theme,
+        ReferenceQueue<Theme> queue,
+        int hash,
+        Configuration configuration,
+        V value,
+        @Nullable Entry<V> next) {
+      super(theme, queue);
+      this.hash = hash;
+      this.configuration = new Configuration(configuration);
+      this.themeHashCode = theme.hashCode();
+      this.value = value;
+      this.next = next;
+    }
+
+    boolean isValid(Theme theme, Configuration configuration) {
+      return theme.hashCode() == themeHashCode && this.configuration.equals(configuration);
+    }
+  }
+}
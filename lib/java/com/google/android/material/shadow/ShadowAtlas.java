@@ -0,0 +1,250 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shadow;
+
+import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.PorterDuff.Mode;
+import android.graphics.PorterDuffXfermode;
+import android.graphics.RadialGradient;
+import android.graphics.Shader;
+import android.util.LruCache;
+import androidx.annotation.Nullable;
+import androidx.annotation.RestrictTo;
+
+/**
+ * A process-wide, size bounded cache of pre-rendered compat shadow tiles.
+ *
+ * <p>Shapes which share the same corner radius, elevation and shadow color produce identical
+ * corner and edge shadows, so the gradients for them only need to be rasterized once. Each {@link
+ * ShadowRenderer} blits the cached tile bitmaps with its own {@link android.graphics.BitmapShader}
+ * instead of creating and drawing a new gradient for every corner and edge of every shape. Edge
+ * tiles are a single pixel wide and are stretched along the edge, nine-patch style.
+ *
+ * <p>The least recently used tiles are evicted once the cache grows past its maximum size.
+ *
+ * @hide
+ */
+@RestrictTo(LIBRARY_GROUP)
+public final class ShadowAtlas {
+
+  /** Corners with a tile larger than this size, in pixels, are drawn directly with gradients. */
+  private static final int MAX_TILE_SIZE = 256;
+
+  /**
+   * Number of the largest corner tiles the atlas holds by default. A screen typically shows shapes
+   * with a few corner sizes at a resting and a raised elevation, both outside and inside their
+   * bounds, and most corner tiles are much smaller than the largest ones, so this leaves room for
+   * the tiles of a screen of cards without evicting them while scrolling.
+   */
+  private static final int DEFAULT_MAX_TILES = 8;
+
+  /** Default number of bytes the tiles of the atlas are allowed to use. */
+  private static final int DEFAULT_MAX_BYTES =
+      DEFAULT_MAX_TILES * MAX_TILE_SIZE * MAX_TILE_SIZE * 4;
+
+  private static final int TYPE_EDGE = 0;
+  private static final int TYPE_CORNER = 1;
+
+  private static final ShadowAtlas INSTANCE = new ShadowAtlas(DEFAULT_MAX_BYTES);
+
+  private final LruCache<TileKey, Bitmap> tiles;
+
+  // Pre-allocated objects that are re-used for every lookup and tile rasterization.
+  private final TileKey lookupKey = new TileKey();
+  private final Paint tilePaint = new Paint(Paint.ANTI_ALIAS_FLAG | Paint.DITHER_FLAG);
+  private final Paint clearPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+  /** Returns the atlas shared by all {@link ShadowRenderer} instances. */
+  public static ShadowAtlas getInstance() {
+    return INSTANCE;
+  }
+
+  ShadowAtlas(int maxBytes) {
+    tiles =
+        new LruCache<TileKey, Bitmap>(maxBytes) {
+          @Override
+          protected int sizeOf(TileKey key, Bitmap tile) {
+            return key.byteCount;
+          }
+        };
+    clearPaint.setColor(Color.WHITE);
+    clearPaint.setXfermode(new PorterDuffXfermode(Mode.DST_OUT));
+  }
+
+  /**
+   * Returns a tile for an edge shadow of the given {@code elevation}. The tile is one pixel wide
+   * and {@code elevation} pixels high, and fades from {@code colors[0]} at the top to {@code
+   * colors[2]} at the bottom. Tiles are shared and must not be drawn into.
+   */
+  synchronized Bitmap getEdgeTile(int elevation, int[] colors, float[] positions) {
+    lookupKey.set(TYPE_EDGE, elevation, 0, false, colors);
+    Bitmap tile = tiles.get(lookupKey);
+    if (tile == null) {
+      Bitmap bitmap = Bitmap.createBitmap(1, elevation, Bitmap.Config.ARGB_8888);
+      tilePaint.setShader(
+          new LinearGradient(0, 0, 0, elevation, colors, positions, Shader.TileMode.CLAMP));
+      new Canvas(bitmap).drawRect(0, 0, 1, elevation, tilePaint);
+      tilePaint.setShader(null);
+      tile = put(bitmap);
+    }
+    return tile;
+  }
+
+  /**
+   * Returns a tile for a corner shadow, or null if the tile would be too large to cache. The tile
+   * is a square holding the full circle of the radial gradient, with its center in the middle of
+   * the tile.
+   *
+   * @param radius the outer radius of the shadow.
+   * @param elevation the elevation of the shadow.
+   * @param insideBounds whether the shadow is drawn inside the arc. When false, the part of the
+   *     circle inside the arc is left transparent.
+   */
+  @Nullable
+  synchronized Bitmap getCornerTile(
+      float radius, int elevation, boolean insideBounds, int[] colors, float[] positions) {
+    int size = getCornerTileSize(radius);
+    if (size <= 0 || size > MAX_TILE_SIZE) {
+      return null;
+    }
+    lookupKey.set(TYPE_CORNER, elevation, radius, insideBounds, colors);
+    Bitmap tile = tiles.get(lookupKey);
+    if (tile == null) {
+      Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+      Canvas canvas = new Canvas(bitmap);
+      float center = size / 2f;
+      tilePaint.setShader(
+          new RadialGradient(center, center, radius, colors, positions, Shader.TileMode.CLAMP));
+      canvas.drawCircle(center, center, radius, tilePaint);
+      tilePaint.setShader(null);
+      if (!insideBounds) {
+        // Clear the part of the circle which the shape itself covers.
+        canvas.drawCircle(center, center, radius - elevation, clearPaint);
+      }
+      tile = put(bitmap);
+    }
+    return tile;
+  }
+
+  /** Returns the size, in pixels, of the tile used for a corner shadow of the given radius. */
+  static int getCornerTileSize(float radius) {
+    return (int) Math.ceil(radius * 2);
+  }
+
+  private Bitmap put(Bitmap bitmap) {
+    TileKey key = new TileKey(lookupKey);
+    key.byteCount = bitmap.getByteCount();
+    tiles.put(key, bitmap);
+    return bitmap;
+  }
+
+  /** Removes all tiles from the atlas. */
+  public void clear() {
+    tiles.evictAll();
+  }
+
+  /**
+   * Releases tiles in response to {@link ComponentCallbacks2#onTrimMemory(int)}. Tiles are
+   * rasterized again the next time they are needed.
+   */
+  public void trimMemory(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+      clear();
+    }
+  }
+
+  /** Returns the number of bytes currently used by the tiles of the atlas. */
+  public int size() {
+    return tiles.size();
+  }
+
+  /** Identifies a tile by the inputs it was rendered from. */
+  private static final class TileKey {
+    int type;
+    int elevation;
+    float radius;
+    boolean insideBounds;
+    int startColor;
+    int middleColor;
+    int endColor;
+
+    // Not part of the key, only used to compute the size of the tile.
+    int byteCount;
+
+    TileKey() {}
+
+    TileKey(TileKey other) {
+      type = other.type;
+      elevation = other.elevation;
+      radius = other.radius;
+      insideBounds = other.insideBounds;
+      startColor = other.startColor;
+      middleColor = other.middleColor;
+      endColor = other.endColor;
+    }
+
+    void set(int type, int elevation, float radius, boolean insideBounds, int[] colors) {
+      this.type = type;
+      this.elevation = elevation;
+      this.radius = radius;
+      this.insideBounds = insideBounds;
+      // Gradient colors are ordered from the outside to the inside of the shadow, with an optional
+      // leading transparent color for corners.
+      int offset = colors.length - 3;
+      this.startColor = colors[offset];
+      this.middleColor = colors[offset + 1];
+      this.endColor = colors[offset + 2];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TileKey)) {
+        return false;
+      }
+      TileKey that = (TileKey) o;
+      return type == that.type
+          && elevation == that.elevation
+          && Float.compare(radius, that.radius) == 0
+          && insideBounds == that.insideBounds
+          && startColor == that.startColor
+          && middleColor == that.middleColor
+          && endColor == that.endColor;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = type;
+      result = 31 * result + elevation;
+      result = 31 * result + Float.floatToIntBits(radius);
+      result = 31 * result + (insideBounds ? 1 : 0);
+      result = 31 * result + startColor;
+      result = 31 * result + middleColor;
+      result = 31 * result + endColor;
+      return result;
+    }
+  }
+}
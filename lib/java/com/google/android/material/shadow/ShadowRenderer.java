@@ -18,9 +18,10 @@ package com.google.android.material.shadow;
 
 import static androidx.annotation.RestrictTo.Scope.LIBRARY_GROUP;
 
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
 import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.LinearGradient;
 import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Path;
@@ -63,6 +64,17 @@ public class ShadowRenderer {
   private static final float[] cornerPositions = new float[] {0f, 0f, .5f, 1f};
 
   private final Path scratch = new Path();
+  private final Matrix tileMatrix = new Matrix();
+
+  // Shaders over the tiles of the ShadowAtlas. The tiles are shared by all renderers, but their
+  // shaders are not, since each renderer moves them into place with their local matrix.
+  private final TileShaders edgeTileShaders = new TileShaders(2);
+  private final TileShaders cornerTileShaders = new TileShaders(4);
+
+  // Gradients for corners which are too large to be served by the ShadowAtlas. They are centered on
+  // the origin and moved into place with their local matrix, so the same shader serves every corner
+  // with the same radius, elevation and color.
+  private final CornerGradients cornerGradients = new CornerGradients(4);
 
   public ShadowRenderer() {
     this(Color.BLACK);
@@ -71,7 +83,7 @@ public class ShadowRenderer {
   public ShadowRenderer(int color) {
     setShadowColor(color);
 
-    cornerShadowPaint = new Paint(Paint.DITHER_FLAG);
+    cornerShadowPaint = new Paint(Paint.DITHER_FLAG | Paint.FILTER_BITMAP_FLAG);
     cornerShadowPaint.setStyle(Paint.Style.FILL);
 
     shadowPaint = new Paint();
@@ -88,6 +100,10 @@ public class ShadowRenderer {
 
   /** Draws an edge shadow on the canvas in the current bounds with the matrix transform applied. */
   public void drawEdgeShadow(Canvas canvas, Matrix transform, RectF bounds, int elevation) {
+    if (elevation <= 0) {
+      // The shadow would be drawn in an empty rect.
+      return;
+    }
     bounds.bottom += elevation;
     bounds.offset(0, -elevation);
 
@@ -95,15 +111,13 @@ public class ShadowRenderer {
     edgeColors[1] = shadowMiddleColor;
     edgeColors[2] = shadowStartColor;
 
-    edgeShadowPaint.setShader(
-        new LinearGradient(
-            bounds.left,
-            bounds.top,
-            bounds.left,
-            bounds.bottom,
-            edgeColors,
-            edgePositions,
-            Shader.TileMode.CLAMP));
+    // Stretch the shared edge tile along the edge.
+    BitmapShader tile =
+        edgeTileShaders.get(
+            ShadowAtlas.getInstance().getEdgeTile(elevation, edgeColors, edgePositions));
+    tileMatrix.setTranslate(bounds.left, bounds.top);
+    tile.setLocalMatrix(tileMatrix);
+    edgeShadowPaint.setShader(tile);
 
     canvas.save();
     canvas.concat(transform);
@@ -150,21 +164,32 @@ public class ShadowRenderer {
     cornerPositions[1] = startRatio;
     cornerPositions[2] = midRatio;
 
-    cornerShadowPaint.setShader(
-        new RadialGradient(
-            bounds.centerX(),
-            bounds.centerY(),
-            bounds.width() / 2,
-            cornerColors,
-            cornerPositions,
-            Shader.TileMode.CLAMP));
+    float radius = bounds.width() / 2;
+    Bitmap tileBitmap =
+        ShadowAtlas.getInstance()
+            .getCornerTile(
+                radius, elevation, drawShadowInsideBounds, cornerColors, cornerPositions);
+    BitmapShader tile = tileBitmap != null ? cornerTileShaders.get(tileBitmap) : null;
+    if (tile != null) {
+      // The shared corner tile already leaves out the part of the arc covered by the shape.
+      float tileCenter = ShadowAtlas.getCornerTileSize(radius) / 2f;
+      tileMatrix.setTranslate(bounds.centerX() - tileCenter, bounds.centerY() - tileCenter);
+      tile.setLocalMatrix(tileMatrix);
+      cornerShadowPaint.setShader(tile);
+    } else {
+      RadialGradient gradient =
+          cornerGradients.get(radius, elevation, drawShadowInsideBounds, shadowStartColor);
+      tileMatrix.setTranslate(bounds.centerX(), bounds.centerY());
+      gradient.setLocalMatrix(tileMatrix);
+      cornerShadowPaint.setShader(gradient);
+    }
 
     // TODO: handle oval bounds by scaling the canvas.
 
     canvas.save();
     canvas.concat(matrix);
 
-    if (!drawShadowInsideBounds) {
+    if (!drawShadowInsideBounds && tile == null) {
       canvas.clipPath(arcBounds, Op.DIFFERENCE);
     }
 
@@ -175,4 +200,87 @@ public class ShadowRenderer {
   public Paint getShadowPaint() {
     return shadowPaint;
   }
+
+  Paint getCornerShadowPaint() {
+    return cornerShadowPaint;
+  }
+
+  Paint getEdgeShadowPaint() {
+    return edgeShadowPaint;
+  }
+
+  /**
+   * A small cache of radial gradients centered on the origin, keyed by the corner they were created
+   * for, which replaces its oldest gradient once it is full. This keeps shapes whose corners have
+   * different radii, or which draw shadows both outside and inside their bounds, from creating a
+   * new gradient for every corner they draw.
+   */
+  private static final class CornerGradients {
+    private final float[] radii;
+    private final int[] elevations;
+    private final boolean[] insideBounds;
+    private final int[] colors;
+    private final RadialGradient[] gradients;
+    private int next;
+
+    CornerGradients(int capacity) {
+      radii = new float[capacity];
+      elevations = new int[capacity];
+      insideBounds = new boolean[capacity];
+      colors = new int[capacity];
+      gradients = new RadialGradient[capacity];
+    }
+
+    /**
+     * Returns the gradient for the current {@code cornerColors} and {@code cornerPositions}, which
+     * are derived from the other arguments.
+     */
+    RadialGradient get(float radius, int elevation, boolean drawShadowInsideBounds, int color) {
+      for (int i = 0; i < gradients.length; i++) {
+        if (gradients[i] != null
+            && radii[i] == radius
+            && elevations[i] == elevation
+            && insideBounds[i] == drawShadowInsideBounds
+            && colors[i] == color) {
+          return gradients[i];
+        }
+      }
+      RadialGradient gradient =
+          new RadialGradient(0, 0, radius, cornerColors, cornerPositions, Shader.TileMode.CLAMP);
+      radii[next] = radius;
+      elevations[next] = elevation;
+      insideBounds[next] = drawShadowInsideBounds;
+      colors[next] = color;
+      gradients[next] = gradient;
+      next = (next + 1) % gradients.length;
+      return gradient;
+    }
+  }
+
+  /**
+   * A small cache of shaders over tile bitmaps, which replaces its oldest shader once it is full.
+   */
+  private static final class TileShaders {
+    private final Bitmap[] bitmaps;
+    private final BitmapShader[] shaders;
+    private int next;
+
+    TileShaders(int capacity) {
+      bitmaps = new Bitmap[capacity];
+      shaders = new BitmapShader[capacity];
+    }
+
+    BitmapShader get(Bitmap bitmap) {
+      for (int i = 0; i < bitmaps.length; i++) {
+        if (bitmaps[i] == bitmap) {
+          return shaders[i];
+        }
+      }
+      bitmaps[next] = bitmap;
+      shaders[next] = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+      BitmapShader shader = shaders[next];
+      next = (next + 1) % bitmaps.length;
+      return shader;
+    }
+  }
 }
@@ -28,6 +28,9 @@ public class CornerTreatment implements Cloneable {
 
   protected float cornerSize;
 
+  // Set for the treatments of immutable ShapeAppearanceModels, which are interned by shape.
+  private boolean immutable;
+
   public CornerTreatment() {
     // Default Constructor has no size. Using this treatment for all corners will draw a square
     this.cornerSize = 0;
@@ -60,14 +63,40 @@ public class CornerTreatment implements Cloneable {
     return cornerSize;
   }
 
+  /**
+   * Sets the size of this corner.
+   *
+   * @throws UnsupportedOperationException if this treatment belongs to an immutable {@link
+   *     ShapeAppearanceModel}.
+   */
   public void setCornerSize(float cornerSize) {
+    if (immutable) {
+      throw new UnsupportedOperationException(
+          "Corners of immutable ShapeAppearanceModels can't be modified. Use a"
+              + " ShapeAppearanceModel.Builder to create a new model instead.");
+    }
     this.cornerSize = cornerSize;
   }
 
+  /** Prevents further changes to the size of this corner through {@link #setCornerSize(float)}. */
+  void makeImmutable() {
+    immutable = true;
+  }
+
+  boolean hasOnlyCornerSize() {
+    Class<?> clazz = getClass();
+    return clazz == CornerTreatment.class
+        || clazz == RoundedCornerTreatment.class
+        || clazz == CutCornerTreatment.class;
+  }
+
+  /** Returns a copy of this treatment, which can be modified even if this treatment can't. */
   @Override
   public CornerTreatment clone() {
     try {
-      return (CornerTreatment) super.clone();
+      CornerTreatment clone = (CornerTreatment) super.clone();
+      clone.immutable = false;
+      return clone;
     } catch (CloneNotSupportedException e) {
       throw new AssertionError(e); // This should never happen, because CornerTreatment handles the
       // cloning, so all subclasses of CornerTreatment will support cloning.
@@ -21,7 +21,12 @@ import android.view.ViewTreeObserver;
 import android.view.ViewTreeObserver.OnScrollChangedListener;
 import android.widget.ScrollView;
 
-/** Helper class to handle shape interpolation when shaped views enter or exit the window. */
+/**
+ * Helper class to handle shape interpolation when shaped views enter or exit the window.
+ *
+ * <p>Since the interpolation changes on every scroll, the {@link MaterialShapeDrawable} is set to
+ * {@link MaterialShapeDrawable#setInterpolateKeyPoints(boolean) interpolate key points}.
+ */
 public class InterpolateOnScrollPositionChangeHelper {
 
   private View shapedView;
@@ -50,8 +55,8 @@ public class InterpolateOnScrollPositionChangeHelper {
       MaterialShapeDrawable materialShapeDrawable,
       ScrollView containingScrollView) {
     this.shapedView = shapedView;
-    this.materialShapeDrawable = materialShapeDrawable;
     this.containingScrollView = containingScrollView;
+    setMaterialShapeDrawable(materialShapeDrawable);
   }
 
   /**
@@ -61,6 +66,7 @@ public class InterpolateOnScrollPositionChangeHelper {
    */
   public void setMaterialShapeDrawable(MaterialShapeDrawable materialShapeDrawable) {
     this.materialShapeDrawable = materialShapeDrawable;
+    materialShapeDrawable.setInterpolateKeyPoints(true);
   }
 
   /**
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import static com.google.android.material.shape.ShapePath.VALUES_PER_OPERATION;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+import com.google.android.material.shape.ShapePath.OperationList;
+
+/**
+ * Produces the path of a shape at any interpolation by linearly interpolating between the key
+ * points of its path at interpolation 0 and 1.
+ *
+ * <p>The corner and edge treatments provided by this library scale linearly with the
+ * interpolation, so once both paths have been computed, the path for any intermediate value is
+ * produced without calling into the treatments or computing any transformations. This makes
+ * changing the interpolation on every frame, for example while scrolling, only cost as much as
+ * re-adding the points to the path.
+ */
+final class InterpolatedShapePath {
+
+  private final OperationList closedOperations = new OperationList();
+  private final OperationList openOperations = new OperationList();
+  private final OperationList interpolatedOperations = new OperationList();
+
+  // Pre-allocated objects that are re-used every time the key points are recorded.
+  private final ShapePathRecorder recorder = new ShapePathRecorder();
+  private final RectF scratchBounds = new RectF();
+
+  // The shape and size the key points were recorded for. Since the key points cover every
+  // interpolation, the key is always set with an interpolation of 1.
+  private final ShapePathKey key = new ShapePathKey();
+  private boolean valid;
+
+  /**
+   * Computes the path of {@code shapeAppearanceModel} at the given interpolation and bounds into
+   * {@code path}. The key points are only recorded again when the model or the size of the bounds
+   * changes.
+   *
+   * @return false if the path of the model can't be interpolated, in which case {@code path} is
+   *     left untouched and should be computed by {@link ShapeAppearancePathProvider} instead.
+   */
+  boolean calculatePath(
+      ShapeAppearancePathProvider pathProvider,
+      ShapeAppearanceModel shapeAppearanceModel,
+      float interpolation,
+      RectF bounds,
+      Path path) {
+    if (!shapeAppearanceModel.hasOnlyLibraryTreatments()) {
+      return false;
+    }
+    if (!key.matches(shapeAppearanceModel, 1, bounds)) {
+      record(pathProvider, shapeAppearanceModel, bounds);
+    }
+    if (!valid) {
+      return false;
+    }
+
+    float[] closedValues = closedOperations.values;
+    float[] openValues = openOperations.values;
+    interpolatedOperations.set(closedOperations);
+    float[] values = interpolatedOperations.values;
+    for (int i = 0, count = closedOperations.size * VALUES_PER_OPERATION; i < count; i++) {
+      values[i] = closedValues[i] + (openValues[i] - closedValues[i]) * interpolation;
+    }
+    path.rewind();
+    interpolatedOperations.applyToPath(path);
+    path.offset(bounds.left, bounds.top);
+    return true;
+  }
+
+  private void record(
+      ShapeAppearancePathProvider pathProvider,
+      ShapeAppearanceModel shapeAppearanceModel,
+      RectF bounds) {
+    key.set(shapeAppearanceModel, 1, bounds);
+    scratchBounds.set(0, 0, bounds.width(), bounds.height());
+    valid =
+        recorder.record(pathProvider, shapeAppearanceModel, 0, scratchBounds, closedOperations)
+            && recorder.record(pathProvider, shapeAppearanceModel, 1, scratchBounds, openOperations)
+            && haveSameTypes(closedOperations, openOperations);
+  }
+
+  private static boolean haveSameTypes(OperationList first, OperationList second) {
+    if (first.size != second.size) {
+      return false;
+    }
+    for (int i = 0; i < first.size; i++) {
+      if (first.types[i] != second.types[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
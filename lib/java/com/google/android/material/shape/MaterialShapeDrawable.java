@@ -53,9 +53,10 @@ import androidx.annotation.Nullable;
 import androidx.annotation.RestrictTo;
 import androidx.annotation.StyleRes;
 import com.google.android.material.elevation.ElevationOverlayProvider;
+import com.google.android.material.shadow.ShadowAtlas;
 import com.google.android.material.shadow.ShadowRenderer;
 import com.google.android.material.shape.ShapeAppearancePathProvider.PathListener;
-import com.google.android.material.shape.ShapePath.ShadowCompatOperation;
+import com.google.android.material.shape.ShapePath.PathShadowOperation;
 import androidx.core.graphics.drawable.TintAwareDrawable;
 import androidx.core.util.ObjectsCompat;
 import android.util.AttributeSet;
@@ -101,20 +102,26 @@ public class MaterialShapeDrawable extends Drawable
   public @interface CompatibilityShadowMode {}
 
   private static final Paint clearPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+  private static final RectF EMPTY_RECT = new RectF();
 
   private MaterialShapeDrawableState drawableState;
 
   // Inter-method state.
-  private final ShadowCompatOperation[] cornerShadowOperation = new ShadowCompatOperation[4];
-  private final ShadowCompatOperation[] edgeShadowOperation = new ShadowCompatOperation[4];
+  private final PathShadowOperation[] cornerShadowOperation = new PathShadowOperation[4];
+  private final PathShadowOperation[] edgeShadowOperation = new PathShadowOperation[4];
   private boolean pathDirty;
+  private boolean shadowOperationsDirty = true;
+  private boolean strokeShapeAppearanceDirty = true;
 
   // Pre-allocated objects that are re-used several times during path computation and rendering.
   private final Matrix matrix = new Matrix();
   private final Path path = new Path();
   private final Path pathInsetByStroke = new Path();
+  private final Path shadowOperationsPath = new Path();
+  private final Path outlinePath = new Path();
   private final RectF rectF = new RectF();
   private final RectF insetRectF = new RectF();
+  private final float[] cornerRadii = new float[8];
   private final Region transparentRegion = new Region();
   private final Region scratchRegion = new Region();
   private ShapeAppearanceModel strokeShapeAppearance;
@@ -125,12 +132,52 @@ public class MaterialShapeDrawable extends Drawable
   private final ShadowRenderer shadowRenderer = new ShadowRenderer();
   private final PathListener pathShadowListener;
   private final ShapeAppearancePathProvider pathProvider = new ShapeAppearancePathProvider();
+  private final InterpolatedShapePath interpolatedPath = new InterpolatedShapePath();
+  private final InterpolatedShapePath interpolatedStrokePath = new InterpolatedShapePath();
+  private final ShapeConvexHull convexHull = new ShapeConvexHull();
+
+  // Outline path which is kept between outline queries, along with the inputs it was computed from.
+  private final ShapePathKey outlineKey = new ShapePathKey();
+  private final RectF outlineBounds = new RectF();
+  private float outlineScale;
+  private boolean outlineConvex;
+  private boolean outlineHull;
+  private boolean outlineConcaveCompatShadow;
+
+  // Compat shadow layer which is kept between draws, along with the inputs it was rendered with.
+  @Nullable private Bitmap shadowLayer;
+  private final Canvas shadowLayerCanvas = new Canvas();
+  private boolean shadowLayerDirty = true;
+  private int shadowLayerRadius;
+  private int shadowLayerOffsetX;
+  private int shadowLayerOffsetY;
 
   @Nullable private PorterDuffColorFilter tintFilter;
   @Nullable private PorterDuffColorFilter strokeTintFilter;
 
   @Nullable private Rect padding;
 
+  /**
+   * Releases compat shadow layers cached by all {@code MaterialShapeDrawable} instances, along with
+   * the shared shadow tiles they are rendered from. This should be called from {@link
+   * android.content.ComponentCallbacks2#onTrimMemory(int)}; layers are released for {@link
+   * android.content.ComponentCallbacks2#TRIM_MEMORY_RUNNING_MODERATE} and higher levels, and are
+   * re-rendered the next time they are drawn.
+   */
+  public static void trimShadowLayerCache(int level) {
+    ShadowLayerCache.trimMemory(level);
+    ShadowAtlas.getInstance().trimMemory(level);
+  }
+
+  /**
+   * Sets the maximum number of bytes used by the compat shadow layers cached across all {@code
+   * MaterialShapeDrawable} instances. Shadows which don't fit in the budget are rendered every time
+   * they are drawn instead of being cached.
+   */
+  public static void setShadowLayerCacheMaxBytes(int maxBytes) {
+    ShadowLayerCache.setMaxBytes(maxBytes);
+  }
+
   /**
    * Returns a {@code MaterialShapeDrawable} with the elevation overlay functionality initialized, a
    * fill color of {@code colorSurface}, and an elevation of 0.
@@ -185,17 +232,21 @@ public class MaterialShapeDrawable extends Drawable
     clearPaint.setXfermode(new PorterDuffXfermode(Mode.DST_OUT));
     updateTintFilter();
     updateColorsForState(getState());
+    for (int i = 0; i < 4; i++) {
+      cornerShadowOperation[i] = new PathShadowOperation();
+      edgeShadowOperation[i] = new PathShadowOperation();
+    }
     // Listens to additions of corners and edges, to create the shadow operations.
     pathShadowListener =
         new PathListener() {
           @Override
           public void onCornerPathCreated(ShapePath cornerPath, Matrix transform, int count) {
-            cornerShadowOperation[count] = cornerPath.createShadowCompatOperation(transform);
+            cornerPath.fillShadowCompatOperation(transform, cornerShadowOperation[count]);
           }
 
           @Override
           public void onEdgePathCreated(ShapePath edgePath, Matrix transform, int count) {
-            edgeShadowOperation[count] = edgePath.createShadowCompatOperation(transform);
+            edgePath.fillShadowCompatOperation(transform, edgeShadowOperation[count]);
           }
         };
 
@@ -233,6 +284,7 @@ public class MaterialShapeDrawable extends Drawable
     drawableState.shapeAppearanceModel.removeOnChangedListener(this);
     drawableState.shapeAppearanceModel = shapeAppearanceModel;
     shapeAppearanceModel.addOnChangedListener(this);
+    strokeShapeAppearanceDirty = true;
     invalidateSelf();
   }
 
@@ -459,7 +511,12 @@ public class MaterialShapeDrawable extends Drawable
   }
 
   public void setCornerRadius(float cornerRadius) {
-    drawableState.shapeAppearanceModel.setCornerRadius(cornerRadius);
+    ShapeAppearanceModel shapeAppearanceModel =
+        drawableState.shapeAppearanceModel.withCornerRadius(cornerRadius);
+    if (shapeAppearanceModel != drawableState.shapeAppearanceModel) {
+      setShapeAppearanceModel(shapeAppearanceModel);
+      return;
+    }
     invalidateSelf();
   }
 
@@ -603,6 +660,36 @@ public class MaterialShapeDrawable extends Drawable
     }
   }
 
+  /**
+   * Returns whether paths for intermediate interpolations are interpolated from precomputed key
+   * points.
+   *
+   * @see #setInterpolateKeyPoints(boolean)
+   */
+  public boolean isInterpolateKeyPoints() {
+    return drawableState.interpolateKeyPoints;
+  }
+
+  /**
+   * Sets whether paths for intermediate interpolations are interpolated from precomputed key
+   * points. When enabled, the key points of the path at interpolations 0 and 1 are computed once
+   * for the current shape and size, and {@link #setInterpolation(float)} only needs to blend them
+   * instead of computing the whole path from the corner and edge treatments again. This is useful
+   * when the interpolation changes on every frame, for example while scrolling.
+   *
+   * <p>Only shapes made of the corner and edge treatments provided by this library can be
+   * interpolated this way, other shapes are always computed from their treatments.
+   *
+   * @param interpolateKeyPoints whether to interpolate precomputed key points.
+   */
+  public void setInterpolateKeyPoints(boolean interpolateKeyPoints) {
+    if (drawableState.interpolateKeyPoints != interpolateKeyPoints) {
+      drawableState.interpolateKeyPoints = interpolateKeyPoints;
+      pathDirty = true;
+      invalidateSelf();
+    }
+  }
+
   /**
    * Returns the elevation used to render both fake shadows when {@link #requiresCompatShadow()} is
    * true and elevation overlays. This value is the same as the native elevation that would be used
@@ -796,6 +883,7 @@ public class MaterialShapeDrawable extends Drawable
 
   @Override
   public void onShapeAppearanceModelChanged() {
+    strokeShapeAppearanceDirty = true;
     invalidateSelf();
   }
 
@@ -839,6 +927,7 @@ public class MaterialShapeDrawable extends Drawable
   public void setShadowColor(int shadowColor) {
     shadowRenderer.setShadowColor(shadowColor);
     drawableState.useTintColorForShadow = false;
+    shadowLayerDirty = true;
     invalidateSelfIgnoreShape();
   }
 
@@ -903,6 +992,8 @@ public class MaterialShapeDrawable extends Drawable
       calculateStrokePath();
       calculatePath(getBoundsAsRectF(), path);
       pathDirty = false;
+      shadowLayerDirty = true;
+      shadowOperationsDirty = true;
     }
 
     if (hasCompatShadow()) {
@@ -911,28 +1002,7 @@ public class MaterialShapeDrawable extends Drawable
 
       prepareCanvasForShadow(canvas);
 
-      // Drawing the shadow in a bitmap lets us use the clear paint rather than using clipPath to
-      // prevent drawing shadow under the shape. clipPath has problems :-/
-      Bitmap shadowLayer =
-          Bitmap.createBitmap(
-              getBounds().width() + drawableState.shadowCompatRadius * 2,
-              getBounds().height() + drawableState.shadowCompatRadius * 2,
-              Bitmap.Config.ARGB_8888);
-      Canvas shadowCanvas = new Canvas(shadowLayer);
-
-      // Top Left of shadow (left - shadowCompatRadius, top - shadowCompatRadius) should be drawn at
-      // (0, 0) on shadowCanvas. Offset is handled by prepareCanvasForShadow and drawCompatShadow.
-      float shadowLeft = getBounds().left - drawableState.shadowCompatRadius;
-      float shadowTop = getBounds().top - drawableState.shadowCompatRadius;
-      shadowCanvas.translate(-shadowLeft, -shadowTop);
-
-      drawCompatShadow(shadowCanvas);
-
-      canvas.drawBitmap(shadowLayer, shadowLeft, shadowTop, null);
-
-      // Because we create the bitmap every time, we can recycle it. We may need to stop doing this
-      // if we end up keeping the bitmap in memory for performance.
-      shadowLayer.recycle();
+      drawCompatShadowLayer(canvas);
 
       // Restore the canvas to the same size it was before drawing any shadows.
       canvas.restore();
@@ -972,11 +1042,36 @@ public class MaterialShapeDrawable extends Drawable
     if (shapeAppearanceModel.isRoundRect()) {
       float cornerSize = shapeAppearanceModel.getTopRightCorner().getCornerSize();
       canvas.drawRoundRect(bounds, cornerSize, cornerSize, paint);
+    } else if (VERSION.SDK_INT >= VERSION_CODES.Q
+        && drawableState.scale == 1f
+        && shapeAppearanceModel.isRoundedCornerRect()) {
+      drawRoundedCornerRect(canvas, paint, shapeAppearanceModel, bounds);
     } else {
       canvas.drawPath(path, paint);
     }
   }
 
+  /**
+   * Draws a round rect with a different radius for each corner. Drawing a double round rect with an
+   * empty inner rect only draws the outer round rect, which is cheaper to render than the same
+   * shape as a path.
+   */
+  @TargetApi(VERSION_CODES.Q)
+  private void drawRoundedCornerRect(
+      Canvas canvas, Paint paint, ShapeAppearanceModel shapeAppearanceModel, RectF bounds) {
+    float interpolation = drawableState.interpolation;
+    setCornerRadii(0, shapeAppearanceModel.getTopLeftCorner().getCornerSize() * interpolation);
+    setCornerRadii(1, shapeAppearanceModel.getTopRightCorner().getCornerSize() * interpolation);
+    setCornerRadii(2, shapeAppearanceModel.getBottomRightCorner().getCornerSize() * interpolation);
+    setCornerRadii(3, shapeAppearanceModel.getBottomLeftCorner().getCornerSize() * interpolation);
+    canvas.drawDoubleRoundRect(bounds, cornerRadii, EMPTY_RECT, cornerRadii, paint);
+  }
+
+  private void setCornerRadii(int index, float radius) {
+    cornerRadii[index * 2] = radius;
+    cornerRadii[index * 2 + 1] = radius;
+  }
+
   private void drawFillShape(Canvas canvas) {
     drawShape(canvas, fillPaint, path, drawableState.shapeAppearanceModel, getBoundsAsRectF());
   }
@@ -1008,6 +1103,74 @@ public class MaterialShapeDrawable extends Drawable
     canvas.translate(shadowOffsetX, shadowOffsetY);
   }
 
+  /**
+   * Draws the compat shadow through an offscreen layer. The layer is kept between draws and only
+   * re-rendered when the bounds size, shape, shadow radius, offset, rotation or color change.
+   */
+  private void drawCompatShadowLayer(Canvas canvas) {
+    int shadowRadius = drawableState.shadowCompatRadius;
+    int width = getBounds().width() + shadowRadius * 2;
+    int height = getBounds().height() + shadowRadius * 2;
+    int shadowOffsetX = getShadowOffsetX();
+    int shadowOffsetY = getShadowOffsetY();
+
+    // Top Left of shadow (left - shadowCompatRadius, top - shadowCompatRadius) should be drawn at
+    // (0, 0) on the shadow layer. Offset is handled by prepareCanvasForShadow and drawCompatShadow.
+    float shadowLeft = getBounds().left - shadowRadius;
+    float shadowTop = getBounds().top - shadowRadius;
+
+    boolean sizeChanged =
+        shadowLayer == null || shadowLayer.getWidth() != width || shadowLayer.getHeight() != height;
+    if (sizeChanged
+        || shadowLayerDirty
+        || shadowLayerRadius != shadowRadius
+        || shadowLayerOffsetX != shadowOffsetX
+        || shadowLayerOffsetY != shadowOffsetY) {
+      if (sizeChanged) {
+        releaseShadowLayer();
+        shadowLayer = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+      } else {
+        shadowLayer.eraseColor(Color.TRANSPARENT);
+      }
+
+      // Drawing the shadow in a bitmap lets us use the clear paint rather than using clipPath to
+      // prevent drawing shadow under the shape. clipPath has problems :-/
+      shadowLayerCanvas.setBitmap(shadowLayer);
+      shadowLayerCanvas.save();
+      shadowLayerCanvas.translate(-shadowLeft, -shadowTop);
+      drawCompatShadow(shadowLayerCanvas);
+      shadowLayerCanvas.restore();
+
+      shadowLayerDirty = false;
+      shadowLayerRadius = shadowRadius;
+      shadowLayerOffsetX = shadowOffsetX;
+      shadowLayerOffsetY = shadowOffsetY;
+    }
+
+    canvas.drawBitmap(shadowLayer, shadowLeft, shadowTop, null);
+
+    // Layers which don't fit in the cache budget are rendered from scratch on every draw.
+    if (!ShadowLayerCache.retain(this, shadowLayer)) {
+      releaseShadowLayer();
+    }
+  }
+
+  /** Releases the cached compat shadow layer, if any. */
+  void releaseShadowLayer() {
+    if (shadowLayer != null) {
+      shadowLayerCanvas.setBitmap(null);
+      shadowLayer.recycle();
+      shadowLayer = null;
+    }
+    shadowLayerDirty = true;
+    ShadowLayerCache.release(this);
+  }
+
+  /** Returns the number of bytes held by the cached compat shadow layer. */
+  int getShadowLayerByteCount() {
+    return shadowLayer != null ? shadowLayer.getByteCount() : 0;
+  }
+
   /**
    * Draws a shadow using gradients which can be used in the cases where native elevation can't.
    * This draws the shadow in multiple parts. It draws the shadow for each corner and edge
@@ -1016,6 +1179,18 @@ public class MaterialShapeDrawable extends Drawable
    * completely covered by the shape.
    */
   private void drawCompatShadow(Canvas canvas) {
+    if (shadowOperationsDirty) {
+      // The shadow operations are only needed for compat shadows, so they aren't created every time
+      // the path is calculated.
+      pathProvider.calculatePath(
+          drawableState.shapeAppearanceModel,
+          drawableState.interpolation,
+          getBoundsAsRectF(),
+          pathShadowListener,
+          shadowOperationsPath);
+      shadowOperationsDirty = false;
+    }
+
     if (drawableState.shadowCompatOffset != 0) {
       canvas.drawPath(path, shadowRenderer.getShadowPaint());
     }
@@ -1061,21 +1236,33 @@ public class MaterialShapeDrawable extends Drawable
   }
 
   private void calculatePathForSize(RectF bounds, Path path) {
-    pathProvider.calculatePath(
-        drawableState.shapeAppearanceModel,
-        drawableState.interpolation,
-        bounds,
-        pathShadowListener,
-        path);
+    calculatePath(drawableState.shapeAppearanceModel, bounds, interpolatedPath, path);
+  }
+
+  private void calculatePath(
+      ShapeAppearanceModel shapeAppearanceModel,
+      RectF bounds,
+      InterpolatedShapePath interpolatedPath,
+      Path path) {
+    if (!drawableState.interpolateKeyPoints
+        || !interpolatedPath.calculatePath(
+            pathProvider, shapeAppearanceModel, drawableState.interpolation, bounds, path)) {
+      pathProvider.calculatePath(shapeAppearanceModel, drawableState.interpolation, bounds, path);
+    }
   }
 
   /** Calculates the path that can be used to draw the stroke entirely inside the shape */
   private void calculateStrokePath() {
-    strokeShapeAppearance = new ShapeAppearanceModel(getShapeAppearanceModel());
-    float cornerSizeTopLeft = strokeShapeAppearance.getTopLeftCorner().cornerSize;
-    float cornerSizeTopRight = strokeShapeAppearance.getTopRightCorner().cornerSize;
-    float cornerSizeBottomRight = strokeShapeAppearance.getBottomRightCorner().cornerSize;
-    float cornerSizeBottomLeft = strokeShapeAppearance.getBottomLeftCorner().cornerSize;
+    ShapeAppearanceModel shapeAppearanceModel = getShapeAppearanceModel();
+    // Only copy the model when its treatments may have changed, the corner sizes are updated below.
+    if (strokeShapeAppearance == null || strokeShapeAppearanceDirty) {
+      strokeShapeAppearance = new ShapeAppearanceModel(shapeAppearanceModel);
+      strokeShapeAppearanceDirty = false;
+    }
+    float cornerSizeTopLeft = shapeAppearanceModel.getTopLeftCorner().cornerSize;
+    float cornerSizeTopRight = shapeAppearanceModel.getTopRightCorner().cornerSize;
+    float cornerSizeBottomRight = shapeAppearanceModel.getBottomRightCorner().cornerSize;
+    float cornerSizeBottomLeft = shapeAppearanceModel.getBottomLeftCorner().cornerSize;
 
     // Adjust corner radius in order to draw the stroke so that the corners of the background are
     // drawn on top of the edges.
@@ -1085,11 +1272,8 @@ public class MaterialShapeDrawable extends Drawable
         adjustCornerSizeForStrokeSize(cornerSizeBottomRight),
         adjustCornerSizeForStrokeSize(cornerSizeBottomLeft));
 
-    pathProvider.calculatePath(
-        strokeShapeAppearance,
-        drawableState.interpolation,
-        getBoundsInsetByStroke(),
-        pathInsetByStroke);
+    calculatePath(
+        strokeShapeAppearance, getBoundsInsetByStroke(), interpolatedStrokePath, pathInsetByStroke);
   }
 
   private float adjustCornerSizeForStrokeSize(float cornerSize) {
@@ -1113,14 +1297,61 @@ public class MaterialShapeDrawable extends Drawable
       return;
     }
 
-    calculatePath(getBoundsAsRectF(), path);
-    if (path.isConvex()) {
-      outline.setConvexPath(path);
+    RectF bounds = getBoundsAsRectF();
+    // Concave shapes draw a compat shadow unless it is disabled.
+    boolean concaveCompatShadow =
+        drawableState.shadowCompatMode != SHADOW_COMPAT_MODE_NEVER
+            && drawableState.shadowCompatRadius > 0;
+    if (!isOutlineValid(bounds, concaveCompatShadow)) {
+      calculatePath(bounds, outlinePath);
+      outlineConvex = outlinePath.isConvex();
+      outlineConcaveCompatShadow = concaveCompatShadow;
+      // Outlines have to be convex, so concave shapes which don't draw a compat shadow use their
+      // convex hull instead in order to still get a native shadow.
+      outlineHull =
+          !outlineConvex
+              && !concaveCompatShadow
+              && convexHull.calculateHull(
+                  pathProvider,
+                  drawableState.shapeAppearanceModel,
+                  drawableState.interpolation,
+                  bounds,
+                  outlinePath);
+      if (outlineHull) {
+        scalePath(bounds, outlinePath);
+      }
+      if (drawableState.shapeAppearanceModel.hasOnlyLibraryTreatments()) {
+        outlineKey.set(drawableState.shapeAppearanceModel, drawableState.interpolation, bounds);
+        outlineBounds.set(bounds);
+        outlineScale = drawableState.scale;
+      } else {
+        outlineKey.clear();
+      }
+    }
+    if (outlineConvex || outlineHull) {
+      outline.setConvexPath(outlinePath);
     }
   }
 
+  /**
+   * Returns whether the cached outline path can be re-used for the current shape. Only shapes made
+   * of library treatments are cached, since other treatments may change without notifying the
+   * model.
+   */
+  private boolean isOutlineValid(RectF bounds, boolean concaveCompatShadow) {
+    return outlineKey.matches(
+            drawableState.shapeAppearanceModel, drawableState.interpolation, bounds)
+        && outlineBounds.equals(bounds)
+        && outlineScale == drawableState.scale
+        && (outlineConvex || outlineConcaveCompatShadow == concaveCompatShadow);
+  }
+
   private void calculatePath(RectF bounds, Path path) {
     calculatePathForSize(bounds, path);
+    scalePath(bounds, path);
+  }
+
+  private void scalePath(RectF bounds, Path path) {
     if (drawableState.scale == 1f) {
       return;
     }
@@ -1148,6 +1379,7 @@ public class MaterialShapeDrawable extends Drawable
     if (drawableState.useTintColorForShadow) {
       shadowRenderer.setShadowColor(
           drawableState.tintList.getColorForState(getState(), Color.TRANSPARENT));
+      shadowLayerDirty = true;
     }
     return !ObjectsCompat.equals(originalTintFilter, tintFilter)
         || !ObjectsCompat.equals(originalStrokeTintFilter, strokeTintFilter);
@@ -1261,6 +1493,7 @@ public class MaterialShapeDrawable extends Drawable
 
     public float scale = 1f;
     public float interpolation = 1f;
+    public boolean interpolateKeyPoints = false;
     public float strokeWidth;
 
     public int alpha = 255;
@@ -1297,6 +1530,7 @@ public class MaterialShapeDrawable extends Drawable
       shadowCompatMode = orig.shadowCompatMode;
       useTintColorForShadow = orig.useTintColorForShadow;
       interpolation = orig.interpolation;
+      interpolateKeyPoints = orig.interpolateKeyPoints;
       elevation = orig.elevation;
       translationZ = orig.translationZ;
       shadowCompatRadius = orig.shadowCompatRadius;
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Keeps track of the compat shadow layers cached by {@link MaterialShapeDrawable} instances, so
+ * that the memory they hold on to stays within a process-wide budget and can be released when the
+ * system is low on memory.
+ *
+ * <p>Drawables are tracked weakly, so a drawable which is no longer referenced doesn't count
+ * against the budget. All methods must be called from the main thread.
+ */
+final class ShadowLayerCache {
+
+  /** Default number of bytes all cached shadow layers are allowed to use. */
+  static final int DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+
+  private static final Map<MaterialShapeDrawable, Boolean> owners = new WeakHashMap<>();
+
+  private static int maxBytes = DEFAULT_MAX_BYTES;
+
+  private ShadowLayerCache() {}
+
+  /**
+   * Returns whether {@code owner} may keep {@code shadowLayer} cached between draws. If this
+   * returns false the owner is expected to release the layer once it has been drawn.
+   */
+  static boolean retain(MaterialShapeDrawable owner, Bitmap shadowLayer) {
+    if (owners.containsKey(owner)) {
+      // The layer was already accounted for when it was first cached.
+      return true;
+    }
+    if (getUsedBytes() + shadowLayer.getByteCount() > maxBytes) {
+      return false;
+    }
+    owners.put(owner, Boolean.TRUE);
+    return true;
+  }
+
+  /** Stops tracking {@code owner}, which no longer holds a cached shadow layer. */
+  static void release(MaterialShapeDrawable owner) {
+    owners.remove(owner);
+  }
+
+  /** Returns the number of bytes currently held by cached shadow layers. */
+  static int getUsedBytes() {
+    int usedBytes = 0;
+    for (MaterialShapeDrawable owner : owners.keySet()) {
+      usedBytes += owner.getShadowLayerByteCount();
+    }
+    return usedBytes;
+  }
+
+  /**
+   * Sets the number of bytes all cached shadow layers are allowed to use. Layers which are already
+   * cached are released if they no longer fit in the new budget.
+   */
+  static void setMaxBytes(int maxBytes) {
+    ShadowLayerCache.maxBytes = maxBytes;
+    if (getUsedBytes() > maxBytes) {
+      releaseAll();
+    }
+  }
+
+  /** Returns the number of bytes all cached shadow layers are allowed to use. */
+  static int getMaxBytes() {
+    return maxBytes;
+  }
+
+  /**
+   * Releases cached shadow layers in response to {@link ComponentCallbacks2#onTrimMemory(int)}.
+   * Layers are re-rendered the next time their drawable is drawn.
+   */
+  static void trimMemory(int level) {
+    if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+      releaseAll();
+    }
+  }
+
+  private static void releaseAll() {
+    // Copy the owners since releasing a layer removes its owner from the map.
+    List<MaterialShapeDrawable> ownersToRelease = new ArrayList<>(owners.keySet());
+    for (MaterialShapeDrawable owner : ownersToRelease) {
+      owner.releaseShadowLayer();
+    }
+    owners.clear();
+  }
+}
@@ -32,12 +32,23 @@ import androidx.annotation.RestrictTo;
 import androidx.annotation.StyleRes;
 import android.util.AttributeSet;
 import android.view.ContextThemeWrapper;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.LinkedHashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 /**
  * This class models the edges and corners of a shape, which are used by {@link
  * MaterialShapeDrawable} to generate and render the shape for a view's background.
+ *
+ * <p>Models created with a {@link Builder} are immutable and interned, so identical shapes used by
+ * many views share a single instance. Immutable models throw an {@link
+ * UnsupportedOperationException} when modified; use {@link
+ * #ShapeAppearanceModel(ShapeAppearanceModel)} or {@link Builder#Builder(ShapeAppearanceModel)} to
+ * derive a new model from them instead. The corner treatments of an immutable model throw as well,
+ * since other views may share the model.
  */
 public class ShapeAppearanceModel {
 
@@ -56,6 +67,10 @@ public class ShapeAppearanceModel {
   // Constant corner radius value to indicate that shape should use 50% height corner radii
   public static final int PILL = -1;
 
+  // Pool of immutable models by shape, only kept as long as they are referenced elsewhere.
+  private static final Map<InternKey, WeakReference<ShapeAppearanceModel>> internPool =
+      new WeakHashMap<>();
+
   private CornerTreatment topLeftCorner;
   private CornerTreatment topRightCorner;
   private CornerTreatment bottomRightCorner;
@@ -67,6 +82,11 @@ public class ShapeAppearanceModel {
 
   private final Set<OnChangedListener> onChangedListeners = new LinkedHashSet<>();
 
+  private boolean immutable;
+  // Key of an immutable model in the pool, which is held by the model to keep its pool entry.
+  @Nullable private InternKey internKey;
+  private int changeCount;
+
   /** Constructs a default path generator with default edge and corner treatments. */
   public ShapeAppearanceModel() {
     setTopLeftCornerInternal(MaterialShapeUtils.createDefaultCornerTreatment());
@@ -241,6 +261,7 @@ public class ShapeAppearanceModel {
   }
 
   private boolean setTopLeftCornerSizeInternal(float topLeftCornerSize) {
+    checkMutable();
     boolean changed = false;
     if (this.topLeftCorner.cornerSize != topLeftCornerSize) {
       this.topLeftCorner.cornerSize = topLeftCornerSize;
@@ -250,6 +271,7 @@ public class ShapeAppearanceModel {
   }
 
   private boolean setTopRightCornerSizeInternal(float topRightCornerSize) {
+    checkMutable();
     boolean changed = false;
     if (this.topRightCorner.cornerSize != topRightCornerSize) {
       this.topRightCorner.cornerSize = topRightCornerSize;
@@ -259,6 +281,7 @@ public class ShapeAppearanceModel {
   }
 
   private boolean setBottomRightCornerSizeInternal(float bottomRightCornerSize) {
+    checkMutable();
     boolean changed = false;
     if (this.bottomRightCorner.cornerSize != bottomRightCornerSize) {
       this.bottomRightCorner.cornerSize = bottomRightCornerSize;
@@ -268,6 +291,7 @@ public class ShapeAppearanceModel {
   }
 
   private boolean setBottomLeftCornerSizeInternal(float bottomLeftCornerSize) {
+    checkMutable();
     boolean changed = false;
     if (this.bottomLeftCorner.cornerSize != bottomLeftCornerSize) {
       this.bottomLeftCorner.cornerSize = bottomLeftCornerSize;
@@ -360,6 +384,7 @@ public class ShapeAppearanceModel {
   }
 
   private boolean setTopLeftCornerInternal(CornerTreatment topLeftCorner) {
+    checkMutable();
     boolean changed = false;
     if (this.topLeftCorner != topLeftCorner) {
       this.topLeftCorner = topLeftCorner;
@@ -399,6 +424,7 @@ public class ShapeAppearanceModel {
   }
 
   private boolean setTopRightCornerInternal(CornerTreatment topRightCorner) {
+    checkMutable();
     boolean changed = false;
     if (this.topRightCorner != topRightCorner) {
       this.topRightCorner = topRightCorner;
@@ -438,6 +464,7 @@ public class ShapeAppearanceModel {
   }
 
   private boolean setBottomRightCornerInternal(CornerTreatment bottomRightCorner) {
+    checkMutable();
     boolean changed = false;
     if (this.bottomRightCorner != bottomRightCorner) {
       this.bottomRightCorner = bottomRightCorner;
@@ -477,6 +504,7 @@ public class ShapeAppearanceModel {
   }
 
   private boolean setBottomLeftCornerInternal(CornerTreatment bottomLeftCorner) {
+    checkMutable();
     boolean changed = false;
     if (this.bottomLeftCorner != bottomLeftCorner) {
       this.bottomLeftCorner = bottomLeftCorner;
@@ -506,6 +534,7 @@ public class ShapeAppearanceModel {
   }
 
   private boolean setLeftEdgeInternal(EdgeTreatment leftEdge) {
+    checkMutable();
     boolean changed = false;
     if (this.leftEdge != leftEdge) {
       this.leftEdge = leftEdge;
@@ -535,6 +564,7 @@ public class ShapeAppearanceModel {
   }
 
   private boolean setTopEdgeInternal(EdgeTreatment topEdge) {
+    checkMutable();
     boolean changed = false;
     if (this.topEdge != topEdge) {
       this.topEdge = topEdge;
@@ -564,6 +594,7 @@ public class ShapeAppearanceModel {
   }
 
   private boolean setRightEdgeInternal(EdgeTreatment rightEdge) {
+    checkMutable();
     boolean changed = false;
     if (this.rightEdge != rightEdge) {
       this.rightEdge = rightEdge;
@@ -593,6 +624,7 @@ public class ShapeAppearanceModel {
   }
 
   private boolean setBottomEdgeInternal(EdgeTreatment bottomEdge) {
+    checkMutable();
     boolean changed = false;
     if (this.bottomEdge != bottomEdge) {
       this.bottomEdge = bottomEdge;
@@ -611,7 +643,10 @@ public class ShapeAppearanceModel {
   }
 
   void addOnChangedListener(@Nullable OnChangedListener onChangedListener) {
-    onChangedListeners.add(onChangedListener);
+    // Immutable models never change, and may be shared by many listeners which shouldn't be leaked.
+    if (!immutable) {
+      onChangedListeners.add(onChangedListener);
+    }
   }
 
   void removeOnChangedListener(@Nullable OnChangedListener onChangedListener) {
@@ -626,7 +661,64 @@ public class ShapeAppearanceModel {
         && getBottomRightCorner().getCornerSize() == PILL;
   }
 
+  /**
+   * Returns whether this model was created by a {@link Builder} and can't be modified.
+   *
+   * @see Builder
+   */
+  public boolean isImmutable() {
+    return immutable;
+  }
+
+  private void checkMutable() {
+    if (immutable) {
+      throw new UnsupportedOperationException(
+          "Immutable ShapeAppearanceModels can't be modified. Use a ShapeAppearanceModel.Builder"
+              + " to create a new model instead.");
+    }
+  }
+
+  private static ShapeAppearanceModel intern(ShapeAppearanceModel shapeAppearanceModel) {
+    InternKey key = new InternKey(shapeAppearanceModel);
+    synchronized (internPool) {
+      WeakReference<ShapeAppearanceModel> reference = internPool.get(key);
+      ShapeAppearanceModel interned = reference != null ? reference.get() : null;
+      if (interned == null) {
+        interned = shapeAppearanceModel;
+        interned.internKey = key;
+        internPool.put(key, new WeakReference<>(interned));
+      }
+      return interned;
+    }
+  }
+
+  /** Returns the number of times a corner or edge of this model has been replaced or resized. */
+  int getChangeCount() {
+    return changeCount;
+  }
+
+  /**
+   * Returns whether all corners and edges use treatments provided by this library, whose paths only
+   * depend on their corner size or on state which can't change.
+   */
+  boolean hasOnlyLibraryTreatments() {
+    return topLeftCorner.hasOnlyCornerSize()
+        && topRightCorner.hasOnlyCornerSize()
+        && bottomRightCorner.hasOnlyCornerSize()
+        && bottomLeftCorner.hasOnlyCornerSize()
+        && hasImmutableState(topEdge)
+        && hasImmutableState(rightEdge)
+        && hasImmutableState(bottomEdge)
+        && hasImmutableState(leftEdge);
+  }
+
+  private static boolean hasImmutableState(EdgeTreatment edgeTreatment) {
+    Class<?> clazz = edgeTreatment.getClass();
+    return clazz == EdgeTreatment.class || clazz == TriangleEdgeTreatment.class;
+  }
+
   private void onShapeAppearanceModelChanged() {
+    changeCount++;
     for (OnChangedListener onChangedListener : onChangedListeners) {
       if (onChangedListener != null) {
         onChangedListener.onShapeAppearanceModelChanged();
@@ -634,6 +726,47 @@ public class ShapeAppearanceModel {
     }
   }
 
+  /**
+   * Returns a model with all four corners of size {@code cornerRadius}. Mutable models are
+   * modified and returned, while immutable models are copied into a new model if needed.
+   *
+   * @hide
+   */
+  @RestrictTo(LIBRARY_GROUP)
+  public ShapeAppearanceModel withCornerRadius(float cornerRadius) {
+    return withCornerRadii(cornerRadius, cornerRadius, cornerRadius, cornerRadius);
+  }
+
+  /**
+   * Returns a model with the given corner sizes. Mutable models are modified and returned, while
+   * immutable models are copied into a new model if needed.
+   *
+   * @see #setCornerRadii(float, float, float, float)
+   * @hide
+   */
+  @RestrictTo(LIBRARY_GROUP)
+  public ShapeAppearanceModel withCornerRadii(
+      float topLeftCornerRadius,
+      float topRightCornerRadius,
+      float bottomRightCornerRadius,
+      float bottomLeftCornerRadius) {
+    if (!immutable) {
+      setCornerRadii(
+          topLeftCornerRadius, topRightCornerRadius, bottomRightCornerRadius, bottomLeftCornerRadius);
+      return this;
+    }
+    if (topLeftCorner.cornerSize == topLeftCornerRadius
+        && topRightCorner.cornerSize == topRightCornerRadius
+        && bottomRightCorner.cornerSize == bottomRightCornerRadius
+        && bottomLeftCorner.cornerSize == bottomLeftCornerRadius) {
+      return this;
+    }
+    return new Builder(this)
+        .setCornerRadii(
+            topLeftCornerRadius, topRightCornerRadius, bottomRightCornerRadius, bottomLeftCornerRadius)
+        .build();
+  }
+
   /**
    * Checks Corner and Edge treatments to see if we can use {@link Canvas#drawRoundRect(RectF,float,
    * float, Paint)} "} to draw this model.
@@ -642,12 +775,6 @@ public class ShapeAppearanceModel {
    */
   @RestrictTo(LIBRARY_GROUP)
   public boolean isRoundRect() {
-    boolean hasDefaultEdges =
-        leftEdge.getClass().equals(EdgeTreatment.class)
-            && rightEdge.getClass().equals(EdgeTreatment.class)
-            && topEdge.getClass().equals(EdgeTreatment.class)
-            && bottomEdge.getClass().equals(EdgeTreatment.class);
-
     float cornerSize = topLeftCorner.getCornerSize();
 
     boolean cornersHaveSameSize =
@@ -661,6 +788,230 @@ public class ShapeAppearanceModel {
             && bottomRightCorner instanceof RoundedCornerTreatment
             && bottomLeftCorner instanceof RoundedCornerTreatment;
 
-    return hasDefaultEdges && cornersHaveSameSize && hasRoundedCorners;
+    return hasDefaultEdges() && cornersHaveSameSize && hasRoundedCorners;
+  }
+
+  /**
+   * Checks whether all corners are {@link RoundedCornerTreatment}s, possibly of different sizes,
+   * and all edges are {@link EdgeTreatment}s. Such shapes can be drawn as round rects with a radius
+   * per corner.
+   */
+  boolean isRoundedCornerRect() {
+    return hasDefaultEdges()
+        && topLeftCorner.getClass() == RoundedCornerTreatment.class
+        && topRightCorner.getClass() == RoundedCornerTreatment.class
+        && bottomRightCorner.getClass() == RoundedCornerTreatment.class
+        && bottomLeftCorner.getClass() == RoundedCornerTreatment.class;
+  }
+
+  /**
+   * Checks whether all corners are {@link CutCornerTreatment}s, possibly of different sizes, and
+   * all edges are {@link EdgeTreatment}s. Such shapes are convex polygons with up to 8 points.
+   */
+  boolean isCutCornerRect() {
+    return hasDefaultEdges()
+        && topLeftCorner.getClass() == CutCornerTreatment.class
+        && topRightCorner.getClass() == CutCornerTreatment.class
+        && bottomRightCorner.getClass() == CutCornerTreatment.class
+        && bottomLeftCorner.getClass() == CutCornerTreatment.class;
+  }
+
+  private boolean hasDefaultEdges() {
+    return leftEdge.getClass().equals(EdgeTreatment.class)
+        && rightEdge.getClass().equals(EdgeTreatment.class)
+        && topEdge.getClass().equals(EdgeTreatment.class)
+        && bottomEdge.getClass().equals(EdgeTreatment.class);
+  }
+
+  /**
+   * Builder for immutable {@link ShapeAppearanceModel}s. Models returned by {@link #build()} are
+   * interned, so building the same shape twice returns the same instance.
+   */
+  public static final class Builder {
+
+    private final ShapeAppearanceModel shapeAppearanceModel;
+
+    /** Creates a builder for a shape with the default edge and corner treatments. */
+    public Builder() {
+      shapeAppearanceModel = new ShapeAppearanceModel();
+    }
+
+    /** Creates a builder initialized with the corners and edges of {@code other}. */
+    public Builder(ShapeAppearanceModel other) {
+      shapeAppearanceModel = new ShapeAppearanceModel(other);
+    }
+
+    /** @see ShapeAppearanceModel#setAllCorners(int, int) */
+    public Builder setAllCorners(@CornerFamily int cornerFamily, @Dimension int cornerSize) {
+      shapeAppearanceModel.setAllCorners(cornerFamily, cornerSize);
+      return this;
+    }
+
+    /** @see ShapeAppearanceModel#setAllCorners(CornerTreatment) */
+    public Builder setAllCorners(CornerTreatment cornerTreatment) {
+      shapeAppearanceModel.setAllCorners(cornerTreatment);
+      return this;
+    }
+
+    /** @see ShapeAppearanceModel#setCornerRadius(float) */
+    public Builder setCornerRadius(float cornerRadius) {
+      shapeAppearanceModel.setCornerRadius(cornerRadius);
+      return this;
+    }
+
+    /** @see ShapeAppearanceModel#setCornerRadii(float, float, float, float) */
+    public Builder setCornerRadii(
+        float topLeftCornerRadius,
+        float topRightCornerRadius,
+        float bottomRightCornerRadius,
+        float bottomLeftCornerRadius) {
+      shapeAppearanceModel.setCornerRadii(
+          topLeftCornerRadius,
+          topRightCornerRadius,
+          bottomRightCornerRadius,
+          bottomLeftCornerRadius);
+      return this;
+    }
+
+    /** @see ShapeAppearanceModel#setTopLeftCorner(CornerTreatment) */
+    public Builder setTopLeftCorner(CornerTreatment topLeftCorner) {
+      shapeAppearanceModel.setTopLeftCorner(topLeftCorner);
+      return this;
+    }
+
+    /** @see ShapeAppearanceModel#setTopRightCorner(CornerTreatment) */
+    public Builder setTopRightCorner(CornerTreatment topRightCorner) {
+      shapeAppearanceModel.setTopRightCorner(topRightCorner);
+      return this;
+    }
+
+    /** @see ShapeAppearanceModel#setBottomRightCorner(CornerTreatment) */
+    public Builder setBottomRightCorner(CornerTreatment bottomRightCorner) {
+      shapeAppearanceModel.setBottomRightCorner(bottomRightCorner);
+      return this;
+    }
+
+    /** @see ShapeAppearanceModel#setBottomLeftCorner(CornerTreatment) */
+    public Builder setBottomLeftCorner(CornerTreatment bottomLeftCorner) {
+      shapeAppearanceModel.setBottomLeftCorner(bottomLeftCorner);
+      return this;
+    }
+
+    /** @see ShapeAppearanceModel#setAllEdges(EdgeTreatment) */
+    public Builder setAllEdges(EdgeTreatment edgeTreatment) {
+      shapeAppearanceModel.setAllEdges(edgeTreatment);
+      return this;
+    }
+
+    /** @see ShapeAppearanceModel#setLeftEdge(EdgeTreatment) */
+    public Builder setLeftEdge(EdgeTreatment leftEdge) {
+      shapeAppearanceModel.setLeftEdge(leftEdge);
+      return this;
+    }
+
+    /** @see ShapeAppearanceModel#setTopEdge(EdgeTreatment) */
+    public Builder setTopEdge(EdgeTreatment topEdge) {
+      shapeAppearanceModel.setTopEdge(topEdge);
+      return this;
+    }
+
+    /** @see ShapeAppearanceModel#setRightEdge(EdgeTreatment) */
+    public Builder setRightEdge(EdgeTreatment rightEdge) {
+      shapeAppearanceModel.setRightEdge(rightEdge);
+      return this;
+    }
+
+    /** @see ShapeAppearanceModel#setBottomEdge(EdgeTreatment) */
+    public Builder setBottomEdge(EdgeTreatment bottomEdge) {
+      shapeAppearanceModel.setBottomEdge(bottomEdge);
+      return this;
+    }
+
+    /** Returns the interned, immutable {@link ShapeAppearanceModel} for the built shape. */
+    public ShapeAppearanceModel build() {
+      // Copy the treatments so that the builder can keep being used without affecting the model.
+      ShapeAppearanceModel result = new ShapeAppearanceModel(shapeAppearanceModel);
+      result.topLeftCorner.makeImmutable();
+      result.topRightCorner.makeImmutable();
+      result.bottomRightCorner.makeImmutable();
+      result.bottomLeftCorner.makeImmutable();
+      result.immutable = true;
+      return intern(result);
+    }
+  }
+
+  /**
+   * Identifies the shape of an immutable model in the pool of interned models. Treatments provided
+   * by this library are compared by class and corner size, and other treatments by identity, so
+   * that the public treatment and model classes keep identity equality.
+   */
+  private static final class InternKey {
+
+    // The class of each library treatment, or the treatment itself for other treatments.
+    private final Object[] treatments;
+    private final float[] cornerSizes;
+    private final int hashCode;
+
+    InternKey(ShapeAppearanceModel shapeAppearanceModel) {
+      treatments =
+          new Object[] {
+            getCornerKey(shapeAppearanceModel.topLeftCorner),
+            getCornerKey(shapeAppearanceModel.topRightCorner),
+            getCornerKey(shapeAppearanceModel.bottomRightCorner),
+            getCornerKey(shapeAppearanceModel.bottomLeftCorner),
+            getEdgeKey(shapeAppearanceModel.topEdge),
+            getEdgeKey(shapeAppearanceModel.rightEdge),
+            getEdgeKey(shapeAppearanceModel.bottomEdge),
+            getEdgeKey(shapeAppearanceModel.leftEdge)
+          };
+      cornerSizes =
+          new float[] {
+            shapeAppearanceModel.topLeftCorner.getCornerSize(),
+            shapeAppearanceModel.topRightCorner.getCornerSize(),
+            shapeAppearanceModel.bottomRightCorner.getCornerSize(),
+            shapeAppearanceModel.bottomLeftCorner.getCornerSize()
+          };
+      int result = Arrays.hashCode(cornerSizes);
+      for (Object treatment : treatments) {
+        result = 31 * result + System.identityHashCode(treatment);
+      }
+      hashCode = result;
+    }
+
+    private static Object getCornerKey(CornerTreatment cornerTreatment) {
+      return cornerTreatment.hasOnlyCornerSize() ? cornerTreatment.getClass() : cornerTreatment;
+    }
+
+    private static Object getEdgeKey(EdgeTreatment edgeTreatment) {
+      // The default edge holds no state, while other edges may hold any state.
+      return edgeTreatment.getClass() == EdgeTreatment.class
+          ? EdgeTreatment.class
+          : edgeTreatment;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof InternKey)) {
+        return false;
+      }
+      InternKey that = (InternKey) o;
+      if (hashCode != that.hashCode || !Arrays.equals(cornerSizes, that.cornerSizes)) {
+        return false;
+      }
+      for (int i = 0; i < treatments.length; i++) {
+        if (treatments[i] != that.treatments[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
   }
 }
@@ -42,6 +42,9 @@ public class ShapeAppearancePathProvider {
     void onEdgePathCreated(ShapePath edgePath, Matrix transform, int count);
   }
 
+  /** Number of computed paths kept by each provider. */
+  private static final int PATH_CACHE_SIZE = 4;
+
   // Inter-method state.
   private final ShapePath[] cornerPaths = new ShapePath[4];
   private final Matrix[] cornerTransforms = new Matrix[4];
@@ -52,6 +55,14 @@ public class ShapeAppearancePathProvider {
   private final ShapePath shapePath = new ShapePath();
   private final float[] scratch = new float[2];
   private final float[] scratch2 = new float[2];
+  private final ShapeAppearancePathSpec spec = new ShapeAppearancePathSpec();
+
+  // Paths computed for the most recent shapes and sizes, so that shapes which go back and forth
+  // between sizes during an animation don't need to be recomputed.
+  private final CachedPath[] pathCache = new CachedPath[PATH_CACHE_SIZE];
+  private int nextPathCacheIndex;
+  private int pathCacheHitCount;
+  private int pathCacheMissCount;
 
   public ShapeAppearancePathProvider() {
     for (int i = 0; i < 4; i++) {
@@ -59,6 +70,9 @@ public class ShapeAppearancePathProvider {
       cornerTransforms[i] = new Matrix();
       edgeTransforms[i] = new Matrix();
     }
+    for (int i = 0; i < PATH_CACHE_SIZE; i++) {
+      pathCache[i] = new CachedPath();
+    }
   }
 
   /**
@@ -77,6 +91,10 @@ public class ShapeAppearancePathProvider {
   /**
    * Writes the given {@link ShapeAppearanceModel} to {@code path}
    *
+   * <p>When no {@code pathListener} is given, the last few computed paths are cached by the
+   * provider and re-used for the same model, interpolation and size. Cached paths only need to be
+   * moved to {@code bounds}.
+   *
    * @param shapeAppearanceModel The shape to be applied in the path.
    * @param interpolation the desired interpolation.
    * @param bounds the desired bounds for the path.
@@ -89,10 +107,39 @@ public class ShapeAppearancePathProvider {
       RectF bounds,
       PathListener pathListener,
       Path path) {
+    boolean useCache =
+        pathListener == null && shapeAppearanceModel.hasOnlyLibraryTreatments();
+    if (useCache) {
+      Path cachedPath = getCachedPath(shapeAppearanceModel, interpolation, bounds);
+      if (cachedPath != null) {
+        pathCacheHitCount++;
+        path.set(cachedPath);
+        path.offset(bounds.left, bounds.top);
+        return;
+      }
+      pathCacheMissCount++;
+    }
+
     path.rewind();
-    ShapeAppearancePathSpec spec =
-        new ShapeAppearancePathSpec(
-            shapeAppearanceModel, interpolation, bounds, pathListener, path);
+    if (pathListener == null && shapeAppearanceModel.isCutCornerRect()) {
+      // Cut corners don't need any transformations, so the polygon can be built directly.
+      calculateCutCornerPath(shapeAppearanceModel, interpolation, bounds, path);
+    } else {
+      calculateTreatmentPath(shapeAppearanceModel, interpolation, bounds, pathListener, path);
+    }
+
+    if (useCache) {
+      putCachedPath(shapeAppearanceModel, interpolation, bounds, path);
+    }
+  }
+
+  private void calculateTreatmentPath(
+      ShapeAppearanceModel shapeAppearanceModel,
+      float interpolation,
+      RectF bounds,
+      @Nullable PathListener pathListener,
+      Path path) {
+    spec.set(shapeAppearanceModel, interpolation, bounds, pathListener, path);
 
     // Calculate the transformations (rotations and translations) necessary for each edge and
     // corner treatment.
@@ -111,6 +158,68 @@ public class ShapeAppearancePathProvider {
     }
 
     path.close();
+    spec.clear();
+  }
+
+  /**
+   * Builds the convex polygon of a shape made only of {@link CutCornerTreatment}s and straight
+   * edges. This produces the same path as the corner treatments would, starting from the top right
+   * corner for the same reason.
+   */
+  private static void calculateCutCornerPath(
+      ShapeAppearanceModel shapeAppearanceModel, float interpolation, RectF bounds, Path path) {
+    float topLeft = shapeAppearanceModel.getTopLeftCorner().getCornerSize() * interpolation;
+    float topRight = shapeAppearanceModel.getTopRightCorner().getCornerSize() * interpolation;
+    float bottomRight =
+        shapeAppearanceModel.getBottomRightCorner().getCornerSize() * interpolation;
+    float bottomLeft = shapeAppearanceModel.getBottomLeftCorner().getCornerSize() * interpolation;
+
+    path.moveTo(bounds.right - topRight, bounds.top);
+    path.lineTo(bounds.right, bounds.top + topRight);
+    path.lineTo(bounds.right, bounds.bottom - bottomRight);
+    path.lineTo(bounds.right - bottomRight, bounds.bottom);
+    path.lineTo(bounds.left + bottomLeft, bounds.bottom);
+    path.lineTo(bounds.left, bounds.bottom - bottomLeft);
+    path.lineTo(bounds.left, bounds.top + topLeft);
+    path.lineTo(bounds.left + topLeft, bounds.top);
+    path.close();
+  }
+
+  /**
+   * Returns the number of times a path was served from the cache or from the template of an
+   * immutable model instead of being computed.
+   */
+  public int getPathCacheHitCount() {
+    return pathCacheHitCount;
+  }
+
+  /** Returns the number of times a path which could have been cached had to be computed. */
+  public int getPathCacheMissCount() {
+    return pathCacheMissCount;
+  }
+
+  /** Resets the path cache hit and miss counts. */
+  public void resetPathCacheCounts() {
+    pathCacheHitCount = 0;
+    pathCacheMissCount = 0;
+  }
+
+  @Nullable
+  private Path getCachedPath(
+      ShapeAppearanceModel shapeAppearanceModel, float interpolation, RectF bounds) {
+    for (CachedPath cachedPath : pathCache) {
+      if (cachedPath.matches(shapeAppearanceModel, interpolation, bounds)) {
+        return cachedPath.path;
+      }
+    }
+    return null;
+  }
+
+  private void putCachedPath(
+      ShapeAppearanceModel shapeAppearanceModel, float interpolation, RectF bounds, Path path) {
+    // Replace the oldest cached path.
+    pathCache[nextPathCacheIndex].set(shapeAppearanceModel, interpolation, bounds, path);
+    nextPathCacheIndex = (nextPathCacheIndex + 1) % PATH_CACHE_SIZE;
   }
 
   private void setCornerPathAndTransform(ShapeAppearancePathSpec spec, int index) {
@@ -239,18 +348,42 @@ public class ShapeAppearancePathProvider {
     return 90 * (index + 1 % 4);
   }
 
-  /** Necessary information to map a {@link ShapeAppearanceModel} into a Path. */
+  /** A path computed at the origin, along with the inputs it was computed from. */
+  private static final class CachedPath {
+
+    final Path path = new Path();
+    final ShapePathKey key = new ShapePathKey();
+
+    boolean matches(ShapeAppearanceModel shapeAppearanceModel, float interpolation, RectF bounds) {
+      return key.matches(shapeAppearanceModel, interpolation, bounds);
+    }
+
+    void set(
+        ShapeAppearanceModel shapeAppearanceModel,
+        float interpolation,
+        RectF bounds,
+        Path path) {
+      key.set(shapeAppearanceModel, interpolation, bounds);
+      this.path.set(path);
+      this.path.offset(-bounds.left, -bounds.top);
+    }
+  }
+
+  /**
+   * Necessary information to map a {@link ShapeAppearanceModel} into a Path. A single instance is
+   * re-used for every path computed by a provider.
+   */
   static final class ShapeAppearancePathSpec {
 
-    @NonNull public final ShapeAppearanceModel shapeAppearanceModel;
-    @NonNull public final Path path;
-    @NonNull public final RectF bounds;
+    public ShapeAppearanceModel shapeAppearanceModel;
+    public Path path;
+    public RectF bounds;
 
-    @Nullable public final PathListener pathListener;
+    @Nullable public PathListener pathListener;
 
-    public final float interpolation;
+    public float interpolation;
 
-    ShapeAppearancePathSpec(
+    void set(
         @NonNull ShapeAppearanceModel shapeAppearanceModel,
         float interpolation,
         RectF bounds,
@@ -262,5 +395,13 @@ public class ShapeAppearancePathProvider {
       this.bounds = bounds;
       this.path = path;
     }
+
+    /** Releases the references held for the last computed path. */
+    void clear() {
+      shapeAppearanceModel = null;
+      path = null;
+      bounds = null;
+      pathListener = null;
+    }
   }
 }
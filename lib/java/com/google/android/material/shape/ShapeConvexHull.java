@@ -0,0 +1,207 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import static com.google.android.material.shape.ShapePath.OPERATION_ARC;
+import static com.google.android.material.shape.ShapePath.OPERATION_CLOSE;
+import static com.google.android.material.shape.ShapePath.OPERATION_QUAD;
+import static com.google.android.material.shape.ShapePath.VALUES_PER_OPERATION;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+import com.google.android.material.shape.ShapePath.OperationList;
+
+/**
+ * Computes the convex hull of the path of a shape, which can be used as an outline for shapes that
+ * are concave, since outlines of views need to be convex.
+ *
+ * <p>Arcs are approximated by polygons which enclose them, so the hull always covers the shape.
+ */
+final class ShapeConvexHull {
+
+  /** Maximum angle, in degrees, covered by each segment of the polygon approximating an arc. */
+  private static final float MAX_ARC_SEGMENT_ANGLE = 15;
+
+  private static final int INITIAL_CAPACITY = 32;
+
+  private final ShapePathRecorder recorder = new ShapePathRecorder();
+  private final OperationList operations = new OperationList();
+
+  // Points of the shape, sorted before computing the hull, and the indices of the hull points.
+  private float[] xs = new float[INITIAL_CAPACITY];
+  private float[] ys = new float[INITIAL_CAPACITY];
+  private int[] hull = new int[INITIAL_CAPACITY * 2];
+  private int pointCount;
+
+  /**
+   * Computes the convex hull of the path of {@code shapeAppearanceModel} at the given interpolation
+   * and bounds into {@code hullPath}.
+   *
+   * @return false if the hull can't be computed, in which case {@code hullPath} is left untouched.
+   */
+  boolean calculateHull(
+      ShapeAppearancePathProvider pathProvider,
+      ShapeAppearanceModel shapeAppearanceModel,
+      float interpolation,
+      RectF bounds,
+      Path hullPath) {
+    if (!recorder.record(pathProvider, shapeAppearanceModel, interpolation, bounds, operations)) {
+      return false;
+    }
+    pointCount = 0;
+    addPoints(operations);
+    if (pointCount < 3) {
+      return false;
+    }
+    sortPoints();
+    int hullSize = computeHull();
+    if (hullSize < 3) {
+      return false;
+    }
+
+    hullPath.rewind();
+    hullPath.moveTo(xs[hull[0]], ys[hull[0]]);
+    for (int i = 1; i < hullSize; i++) {
+      hullPath.lineTo(xs[hull[i]], ys[hull[i]]);
+    }
+    hullPath.close();
+    return true;
+  }
+
+  private void addPoints(OperationList operations) {
+    float[] values = operations.values;
+    for (int i = 0; i < operations.size; i++) {
+      int offset = i * VALUES_PER_OPERATION;
+      switch (operations.types[i]) {
+        case OPERATION_CLOSE:
+          break;
+        case OPERATION_QUAD:
+          // The curve is contained in the triangle of its points, so the control point is enough.
+          addPoint(values[offset], values[offset + 1]);
+          addPoint(values[offset + 2], values[offset + 3]);
+          break;
+        case OPERATION_ARC:
+          addArcPoints(
+              values[offset],
+              values[offset + 1],
+              values[offset + 2],
+              values[offset + 3],
+              values[offset + 4],
+              values[offset + 5]);
+          break;
+        default:
+          // Moves and lines only have an end point.
+          addPoint(values[offset], values[offset + 1]);
+          break;
+      }
+    }
+  }
+
+  /**
+   * Adds the points of a polygon enclosing an arc. The polygon is made of the tangents to the arc
+   * at evenly spaced angles, so its corners lie slightly outside of the arc.
+   */
+  private void addArcPoints(
+      float left, float top, float right, float bottom, float startAngle, float sweepAngle) {
+    float centerX = (left + right) / 2;
+    float centerY = (top + bottom) / 2;
+    float radiusX = (right - left) / 2;
+    float radiusY = (bottom - top) / 2;
+    int segments = Math.max(1, (int) Math.ceil(Math.abs(sweepAngle) / MAX_ARC_SEGMENT_ANGLE));
+    float segmentAngle = sweepAngle / segments;
+    float cornerScale = 1 / (float) Math.cos(Math.toRadians(segmentAngle / 2));
+
+    addEllipsePoint(centerX, centerY, radiusX, radiusY, startAngle);
+    for (int i = 0; i < segments; i++) {
+      float angle = startAngle + (i + 0.5f) * segmentAngle;
+      addEllipsePoint(centerX, centerY, radiusX * cornerScale, radiusY * cornerScale, angle);
+    }
+    addEllipsePoint(centerX, centerY, radiusX, radiusY, startAngle + sweepAngle);
+  }
+
+  private void addEllipsePoint(
+      float centerX, float centerY, float radiusX, float radiusY, float angle) {
+    double radians = Math.toRadians(angle);
+    addPoint(
+        centerX + radiusX * (float) Math.cos(radians),
+        centerY + radiusY * (float) Math.sin(radians));
+  }
+
+  private void addPoint(float x, float y) {
+    if (pointCount == xs.length) {
+      int newCapacity = xs.length * 2;
+      float[] newXs = new float[newCapacity];
+      float[] newYs = new float[newCapacity];
+      System.arraycopy(xs, 0, newXs, 0, pointCount);
+      System.arraycopy(ys, 0, newYs, 0, pointCount);
+      xs = newXs;
+      ys = newYs;
+      hull = new int[newCapacity * 2];
+    }
+    xs[pointCount] = x;
+    ys[pointCount] = y;
+    pointCount++;
+  }
+
+  /** Sorts the points by x, then y. Shapes only have a few dozen points to sort. */
+  private void sortPoints() {
+    for (int i = 1; i < pointCount; i++) {
+      float x = xs[i];
+      float y = ys[i];
+      int j = i - 1;
+      while (j >= 0 && (xs[j] > x || (xs[j] == x && ys[j] > y))) {
+        xs[j + 1] = xs[j];
+        ys[j + 1] = ys[j];
+        j--;
+      }
+      xs[j + 1] = x;
+      ys[j + 1] = y;
+    }
+  }
+
+  /**
+   * Computes the hull of the sorted points with Andrew's monotone chain algorithm, storing the
+   * indices of its points in order.
+   *
+   * @return the number of points in the hull.
+   */
+  private int computeHull() {
+    int size = 0;
+    // Lower hull.
+    for (int i = 0; i < pointCount; i++) {
+      while (size >= 2 && cross(hull[size - 2], hull[size - 1], i) <= 0) {
+        size--;
+      }
+      hull[size++] = i;
+    }
+    // Upper hull.
+    int lowerSize = size + 1;
+    for (int i = pointCount - 2; i >= 0; i--) {
+      while (size >= lowerSize && cross(hull[size - 2], hull[size - 1], i) <= 0) {
+        size--;
+      }
+      hull[size++] = i;
+    }
+    // The last point is the same as the first one.
+    return size - 1;
+  }
+
+  /** Returns the cross product of the vectors from point o to points a and b. */
+  private float cross(int o, int a, int b) {
+    return (xs[a] - xs[o]) * (ys[b] - ys[o]) - (ys[a] - ys[o]) * (xs[b] - xs[o]);
+  }
+}
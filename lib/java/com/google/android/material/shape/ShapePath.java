@@ -21,8 +21,6 @@ import android.graphics.Matrix;
 import android.graphics.Path;
 import android.graphics.RectF;
 import com.google.android.material.shadow.ShadowRenderer;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Represents the descriptive path of a shape. Path segments are stored in sequence so that
@@ -34,6 +32,18 @@ public class ShapePath {
   private static final float ANGLE_UP = 270;
   protected static final float ANGLE_LEFT = 180;
 
+  static final int OPERATION_LINE = 0;
+  static final int OPERATION_QUAD = 1;
+  static final int OPERATION_ARC = 2;
+  static final int OPERATION_MOVE = 3;
+  static final int OPERATION_CLOSE = 4;
+
+  /** Number of values stored for each path and shadow operation. */
+  static final int VALUES_PER_OPERATION = 6;
+
+  /** Number of operations which can be stored before the arrays need to grow. */
+  private static final int INITIAL_CAPACITY = 4;
+
   public float startX;
   public float startY;
   public float endX;
@@ -41,8 +51,17 @@ public class ShapePath {
   public float currentShadowAngle;
   public float endShadowAngle;
 
-  private final List<PathOperation> operations = new ArrayList<>();
-  private final List<ShadowCompatOperation> shadowCompatOperations = new ArrayList<>();
+  // Path and shadow operations are stored in flat arrays which are re-used every time the path is
+  // reset, so rebuilding a path doesn't allocate. Each operation is stored as a type and
+  // VALUES_PER_OPERATION values:
+  // line: x, y
+  // quad: controlX, controlY, endX, endY
+  // arc: left, top, right, bottom, startAngle, sweepAngle
+  // move: x, y
+  // close: no values
+  // Line shadow operations store startX, startY, endX, endY instead.
+  private final OperationList operations = new OperationList();
+  private final OperationList shadowCompatOperations = new OperationList();
 
   public ShapePath() {
     reset(0, 0);
@@ -74,18 +93,13 @@ public class ShapePath {
    * @param y the y to which the line should be drawn.
    */
   public void lineTo(float x, float y) {
-    PathLineOperation operation = new PathLineOperation();
-    operation.x = x;
-    operation.y = y;
-    operations.add(operation);
-
-    LineShadowOperation shadowOperation = new LineShadowOperation(operation, endX, endY);
+    operations.add(OPERATION_LINE, x, y, 0, 0, 0, 0);
 
     // The previous endX and endY is the starting point for this shadow operation.
-    addShadowCompatOperation(
-        shadowOperation,
-        ANGLE_UP + shadowOperation.getAngle(),
-        ANGLE_UP + shadowOperation.getAngle());
+    float shadowAngle = ANGLE_UP + getLineAngle(endX, endY, x, y);
+    addConnectingShadowIfNecessary(shadowAngle);
+    shadowCompatOperations.add(OPERATION_LINE, endX, endY, x, y, 0, 0);
+    currentShadowAngle = shadowAngle;
 
     endX = x;
     endY = y;
@@ -100,12 +114,7 @@ public class ShapePath {
    * @param toY the end y of the arc.
    */
   public void quadToPoint(float controlX, float controlY, float toX, float toY) {
-    PathQuadOperation operation = new PathQuadOperation();
-    operation.controlX = controlX;
-    operation.controlY = controlY;
-    operation.endX = toX;
-    operation.endY = toY;
-    operations.add(operation);
+    operations.add(OPERATION_QUAD, controlX, controlY, toX, toY, 0, 0);
 
     endX = toX;
     endY = toY;
@@ -123,21 +132,17 @@ public class ShapePath {
    */
   public void addArc(float left, float top, float right, float bottom, float startAngle,
       float sweepAngle) {
-    PathArcOperation operation = new PathArcOperation(left, top, right, bottom);
-    operation.startAngle = startAngle;
-    operation.sweepAngle = sweepAngle;
-    operations.add(operation);
+    operations.add(OPERATION_ARC, left, top, right, bottom, startAngle, sweepAngle);
 
-    ArcShadowOperation arcShadowOperation = new ArcShadowOperation(operation);
     float endAngle = startAngle + sweepAngle;
     // Flip the startAngle and endAngle when drawing the shadow inside the bounds. They represent
     // the angles from the center of the circle to the start or end of the arc, respectively. When
     // the shadow is drawn inside the arc, it is going the opposite direction.
     boolean drawShadowInsideBounds = sweepAngle < 0;
-    addShadowCompatOperation(
-        arcShadowOperation,
-        drawShadowInsideBounds ? (180 + startAngle) % 360 : startAngle,
-        drawShadowInsideBounds ? (180 + endAngle) % 360 : endAngle);
+    addConnectingShadowIfNecessary(
+        drawShadowInsideBounds ? (180 + startAngle) % 360 : startAngle);
+    shadowCompatOperations.add(OPERATION_ARC, left, top, right, bottom, startAngle, sweepAngle);
+    currentShadowAngle = drawShadowInsideBounds ? (180 + endAngle) % 360 : endAngle;
 
     endX = (left + right) * 0.5f
         + (right - left) / 2 * (float) Math.cos(Math.toRadians(startAngle + sweepAngle));
@@ -152,45 +157,91 @@ public class ShapePath {
    * @param path the path to which this ShapePath is applied
    */
   public void applyToPath(Matrix transform, Path path) {
-    for (int i = 0, size = operations.size(); i < size; i++) {
-      PathOperation operation = operations.get(i);
-      operation.applyToPath(transform, path);
+    if (operations.size == 0) {
+      return;
     }
+    // Operations are in the coordinates of this ShapePath, so move the path into those
+    // coordinates while they are applied.
+    Matrix inverse = operations.matrix;
+    transform.invert(inverse);
+    path.transform(inverse);
+    operations.applyToPath(path);
+    path.transform(transform);
   }
 
   /**
-   * Creates a ShadowCompatOperation to draw compatibility shadow under the matrix transform for the
-   * whole path defined by this ShapePath.
+   * Appends the operations of this ShapePath to {@code out}, with their coordinates mapped by
+   * {@code transform}. Arcs can only be mapped by transforms which keep rects as rects without
+   * mirroring them, such as translations and rotations by multiples of 90 degrees.
+   *
+   * @return false if {@code transform} can't be applied to the operations.
    */
-  ShadowCompatOperation createShadowCompatOperation(final Matrix transform) {
-    // If the shadowCompatOperations don't end on the desired endShadowAngle, add an arc to do so.
-    addConnectingShadowIfNecessary(endShadowAngle);
-    final List<ShadowCompatOperation> operations = new ArrayList<>(shadowCompatOperations);
-    return new ShadowCompatOperation() {
-      @Override
-      public void draw(
-          Matrix matrix, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
-        for (ShadowCompatOperation op : operations) {
-          op.draw(transform, shadowRenderer, shadowElevation, canvas);
-        }
+  boolean appendMappedOperations(Matrix transform, OperationList out) {
+    float[] values = operations.values;
+    float[] point = operations.point;
+    for (int i = 0; i < operations.size; i++) {
+      int offset = i * VALUES_PER_OPERATION;
+      switch (operations.types[i]) {
+        case OPERATION_LINE:
+          point[0] = values[offset];
+          point[1] = values[offset + 1];
+          transform.mapPoints(point);
+          out.add(OPERATION_LINE, point[0], point[1], 0, 0, 0, 0);
+          break;
+        case OPERATION_QUAD:
+          point[0] = values[offset];
+          point[1] = values[offset + 1];
+          point[2] = values[offset + 2];
+          point[3] = values[offset + 3];
+          transform.mapPoints(point);
+          out.add(OPERATION_QUAD, point[0], point[1], point[2], point[3], 0, 0);
+          break;
+        case OPERATION_ARC:
+          if (!transform.rectStaysRect()) {
+            return false;
+          }
+          transform.getValues(operations.matrixValues);
+          float[] m = operations.matrixValues;
+          if (m[Matrix.MSCALE_X] * m[Matrix.MSCALE_Y] - m[Matrix.MSKEW_X] * m[Matrix.MSKEW_Y] < 0) {
+            // Mirrored arcs sweep the other way.
+            return false;
+          }
+          float rotation =
+              (float) Math.toDegrees(Math.atan2(m[Matrix.MSKEW_Y], m[Matrix.MSCALE_X]));
+          RectF rect = operations.rect;
+          rect.set(values[offset], values[offset + 1], values[offset + 2], values[offset + 3]);
+          transform.mapRect(rect);
+          out.add(
+              OPERATION_ARC,
+              rect.left,
+              rect.top,
+              rect.right,
+              rect.bottom,
+              values[offset + 4] + rotation,
+              values[offset + 5]);
+          break;
+        default:
+          throw new IllegalStateException("Unknown operation " + operations.types[i]);
       }
-    };
+    }
+    return true;
   }
 
   /**
-   * Adds a {@link ShadowCompatOperation}, adding an {@link ArcShadowOperation} if needed in order
-   * to connect the previous shadow end to the new shadow operation's beginning.
+   * Sets {@code shadowOperation} to draw compatibility shadow under the matrix transform for the
+   * whole path defined by this ShapePath. The operation keeps a copy of the shadow, so this
+   * ShapePath can be reset afterwards.
    */
-  private void addShadowCompatOperation(
-      ShadowCompatOperation shadowOperation, float startShadowAngle, float endShadowAngle) {
-    addConnectingShadowIfNecessary(startShadowAngle);
-    shadowCompatOperations.add(shadowOperation);
-    currentShadowAngle = endShadowAngle;
+  void fillShadowCompatOperation(Matrix transform, PathShadowOperation shadowOperation) {
+    // If the shadowCompatOperations don't end on the desired endShadowAngle, add an arc to do so.
+    addConnectingShadowIfNecessary(endShadowAngle);
+    shadowOperation.transform.set(transform);
+    shadowOperation.operations.set(shadowCompatOperations);
   }
 
   /**
-   * Create an {@link ArcShadowOperation} to fill in a shadow between the currently drawn shadow and
-   * the next shadow angle, if there would be a gap.
+   * Create an arc shadow operation to fill in a shadow between the currently drawn shadow and the
+   * next shadow angle, if there would be a gap.
    */
   private void addConnectingShadowIfNecessary(float nextShadowAngle) {
     if (currentShadowAngle == nextShadowAngle) {
@@ -202,13 +253,94 @@ public class ShapePath {
       // Shadows are actually overlapping, so don't draw anything.
       return;
     }
-    PathArcOperation pathArcOperation = new PathArcOperation(endX, endY, endX, endY);
-    pathArcOperation.startAngle = currentShadowAngle;
-    pathArcOperation.sweepAngle = shadowSweep;
-    shadowCompatOperations.add(new ArcShadowOperation(pathArcOperation));
+    shadowCompatOperations.add(
+        OPERATION_ARC, endX, endY, endX, endY, currentShadowAngle, shadowSweep);
     currentShadowAngle = nextShadowAngle;
   }
 
+  private static float getLineAngle(float startX, float startY, float endX, float endY) {
+    return (float) Math.toDegrees(Math.atan((endY - startY) / (endX - startX)));
+  }
+
+  /** A growable list of operations stored as types and values. */
+  static final class OperationList {
+
+    int[] types = new int[INITIAL_CAPACITY];
+    float[] values = new float[INITIAL_CAPACITY * VALUES_PER_OPERATION];
+    int size;
+
+    // Pre-allocated objects that are re-used every time the operations are applied or drawn.
+    final Matrix matrix = new Matrix();
+    final RectF rect = new RectF();
+    final float[] point = new float[4];
+    final float[] matrixValues = new float[9];
+
+    void add(int type, float v0, float v1, float v2, float v3, float v4, float v5) {
+      ensureCapacity(size + 1);
+      types[size] = type;
+      int offset = size * VALUES_PER_OPERATION;
+      values[offset] = v0;
+      values[offset + 1] = v1;
+      values[offset + 2] = v2;
+      values[offset + 3] = v3;
+      values[offset + 4] = v4;
+      values[offset + 5] = v5;
+      size++;
+    }
+
+    void set(OperationList other) {
+      ensureCapacity(other.size);
+      System.arraycopy(other.types, 0, types, 0, other.size);
+      System.arraycopy(other.values, 0, values, 0, other.size * VALUES_PER_OPERATION);
+      size = other.size;
+    }
+
+    void clear() {
+      size = 0;
+    }
+
+    /** Appends the operations to {@code path}, in their own coordinates. */
+    void applyToPath(Path path) {
+      for (int i = 0; i < size; i++) {
+        int offset = i * VALUES_PER_OPERATION;
+        switch (types[i]) {
+          case OPERATION_MOVE:
+            path.moveTo(values[offset], values[offset + 1]);
+            break;
+          case OPERATION_LINE:
+            path.lineTo(values[offset], values[offset + 1]);
+            break;
+          case OPERATION_QUAD:
+            path.quadTo(
+                values[offset], values[offset + 1], values[offset + 2], values[offset + 3]);
+            break;
+          case OPERATION_ARC:
+            rect.set(values[offset], values[offset + 1], values[offset + 2], values[offset + 3]);
+            path.arcTo(rect, values[offset + 4], values[offset + 5], false);
+            break;
+          case OPERATION_CLOSE:
+            path.close();
+            break;
+          default:
+            throw new IllegalStateException("Unknown operation " + types[i]);
+        }
+      }
+    }
+
+    private void ensureCapacity(int capacity) {
+      if (capacity <= types.length) {
+        return;
+      }
+      int newCapacity = Math.max(capacity, types.length * 2);
+      int[] newTypes = new int[newCapacity];
+      System.arraycopy(types, 0, newTypes, 0, size);
+      types = newTypes;
+      float[] newValues = new float[newCapacity * VALUES_PER_OPERATION];
+      System.arraycopy(values, 0, newValues, 0, size * VALUES_PER_OPERATION);
+      values = newValues;
+    }
+  }
+
   /**
    * Interface to hold operations that will draw a compatible shadow in the case that native shadows
    * can't be rendered.
@@ -227,54 +359,40 @@ public class ShapePath {
         Matrix transform, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas);
   }
 
-  /** Sets up the correct shadow to be drawn for a line. */
-  static class LineShadowOperation extends ShadowCompatOperation {
-
-    private final PathLineOperation operation;
-    private final float startX;
-    private final float startY;
-
-    public LineShadowOperation(PathLineOperation operation, float startX, float startY) {
-      this.operation = operation;
-      this.startX = startX;
-      this.startY = startY;
-    }
-
-    @Override
-    public void draw(
-        Matrix transform, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
-      final float height = operation.y - startY;
-      final float width = operation.x - startX;
-      final RectF rect = new RectF(0, 0, (float) Math.hypot(height, width), 0);
-      final Matrix edgeTransform = new Matrix(transform);
-      // transform & rotate the canvas so that the rect passed to drawEdgeShadow is horizontal.
-      edgeTransform.preTranslate(startX, startY);
-      edgeTransform.preRotate(getAngle());
-      shadowRenderer.drawEdgeShadow(canvas, edgeTransform, rect, shadowElevation);
-    }
-
-    float getAngle() {
-      return (float) Math.toDegrees(Math.atan((operation.y - startY) / (operation.x - startX)));
-    }
-  }
-
-  /** Sets up the shadow to be drawn for an arc. */
-  static class ArcShadowOperation extends ShadowCompatOperation {
-
-    private final PathArcOperation operation;
+  /**
+   * Draws the shadow of a whole ShapePath. Instances can be re-used with {@link
+   * #fillShadowCompatOperation(Matrix, PathShadowOperation)} every time the path changes.
+   */
+  static final class PathShadowOperation extends ShadowCompatOperation {
 
-    public ArcShadowOperation(PathArcOperation operation) {
-      this.operation = operation;
-    }
+    private final Matrix transform = new Matrix();
+    private final OperationList operations = new OperationList();
 
     @Override
     public void draw(
-        Matrix transform, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
-      float startAngle = operation.startAngle;
-      float sweepAngle = operation.sweepAngle;
-      RectF rect = new RectF(operation.left, operation.top, operation.right, operation.bottom);
-      shadowRenderer.drawCornerShadow(
-          canvas, transform, rect, shadowElevation, startAngle, sweepAngle);
+        Matrix matrix, ShadowRenderer shadowRenderer, int shadowElevation, Canvas canvas) {
+      float[] values = operations.values;
+      RectF rect = operations.rect;
+      for (int i = 0; i < operations.size; i++) {
+        int offset = i * VALUES_PER_OPERATION;
+        if (operations.types[i] == OPERATION_LINE) {
+          float startX = values[offset];
+          float startY = values[offset + 1];
+          float endX = values[offset + 2];
+          float endY = values[offset + 3];
+          rect.set(0, 0, (float) Math.hypot(endY - startY, endX - startX), 0);
+          // transform & rotate the canvas so that the rect passed to drawEdgeShadow is horizontal.
+          Matrix edgeTransform = operations.matrix;
+          edgeTransform.set(transform);
+          edgeTransform.preTranslate(startX, startY);
+          edgeTransform.preRotate(getLineAngle(startX, startY, endX, endY));
+          shadowRenderer.drawEdgeShadow(canvas, edgeTransform, rect, shadowElevation);
+        } else {
+          rect.set(values[offset], values[offset + 1], values[offset + 2], values[offset + 3]);
+          shadowRenderer.drawCornerShadow(
+              canvas, transform, rect, shadowElevation, values[offset + 4], values[offset + 5]);
+        }
+      }
     }
   }
 
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import android.graphics.RectF;
+import androidx.annotation.Nullable;
+
+/**
+ * Identifies the inputs a path was computed from, so that the path can be re-used until they
+ * change.
+ *
+ * <p>Models are matched by identity and change count. Corner sizes are compared as well since
+ * corner treatments can be resized without notifying the model. Only models made of library
+ * treatments should be keyed this way, since other treatments may hold state the model can't see.
+ */
+final class ShapePathKey {
+
+  @Nullable private ShapeAppearanceModel shapeAppearanceModel;
+  private int changeCount;
+  private float interpolation;
+  private float width;
+  private float height;
+  private float topLeftCornerSize;
+  private float topRightCornerSize;
+  private float bottomRightCornerSize;
+  private float bottomLeftCornerSize;
+
+  boolean matches(ShapeAppearanceModel shapeAppearanceModel, float interpolation, RectF bounds) {
+    return this.shapeAppearanceModel == shapeAppearanceModel
+        && changeCount == shapeAppearanceModel.getChangeCount()
+        && this.interpolation == interpolation
+        && width == bounds.width()
+        && height == bounds.height()
+        && topLeftCornerSize == shapeAppearanceModel.getTopLeftCorner().getCornerSize()
+        && topRightCornerSize == shapeAppearanceModel.getTopRightCorner().getCornerSize()
+        && bottomRightCornerSize == shapeAppearanceModel.getBottomRightCorner().getCornerSize()
+        && bottomLeftCornerSize == shapeAppearanceModel.getBottomLeftCorner().getCornerSize();
+  }
+
+  void set(ShapeAppearanceModel shapeAppearanceModel, float interpolation, RectF bounds) {
+    this.shapeAppearanceModel = shapeAppearanceModel;
+    changeCount = shapeAppearanceModel.getChangeCount();
+    this.interpolation = interpolation;
+    width = bounds.width();
+    height = bounds.height();
+    topLeftCornerSize = shapeAppearanceModel.getTopLeftCorner().getCornerSize();
+    topRightCornerSize = shapeAppearanceModel.getTopRightCorner().getCornerSize();
+    bottomRightCornerSize = shapeAppearanceModel.getBottomRightCorner().getCornerSize();
+    bottomLeftCornerSize = shapeAppearanceModel.getBottomLeftCorner().getCornerSize();
+  }
+
+  /** Releases the model, so that the key doesn't match any model until it is set again. */
+  void clear() {
+    shapeAppearanceModel = null;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import static com.google.android.material.shape.ShapePath.OPERATION_CLOSE;
+import static com.google.android.material.shape.ShapePath.OPERATION_LINE;
+import static com.google.android.material.shape.ShapePath.OPERATION_MOVE;
+
+import android.graphics.Matrix;
+import android.graphics.Path;
+import android.graphics.RectF;
+import androidx.annotation.Nullable;
+import com.google.android.material.shape.ShapeAppearancePathProvider.PathListener;
+import com.google.android.material.shape.ShapePath.OperationList;
+
+/**
+ * Records the path of a shape as a list of operations in the coordinates of its bounds, instead of
+ * as a {@link Path}, so that its points can be read back.
+ */
+final class ShapePathRecorder implements PathListener {
+
+  // Pre-allocated objects that are re-used every time a path is recorded.
+  private final Path scratchPath = new Path();
+  private final float[] point = new float[2];
+  @Nullable private OperationList recording;
+  private boolean recordingValid;
+
+  /**
+   * Records the path of {@code shapeAppearanceModel} at the given interpolation and bounds into
+   * {@code operations}.
+   *
+   * @return false if the path can't be recorded, because a treatment was transformed in a way
+   *     which can't be applied to its operations.
+   */
+  boolean record(
+      ShapeAppearancePathProvider pathProvider,
+      ShapeAppearanceModel shapeAppearanceModel,
+      float interpolation,
+      RectF bounds,
+      OperationList operations) {
+    operations.clear();
+    recording = operations;
+    recordingValid = true;
+    pathProvider.calculatePath(shapeAppearanceModel, interpolation, bounds, this, scratchPath);
+    operations.add(OPERATION_CLOSE, 0, 0, 0, 0, 0, 0);
+    recording = null;
+    return recordingValid;
+  }
+
+  @Override
+  public void onCornerPathCreated(ShapePath cornerPath, Matrix transform, int count) {
+    // Corners are connected to the previous edge, or start the path.
+    point[0] = cornerPath.startX;
+    point[1] = cornerPath.startY;
+    transform.mapPoints(point);
+    recording.add(count == 0 ? OPERATION_MOVE : OPERATION_LINE, point[0], point[1], 0, 0, 0, 0);
+    recordingValid &= cornerPath.appendMappedOperations(transform, recording);
+  }
+
+  @Override
+  public void onEdgePathCreated(ShapePath edgePath, Matrix transform, int count) {
+    recordingValid &= edgePath.appendMappedOperations(transform, recording);
+  }
+}
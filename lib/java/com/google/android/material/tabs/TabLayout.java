@@ -37,6 +37,7 @@ import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.PorterDuff;
 import android.graphics.RectF;
+import android.graphics.Typeface;
 import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.GradientDrawable;
@@ -57,6 +58,7 @@ import androidx.annotation.Nullable;
 import androidx.annotation.RequiresApi;
 import androidx.annotation.RestrictTo;
 import androidx.annotation.StringRes;
+import androidx.annotation.VisibleForTesting;
 import com.google.android.material.animation.AnimationUtils;
 import com.google.android.material.badge.BadgeDrawable;
 import com.google.android.material.badge.BadgeUtils;
@@ -75,8 +77,12 @@ import androidx.appcompat.app.ActionBar;
 import androidx.appcompat.content.res.AppCompatResources;
 import androidx.appcompat.widget.TooltipCompat;
 import android.text.Layout;
+import android.text.Spanned;
+import android.text.TextPaint;
 import android.text.TextUtils;
+import android.text.method.TransformationMethod;
 import android.util.AttributeSet;
+import android.util.LruCache;
 import android.util.TypedValue;
 import android.view.Gravity;
 import android.view.LayoutInflater;
@@ -195,6 +201,9 @@ public class TabLayout extends HorizontalScrollView {
 
   private static final int ANIMATION_DURATION = 300;
 
+  // Maximum number of tab titles whose single line width is cached.
+  private static final int TAB_TEXT_WIDTH_CACHE_SIZE = 256;
+
   private static final Pools.Pool<Tab> tabPool = new Pools.SynchronizedPool<>(16);
 
   /**
@@ -438,6 +447,9 @@ public class TabLayout extends HorizontalScrollView {
       selectedListenerMap = new HashMap<>();
 
   private ValueAnimator scrollAnimator;
+  // Bounds of the running scroll animation, which animates a fraction between them.
+  private int scrollAnimationStartX;
+  private int scrollAnimationTargetX;
 
   ViewPager viewPager;
   private PagerAdapter pagerAdapter;
@@ -449,6 +461,17 @@ public class TabLayout extends HorizontalScrollView {
   // Pool we use as a simple RecyclerBin
   private final Pools.Pool<TabView> tabViewPool = new Pools.SimplePool<>(12);
 
+  private boolean tabViewVirtualizationEnabled;
+  // Tab view which measures tabs that don't have a view when tab views are virtualized.
+  @Nullable private TabView measuringTabView;
+
+  // Widths of plain tab titles at the single line text size, which decide whether a tab uses the
+  // multi line text size without measuring the tab twice. Only valid for tabTextWidthTypeface.
+  private final LruCache<String, Float> tabTextWidthCache =
+      new LruCache<>(TAB_TEXT_WIDTH_CACHE_SIZE);
+  private final TextPaint tabTextWidthPaint = new TextPaint();
+  @Nullable private Typeface tabTextWidthTypeface;
+
   public TabLayout(Context context) {
     this(context, null);
   }
@@ -851,7 +874,8 @@ public class TabLayout extends HorizontalScrollView {
   public Tab newTab() {
     Tab tab = createTabFromPool();
     tab.parent = this;
-    tab.view = createTabView(tab);
+    // Virtualized tabs get a view once they are added within the visible part of the layout
+    tab.view = isVirtualizingTabViews() ? null : createTabView(tab);
     return tab;
   }
 
@@ -928,11 +952,65 @@ public class TabLayout extends HorizontalScrollView {
       tabs.get(i).setPosition(i);
     }
 
+    releaseMeasuringTabView();
+
     if (selectedTabPosition == position) {
       selectTab(tabs.isEmpty() ? null : tabs.get(Math.max(0, position - 1)));
     }
   }
 
+  /**
+   * Removes {@code count} tabs starting at {@code position}. Unlike {@link #removeTabAt(int)}, no
+   * other tab is selected if the selected tab is removed, so that the caller can select the right
+   * one.
+   */
+  void removeTabs(int position, int count) {
+    for (int i = position + count - 1; i >= position; i--) {
+      removeTabViewAt(i);
+      final Tab removedTab = tabs.remove(i);
+      if (removedTab == selectedTab) {
+        selectedTab = null;
+      }
+      removedTab.reset();
+      releaseFromTabPool(removedTab);
+    }
+    releaseMeasuringTabView();
+
+    final int newTabCount = tabs.size();
+    for (int i = position; i < newTabCount; i++) {
+      tabs.get(i).setPosition(i);
+    }
+    updateIndicatorForSelectedTab();
+  }
+
+  /** Moves the tab at {@code fromPosition}, along with its view, to {@code toPosition}. */
+  void moveTab(int fromPosition, int toPosition) {
+    if (fromPosition == toPosition) {
+      return;
+    }
+    final Tab tab = tabs.remove(fromPosition);
+    tabs.add(toPosition, tab);
+    final View tabView = slidingTabIndicator.getChildAt(fromPosition);
+    slidingTabIndicator.removeViewAt(fromPosition);
+    slidingTabIndicator.addView(tabView, toPosition);
+
+    final int end = Math.max(fromPosition, toPosition);
+    for (int i = Math.min(fromPosition, toPosition); i <= end; i++) {
+      tabs.get(i).setPosition(i);
+    }
+    updateIndicatorForSelectedTab();
+  }
+
+  /**
+   * Moves the indicator to the selected tab after tabs were added, removed or moved before it,
+   * without scrolling. The indicator bounds are updated once the tabs have been laid out again.
+   */
+  void updateIndicatorForSelectedTab() {
+    if (selectedTab != null && selectedTab.getPosition() != slidingTabIndicator.selectedPosition) {
+      slidingTabIndicator.setIndicatorPositionFromTabPosition(selectedTab.getPosition(), 0f);
+    }
+  }
+
   /** Remove all tabs from the action bar and deselect the current tab. */
   public void removeAllTabs() {
     // Remove all the views
@@ -946,6 +1024,7 @@ public class TabLayout extends HorizontalScrollView {
       tab.reset();
       releaseFromTabPool(tab);
     }
+    releaseMeasuringTabView();
 
     selectedTab = null;
   }
@@ -969,6 +1048,9 @@ public class TabLayout extends HorizontalScrollView {
     if (mode != this.mode) {
       this.mode = mode;
       applyModeAndGravity();
+      if (!isVirtualizingTabViews()) {
+        materializeAllTabViews();
+      }
     }
   }
 
@@ -995,6 +1077,42 @@ public class TabLayout extends HorizontalScrollView {
     }
   }
 
+  /**
+   * Sets whether tab views are only created for the tabs in and around the visible part of this
+   * TabLayout when it is in {@link #MODE_SCROLLABLE}. The other tabs only take up the space of
+   * their tab view, and their views are recycled as this TabLayout scrolls. This saves inflating,
+   * laying out and keeping alive a view for every tab of a TabLayout with many tabs.
+   *
+   * <p>While tab views are virtualized, {@link Tab#view} is null for tabs which don't have a view.
+   * The selected tab and tabs with a badge or a custom view always have one.
+   *
+   * @param enabled whether tab views are virtualized in {@link #MODE_SCROLLABLE}.
+   * @see #isTabViewVirtualizationEnabled()
+   */
+  public void setTabViewVirtualizationEnabled(boolean enabled) {
+    if (tabViewVirtualizationEnabled != enabled) {
+      tabViewVirtualizationEnabled = enabled;
+      if (isVirtualizingTabViews()) {
+        requestLayout();
+      } else {
+        materializeAllTabViews();
+      }
+    }
+  }
+
+  /**
+   * Returns whether tab views are virtualized in {@link #MODE_SCROLLABLE}.
+   *
+   * @see #setTabViewVirtualizationEnabled(boolean)
+   */
+  public boolean isTabViewVirtualizationEnabled() {
+    return tabViewVirtualizationEnabled;
+  }
+
+  boolean isVirtualizingTabViews() {
+    return tabViewVirtualizationEnabled && mode == MODE_SCROLLABLE;
+  }
+
   /**
    * The current gravity used for laying out tabs.
    *
@@ -1517,7 +1635,10 @@ public class TabLayout extends HorizontalScrollView {
   }
 
   private void addTabView(Tab tab) {
-    final TabView tabView = tab.view;
+    if (tab.view == null && (!isVirtualizingTabViews() || isTabViewPinned(tab))) {
+      tab.view = createTabView(tab);
+    }
+    final View tabView = tab.view != null ? tab.view : getPlaceholderView(tab);
     tabView.setSelected(false);
     tabView.setActivated(false);
     slidingTabIndicator.addView(tabView, tab.getPosition(), createLayoutParamsForTabs());
@@ -1660,15 +1781,116 @@ public class TabLayout extends HorizontalScrollView {
   }
 
   private void removeTabViewAt(int position) {
-    final TabView view = (TabView) slidingTabIndicator.getChildAt(position);
+    final View view = slidingTabIndicator.getChildAt(position);
     slidingTabIndicator.removeViewAt(position);
-    if (view != null) {
-      view.reset();
-      tabViewPool.release(view);
+    if (view instanceof TabView) {
+      ((TabView) view).reset();
+      tabViewPool.release((TabView) view);
     }
     requestLayout();
   }
 
+  /** Returns whether {@code tab} needs a view even if it is outside of the visible window. */
+  private boolean isTabViewPinned(Tab tab) {
+    return tab == selectedTab
+        || tab.getCustomView() != null
+        || (tab.view != null && tab.view.hasBadgeDrawable());
+  }
+
+  private TabPlaceholderView getPlaceholderView(Tab tab) {
+    if (tab.placeholderView == null) {
+      tab.placeholderView = new TabPlaceholderView(getContext(), tab);
+    }
+    return tab.placeholderView;
+  }
+
+  /** Creates the view of a virtualized tab, replacing its placeholder if it has been added. */
+  void materializeTabView(Tab tab) {
+    if (tab.view != null) {
+      return;
+    }
+    tab.view = createTabView(tab);
+    final int position = tab.getPosition();
+    final View placeholderView = slidingTabIndicator.getChildAt(position);
+    if (placeholderView != null && placeholderView == tab.placeholderView) {
+      final ViewGroup.LayoutParams lp = placeholderView.getLayoutParams();
+      slidingTabIndicator.removeViewAt(position);
+      tab.view.setSelected(tab == selectedTab);
+      tab.view.setActivated(tab == selectedTab);
+      slidingTabIndicator.addView(tab.view, position, lp);
+    }
+  }
+
+  private void materializeAllTabViews() {
+    for (int i = 0, count = tabs.size(); i < count; i++) {
+      materializeTabView(tabs.get(i));
+    }
+  }
+
+  /**
+   * Returns the width of {@code text} in {@code textView} at the single line text size, including
+   * any transformation such as all caps.
+   */
+  private float getSingleLineTextWidth(TextView textView, CharSequence text) {
+    if (text instanceof Spanned) {
+      // Spans may change the width of the text, so only plain text is cached by its string.
+      return measureSingleLineTextWidth(textView, text);
+    }
+    if (textView.getTypeface() != tabTextWidthTypeface) {
+      tabTextWidthCache.evictAll();
+      tabTextWidthTypeface = textView.getTypeface();
+    }
+    final String key = text.toString();
+    Float width = tabTextWidthCache.get(key);
+    if (width == null) {
+      width = measureSingleLineTextWidth(textView, text);
+      tabTextWidthCache.put(key, width);
+    }
+    return width;
+  }
+
+  private float measureSingleLineTextWidth(TextView textView, CharSequence text) {
+    final TransformationMethod transformation = textView.getTransformationMethod();
+    final CharSequence displayedText =
+        transformation != null ? transformation.getTransformation(text, textView) : text;
+    tabTextWidthPaint.set(textView.getPaint());
+    tabTextWidthPaint.setTextSize(tabTextSize);
+    return Layout.getDesiredWidth(displayedText, tabTextWidthPaint);
+  }
+
+  /** Returns a detached tab view bound to {@code tab}, which can measure the tab. */
+  private TabView getMeasuringTabView(Tab tab) {
+    if (measuringTabView == null) {
+      measuringTabView = new TabView(getContext());
+    }
+    measuringTabView.setMinimumWidth(getTabMinWidth());
+    if (measuringTabView.getTab() == tab) {
+      // The tab may have changed since it was last measured
+      measuringTabView.update();
+    } else {
+      measuringTabView.setTab(tab);
+    }
+    return measuringTabView;
+  }
+
+  /** Unbinds the measuring tab view from its tab if the tab was removed, so that it isn't kept. */
+  private void releaseMeasuringTabView() {
+    if (measuringTabView != null
+        && measuringTabView.getTab() != null
+        && measuringTabView.getTab().parent != this) {
+      measuringTabView.reset();
+    }
+  }
+
+  @Override
+  protected void onScrollChanged(int l, int t, int oldl, int oldt) {
+    super.onScrollChanged(l, t, oldl, oldt);
+    // A pending layout updates the virtualized tab views once the tabs have their new bounds
+    if (isVirtualizingTabViews() && !slidingTabIndicator.isLayoutRequested()) {
+      slidingTabIndicator.updateVirtualizedTabViews();
+    }
+  }
+
   private void animateToTab(int newPosition) {
     if (newPosition == Tab.INVALID_POSITION) {
       return;
@@ -1689,7 +1911,8 @@ public class TabLayout extends HorizontalScrollView {
     if (startScrollX != targetScrollX) {
       ensureScrollAnimator();
 
-      scrollAnimator.setIntValues(startScrollX, targetScrollX);
+      scrollAnimationStartX = startScrollX;
+      scrollAnimationTargetX = targetScrollX;
       scrollAnimator.start();
     }
 
@@ -1702,11 +1925,19 @@ public class TabLayout extends HorizontalScrollView {
       scrollAnimator = new ValueAnimator();
       scrollAnimator.setInterpolator(AnimationUtils.FAST_OUT_SLOW_IN_INTERPOLATOR);
       scrollAnimator.setDuration(tabIndicatorAnimationDuration);
+      // The animator is reused for every animation, and animates a fraction rather than boxed
+      // scroll positions so that animation frames don't allocate.
+      scrollAnimator.setFloatValues(0, 1);
       scrollAnimator.addUpdateListener(
           new ValueAnimator.AnimatorUpdateListener() {
             @Override
             public void onAnimationUpdate(ValueAnimator animator) {
-              scrollTo((int) animator.getAnimatedValue(), 0);
+              scrollTo(
+                  AnimationUtils.lerp(
+                      scrollAnimationStartX,
+                      scrollAnimationTargetX,
+                      animator.getAnimatedFraction()),
+                  0);
             }
           });
     }
@@ -1717,6 +1948,18 @@ public class TabLayout extends HorizontalScrollView {
     scrollAnimator.addListener(listener);
   }
 
+  @VisibleForTesting
+  @Nullable
+  ValueAnimator getScrollAnimator() {
+    return scrollAnimator;
+  }
+
+  @VisibleForTesting
+  @Nullable
+  ValueAnimator getIndicatorAnimator() {
+    return slidingTabIndicator.indicatorAnimator;
+  }
+
   /**
    * Called when a selected tab is added. Unselects all other tabs in the TabLayout.
    *
@@ -1754,6 +1997,11 @@ public class TabLayout extends HorizontalScrollView {
   public void selectTab(@Nullable final Tab tab, boolean updateIndicator) {
     final Tab currentTab = selectedTab;
 
+    if (tab != null && tab.view == null && tab.parent == this) {
+      // The selected tab always has a view
+      materializeTabView(tab);
+    }
+
     if (currentTab == tab) {
       if (currentTab != null) {
         dispatchTabReselected(tab);
@@ -1852,7 +2100,11 @@ public class TabLayout extends HorizontalScrollView {
       child.setMinimumWidth(getTabMinWidth());
       updateTabViewLayoutParams((LinearLayout.LayoutParams) child.getLayoutParams());
       if (requestLayout) {
-        child.requestLayout();
+        if (child instanceof TabPlaceholderView) {
+          ((TabPlaceholderView) child).invalidateSize();
+        } else {
+          child.requestLayout();
+        }
       }
     }
   }
@@ -1883,6 +2135,8 @@ public class TabLayout extends HorizontalScrollView {
     public TabLayout parent;
     // TODO: make package private after the widget migration is finished
     public TabView view;
+    // Takes up the space of the view of this tab while it doesn't have one.
+    @Nullable TabPlaceholderView placeholderView;
 
     // TODO: make package private constructor after the widget migration is finished
     public Tab() {
@@ -1932,6 +2186,10 @@ public class TabLayout extends HorizontalScrollView {
     @NonNull
     public Tab setCustomView(@Nullable View view) {
       customView = view;
+      if (view != null && this.view == null && parent != null) {
+        // Tabs with a custom view always have a view
+        parent.materializeTabView(this);
+      }
       updateView();
       return this;
     }
@@ -1950,8 +2208,11 @@ public class TabLayout extends HorizontalScrollView {
      */
     @NonNull
     public Tab setCustomView(@LayoutRes int resId) {
-      final LayoutInflater inflater = LayoutInflater.from(view.getContext());
-      return setCustomView(inflater.inflate(resId, view, false));
+      // Tabs without a view inflate their custom view with the tab strip as the parent, which
+      // creates the same layout params as a tab view since both are LinearLayouts
+      final ViewGroup root = view != null ? view : parent.slidingTabIndicator;
+      final LayoutInflater inflater = LayoutInflater.from(root.getContext());
+      return setCustomView(inflater.inflate(resId, root, false));
     }
 
     /**
@@ -2002,6 +2263,7 @@ public class TabLayout extends HorizontalScrollView {
       }
       updateView();
       if (BadgeUtils.USE_COMPAT_PARENT
+          && view != null
           && view.hasBadgeDrawable()
           && view.badgeDrawable.isVisible()) {
         // Invalidate the TabView if icon visibility has changed and a badge is displayed.
@@ -2033,7 +2295,7 @@ public class TabLayout extends HorizontalScrollView {
      */
     @NonNull
     public Tab setText(@Nullable CharSequence text) {
-      if (TextUtils.isEmpty(contentDesc) && !TextUtils.isEmpty(text)) {
+      if (TextUtils.isEmpty(contentDesc) && !TextUtils.isEmpty(text) && view != null) {
         // If no content description has been set, use the text as the content description of the
         // TabView. If the text is null, don't update the content description.
         view.setContentDescription(text);
@@ -2067,6 +2329,10 @@ public class TabLayout extends HorizontalScrollView {
      * @return an instance of BadgeDrawable associated with {@code Tab}.
      */
     public BadgeDrawable showBadge() {
+      if (view == null) {
+        // Tabs with a badge always have a view
+        parent.materializeTabView(this);
+      }
       return view.showBadge();
     }
 
@@ -2075,7 +2341,9 @@ public class TabLayout extends HorizontalScrollView {
      * visibility of the {@link BadgeDrawable} if you only want to hide it temporarily.
      */
     public void removeBadge() {
-      view.removeBadge();
+      if (view != null) {
+        view.removeBadge();
+      }
     }
 
     /**
@@ -2084,7 +2352,7 @@ public class TabLayout extends HorizontalScrollView {
      */
     @Nullable
     public BadgeDrawable getBadge() {
-      return view.getBadge();
+      return view != null ? view.getBadge() : null;
     }
 
     /**
@@ -2107,6 +2375,7 @@ public class TabLayout extends HorizontalScrollView {
       }
       this.updateView();
       if (BadgeUtils.USE_COMPAT_PARENT
+          && view != null
           && view.hasBadgeDrawable()
           && view.badgeDrawable.isVisible()) {
         // Invalidate the TabView if label visibility has changed and a badge is displayed.
@@ -2187,18 +2456,26 @@ public class TabLayout extends HorizontalScrollView {
     public CharSequence getContentDescription() {
       // This returns the view's content description instead of contentDesc because if the title
       // is used as a replacement for the content description, contentDesc will be empty.
-      return (view == null) ? null : view.getContentDescription();
+      if (view == null) {
+        // Tabs without a view, while tab views are virtualized, use the same fallback directly.
+        return TextUtils.isEmpty(contentDesc) ? text : contentDesc;
+      }
+      return view.getContentDescription();
     }
 
     void updateView() {
       if (view != null) {
         view.update();
+      } else if (placeholderView != null) {
+        // The size of the tab may have changed
+        placeholderView.invalidateSize();
       }
     }
 
     void reset() {
       parent = null;
       view = null;
+      placeholderView = null;
       tag = null;
       icon = null;
       text = null;
@@ -2206,6 +2483,22 @@ public class TabLayout extends HorizontalScrollView {
       position = INVALID_POSITION;
       customView = null;
     }
+
+    /**
+     * Clears the tag, text, icon, content description and custom view of this tab, so that it can
+     * be configured again while keeping its position, view and selection.
+     */
+    void resetContent() {
+      tag = null;
+      icon = null;
+      text = null;
+      contentDesc = null;
+      customView = null;
+      if (view != null) {
+        view.setContentDescription(null);
+      }
+      updateView();
+    }
   }
 
   class TabView extends LinearLayout {
@@ -2389,10 +2682,8 @@ public class TabLayout extends HorizontalScrollView {
         widthMeasureSpec = origWidthMeasureSpec;
       }
 
-      // Now lets measure
-      super.onMeasure(widthMeasureSpec, heightMeasureSpec);
-
-      // We need to switch the text size based on whether the text is spanning 2 lines or not
+      // We need to switch the text size based on whether the text is spanning 2 lines or not.
+      // This is decided before measuring, so that the tab is only measured once.
       if (textView != null) {
         float textSize = tabTextSize;
         int maxLines = defaultMaxLines;
@@ -2400,40 +2691,52 @@ public class TabLayout extends HorizontalScrollView {
         if (iconView != null && iconView.getVisibility() == VISIBLE) {
           // If the icon view is being displayed, we limit the text to 1 line
           maxLines = 1;
-        } else if (textView != null && textView.getLineCount() > 1) {
+        } else if (isTextMultiLine(widthMeasureSpec)) {
           // Otherwise when we have text which wraps we reduce the text size
           textSize = tabTextMultiLineSize;
         }
 
         final float curTextSize = textView.getTextSize();
-        final int curLineCount = textView.getLineCount();
         final int curMaxLines = TextViewCompat.getMaxLines(textView);
 
         if (textSize != curTextSize || (curMaxLines >= 0 && maxLines != curMaxLines)) {
-          // We've got a new text size and/or max lines...
-          boolean updateTextView = true;
-
-          if (mode == MODE_FIXED && textSize > curTextSize && curLineCount == 1) {
-            // If we're in fixed mode, going up in text size and currently have 1 line
-            // then it's very easy to get into an infinite recursion.
-            // To combat that we check to see if the change in text size
-            // will cause a line count change. If so, abort the size change and stick
-            // to the smaller size.
-            final Layout layout = textView.getLayout();
-            if (layout == null
-                || approximateLineWidth(layout, 0, textSize)
-                    > getMeasuredWidth() - getPaddingLeft() - getPaddingRight()) {
-              updateTextView = false;
-            }
-          }
-
-          if (updateTextView) {
-            textView.setTextSize(TypedValue.COMPLEX_UNIT_PX, textSize);
-            textView.setMaxLines(maxLines);
-            super.onMeasure(widthMeasureSpec, heightMeasureSpec);
-          }
+          textView.setTextSize(TypedValue.COMPLEX_UNIT_PX, textSize);
+          textView.setMaxLines(maxLines);
         }
       }
+
+      // Now lets measure
+      super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
+
+    /**
+     * Returns whether the text of this tab spans more than one line at the single line text size
+     * when this tab is measured with {@code widthMeasureSpec}.
+     */
+    private boolean isTextMultiLine(int widthMeasureSpec) {
+      final CharSequence text = textView.getText();
+      if (TextUtils.isEmpty(text) || textView.getVisibility() == GONE) {
+        return false;
+      }
+      if (TextUtils.indexOf(text, '\n') >= 0) {
+        return true;
+      }
+      if (MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.UNSPECIFIED) {
+        return false;
+      }
+
+      int availableWidth =
+          MeasureSpec.getSize(widthMeasureSpec)
+              - getPaddingLeft()
+              - getPaddingRight()
+              - textView.getCompoundPaddingLeft()
+              - textView.getCompoundPaddingRight();
+      final ViewGroup.LayoutParams lp = textView.getLayoutParams();
+      if (lp instanceof MarginLayoutParams) {
+        final MarginLayoutParams marginLp = (MarginLayoutParams) lp;
+        availableWidth -= marginLp.leftMargin + marginLp.rightMargin;
+      }
+      return Math.ceil(getSingleLineTextWidth(textView, text)) > availableWidth;
     }
 
     void setTab(@Nullable final Tab tab) {
@@ -2793,10 +3096,47 @@ public class TabLayout extends HorizontalScrollView {
     public Tab getTab() {
       return tab;
     }
+  }
+
+  /**
+   * Takes up the space of the {@link TabView} of a tab which doesn't have one while tab views are
+   * virtualized. It is measured by binding its tab to a single detached tab view, and keeps its
+   * size for the same measure specs until the tab or the tab views change.
+   */
+  class TabPlaceholderView extends View {
+    private final Tab tab;
+
+    private boolean hasMeasuredSize;
+    private int measuredWidthSpec;
+    private int measuredHeightSpec;
+    private int measuredWidth;
+    private int measuredHeight;
+
+    TabPlaceholderView(Context context, Tab tab) {
+      super(context);
+      this.tab = tab;
+    }
 
-    /** Approximates a given lines width with the new provided text size. */
-    private float approximateLineWidth(Layout layout, int line, float textSize) {
-      return layout.getLineWidth(line) * (textSize / layout.getPaint().getTextSize());
+    /** Measures the tab again on the next layout pass. */
+    void invalidateSize() {
+      hasMeasuredSize = false;
+      requestLayout();
+    }
+
+    @Override
+    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
+      if (!hasMeasuredSize
+          || widthMeasureSpec != measuredWidthSpec
+          || heightMeasureSpec != measuredHeightSpec) {
+        final TabView tabView = getMeasuringTabView(tab);
+        tabView.measure(widthMeasureSpec, heightMeasureSpec);
+        measuredWidthSpec = widthMeasureSpec;
+        measuredHeightSpec = heightMeasureSpec;
+        measuredWidth = tabView.getMeasuredWidth();
+        measuredHeight = tabView.getMeasuredHeight();
+        hasMeasuredSize = true;
+      }
+      setMeasuredDimension(measuredWidth, measuredHeight);
     }
   }
 
@@ -2813,7 +3153,18 @@ public class TabLayout extends HorizontalScrollView {
     private int indicatorLeft = -1;
     private int indicatorRight = -1;
 
+    // Reused for every indicator animation, along with the primitive bounds it animates between,
+    // so that moving the indicator doesn't allocate.
     private ValueAnimator indicatorAnimator;
+    private int animationTargetPosition;
+    private int animationStartLeft;
+    private int animationStartRight;
+    private int animationTargetLeft;
+    private int animationTargetRight;
+
+    // The selection indicator wrapped for tinting, which is only wrapped again when it changes.
+    @Nullable private Drawable wrappedIndicatorSource;
+    @Nullable private Drawable wrappedIndicator;
 
     SlidingTabIndicator(Context context) {
       super(context);
@@ -2938,6 +3289,10 @@ public class TabLayout extends HorizontalScrollView {
     protected void onLayout(boolean changed, int l, int t, int r, int b) {
       super.onLayout(changed, l, t, r, b);
 
+      if (isVirtualizingTabViews()) {
+        updateVirtualizedTabViews();
+      }
+
       if (indicatorAnimator != null && indicatorAnimator.isRunning()) {
         // If we're currently running an animation, lets cancel it and start a
         // new animation with the remaining duration
@@ -2952,6 +3307,61 @@ public class TabLayout extends HorizontalScrollView {
       }
     }
 
+    /**
+     * Gives a view to the tabs in and around the visible part of the TabLayout, and replaces the
+     * views of the other tabs with placeholders. Views are swapped in place with the bounds of the
+     * view they replace, so that scrolling doesn't need a new layout pass.
+     */
+    void updateVirtualizedTabViews() {
+      final int count = getChildCount();
+      final int visibleWidth = TabLayout.this.getWidth();
+      if (count != tabs.size() || visibleWidth == 0) {
+        // Wait until the tabs have been laid out
+        return;
+      }
+      // Keep views for half the visible width on either side, so that flings don't show gaps
+      final int windowLeft = TabLayout.this.getScrollX() - getLeft() - visibleWidth / 2;
+      final int windowRight = windowLeft + visibleWidth * 2;
+
+      boolean swapped = false;
+      for (int i = 0; i < count; i++) {
+        final View child = getChildAt(i);
+        final Tab tab = tabs.get(i);
+        final boolean inWindow = child.getRight() > windowLeft && child.getLeft() < windowRight;
+        if ((inWindow || isTabViewPinned(tab)) && tab.view == null) {
+          tab.view = createTabView(tab);
+          tab.view.setSelected(tab == selectedTab);
+          tab.view.setActivated(tab == selectedTab);
+          replaceChildInLayout(i, child, tab.view);
+          swapped = true;
+        } else if (!inWindow && !isTabViewPinned(tab) && tab.view == child) {
+          final TabView tabView = tab.view;
+          tab.view = null;
+          replaceChildInLayout(i, tabView, getPlaceholderView(tab));
+          tabView.reset();
+          tabViewPool.release(tabView);
+          swapped = true;
+        }
+      }
+      if (swapped) {
+        invalidate();
+      }
+    }
+
+    private void replaceChildInLayout(int index, View oldChild, View newChild) {
+      final int left = oldChild.getLeft();
+      final int top = oldChild.getTop();
+      final int right = oldChild.getRight();
+      final int bottom = oldChild.getBottom();
+      final ViewGroup.LayoutParams lp = oldChild.getLayoutParams();
+      removeViewInLayout(oldChild);
+      addViewInLayout(newChild, index, lp, true);
+      newChild.measure(
+          MeasureSpec.makeMeasureSpec(right - left, MeasureSpec.EXACTLY),
+          MeasureSpec.makeMeasureSpec(bottom - top, MeasureSpec.EXACTLY));
+      newChild.layout(left, top, right, bottom);
+    }
+
     private void updateIndicatorPosition() {
       final View selectedTitle = getChildAt(selectedPosition);
       int left;
@@ -2999,7 +3409,7 @@ public class TabLayout extends HorizontalScrollView {
       }
     }
 
-    void animateIndicatorToPosition(final int position, int duration) {
+    void animateIndicatorToPosition(int position, int duration) {
       if (indicatorAnimator != null && indicatorAnimator.isRunning()) {
         indicatorAnimator.cancel();
       }
@@ -3020,39 +3430,48 @@ public class TabLayout extends HorizontalScrollView {
         targetRight = (int) tabViewContentBounds.right;
       }
 
-      final int finalTargetLeft = targetLeft;
-      final int finalTargetRight = targetRight;
-
       final int startLeft = indicatorLeft;
       final int startRight = indicatorRight;
 
-      if (startLeft != finalTargetLeft || startRight != finalTargetRight) {
-        ValueAnimator animator = indicatorAnimator = new ValueAnimator();
-        animator.setInterpolator(AnimationUtils.FAST_OUT_SLOW_IN_INTERPOLATOR);
-        animator.setDuration(duration);
-        animator.setFloatValues(0, 1);
-        animator.addUpdateListener(
-            new ValueAnimator.AnimatorUpdateListener() {
-              @Override
-              public void onAnimationUpdate(ValueAnimator animator) {
-                final float fraction = animator.getAnimatedFraction();
-                setIndicatorPosition(
-                    AnimationUtils.lerp(startLeft, finalTargetLeft, fraction),
-                    AnimationUtils.lerp(startRight, finalTargetRight, fraction));
-              }
-            });
-        animator.addListener(
-            new AnimatorListenerAdapter() {
-              @Override
-              public void onAnimationEnd(Animator animator) {
-                selectedPosition = position;
-                selectionOffset = 0f;
-              }
-            });
-        animator.start();
+      if (startLeft != targetLeft || startRight != targetRight) {
+        ensureIndicatorAnimator();
+        animationTargetPosition = position;
+        animationStartLeft = startLeft;
+        animationStartRight = startRight;
+        animationTargetLeft = targetLeft;
+        animationTargetRight = targetRight;
+        indicatorAnimator.setDuration(duration);
+        indicatorAnimator.start();
       }
     }
 
+    private void ensureIndicatorAnimator() {
+      if (indicatorAnimator != null) {
+        return;
+      }
+      indicatorAnimator = new ValueAnimator();
+      indicatorAnimator.setInterpolator(AnimationUtils.FAST_OUT_SLOW_IN_INTERPOLATOR);
+      indicatorAnimator.setFloatValues(0, 1);
+      indicatorAnimator.addUpdateListener(
+          new ValueAnimator.AnimatorUpdateListener() {
+            @Override
+            public void onAnimationUpdate(ValueAnimator animator) {
+              final float fraction = animator.getAnimatedFraction();
+              setIndicatorPosition(
+                  AnimationUtils.lerp(animationStartLeft, animationTargetLeft, fraction),
+                  AnimationUtils.lerp(animationStartRight, animationTargetRight, fraction));
+            }
+          });
+      indicatorAnimator.addListener(
+          new AnimatorListenerAdapter() {
+            @Override
+            public void onAnimationEnd(Animator animator) {
+              selectedPosition = animationTargetPosition;
+              selectionOffset = 0f;
+            }
+          });
+    }
+
     /**
      * Given a {@link TabView}, calculate the left and right bounds of its content.
      *
@@ -3116,9 +3535,8 @@ public class TabLayout extends HorizontalScrollView {
 
       // Draw the selection indicator on top of tab item backgrounds
       if (indicatorLeft >= 0 && indicatorRight > indicatorLeft) {
-        Drawable selectedIndicator;
-        selectedIndicator =
-            DrawableCompat.wrap(
+        final Drawable selectedIndicator =
+            getWrappedIndicator(
                 tabSelectedIndicator != null ? tabSelectedIndicator : defaultSelectionIndicator);
         selectedIndicator.setBounds(indicatorLeft, indicatorTop, indicatorRight, indicatorBottom);
         if (selectedIndicatorPaint != null) {
@@ -3136,6 +3554,15 @@ public class TabLayout extends HorizontalScrollView {
       // Draw the tab item contents (icon and label) on top of the background + indicator layers
       super.draw(canvas);
     }
+
+    private Drawable getWrappedIndicator(Drawable indicator) {
+      // Wrapping creates a new drawable before API 23, which shouldn't happen on every frame
+      if (indicator != wrappedIndicatorSource) {
+        wrappedIndicatorSource = indicator;
+        wrappedIndicator = DrawableCompat.wrap(indicator);
+      }
+      return wrappedIndicator;
+    }
   }
 
   private static ColorStateList createColorStateList(int defaultColor, int selectedColor) {
@@ -20,11 +20,16 @@ import static androidx.viewpager2.widget.ViewPager2.SCROLL_STATE_DRAGGING;
 import static androidx.viewpager2.widget.ViewPager2.SCROLL_STATE_IDLE;
 import static androidx.viewpager2.widget.ViewPager2.SCROLL_STATE_SETTLING;
 
+import android.graphics.drawable.Drawable;
+import android.os.Handler;
+import android.os.Looper;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.viewpager2.widget.ViewPager2;
+import com.google.android.material.badge.BadgeDrawable;
 import java.lang.ref.WeakReference;
+import java.util.concurrent.Executor;
 
 /**
  * A mediator to link a TabLayout with a ViewPager2. The mediator will synchronize the ViewPager2's
@@ -35,15 +40,30 @@ import java.lang.ref.WeakReference;
  * adapter and then call {@link #attach()} on it. When creating an instance of this class, you must
  * supply an implementation of {@link OnConfigureTabCallback} in which you set the text of the tab,
  * and/or perform any styling of the tabs that you require.
+ *
+ * <p>Alternatively, supply a {@link TabContentLoader} and an {@link Executor} to load the text,
+ * icons and badges of the tabs off the main thread. Tabs are then added without content, and the
+ * loaded content of all the tabs is applied at once on the main thread when it is ready, so that
+ * linking a large number of pages doesn't delay the first frame.
  */
 public final class TabLayoutMediator {
   @NonNull private final TabLayout tabLayout;
   @NonNull private final ViewPager2 viewPager;
   private final boolean autoRefresh;
-  private final OnConfigureTabCallback onConfigureTabCallback;
+  @Nullable private final OnConfigureTabCallback onConfigureTabCallback;
+  @Nullable private final TabContentLoader tabContentLoader;
+  @Nullable private final Executor tabContentExecutor;
+  @Nullable private final Handler mainHandler;
   private RecyclerView.Adapter<?> adapter;
   private boolean attached;
 
+  // Id of the content load pending for each tab, or 0 once its content is applied. Loaded content
+  // is only applied to the tabs whose pending request it answers, so that out of date content is
+  // never applied. Ids move along with the tabs, and the pending loads of tabs which moved are
+  // requested again, so that a request only ever matches the positions it was made for.
+  @Nullable private int[] tabContentRequests;
+  private int lastTabContentRequest;
+
   private TabLayoutOnPageChangeCallback onPageChangeCallback;
   private TabLayout.OnTabSelectedListener onTabSelectedListener;
   private RecyclerView.AdapterDataObserver pagerAdapterObserver;
@@ -64,6 +84,120 @@ public final class TabLayoutMediator {
     void onConfigureTab(@NonNull TabLayout.Tab tab, int position);
   }
 
+  /**
+   * A callback interface that loads the content of tabs off the main thread.
+   *
+   * <p>Content is loaded on the executor while the adapter may be changed on the main thread, so
+   * loaders must only read data which is safe to read from the executor, such as an immutable
+   * snapshot of the pages that is replaced on the main thread when they change. Content loaded for
+   * a tab which is moved by a change of the adapter before its content is applied is dropped, and
+   * loaded again for its new position.
+   */
+  public interface TabContentLoader {
+    /**
+     * Called on the executor supplied to the {@link TabLayoutMediator} to load the content of the
+     * tab for the page at the specified position. This must not access any views, and may run
+     * concurrently with changes to the adapter on the main thread.
+     *
+     * @param position The position of the item within the adapter's data set.
+     * @return The content of the tab, which is applied to the tab on the main thread.
+     */
+    @NonNull
+    TabContent loadTabContent(int position);
+  }
+
+  /**
+   * The text, icon, content description and badge of a tab, as loaded by a {@link
+   * TabContentLoader}.
+   */
+  public static final class TabContent {
+    private static final int NO_BADGE_NUMBER = -1;
+
+    @Nullable private CharSequence text;
+    @Nullable private Drawable icon;
+    @Nullable private CharSequence contentDescription;
+    private boolean showBadge;
+    private int badgeNumber = NO_BADGE_NUMBER;
+
+    /**
+     * Sets the text of the tab.
+     *
+     * @see TabLayout.Tab#setText(CharSequence)
+     * @return The current instance for call chaining.
+     */
+    @NonNull
+    public TabContent setText(@Nullable CharSequence text) {
+      this.text = text;
+      return this;
+    }
+
+    /**
+     * Sets the icon of the tab.
+     *
+     * @see TabLayout.Tab#setIcon(Drawable)
+     * @return The current instance for call chaining.
+     */
+    @NonNull
+    public TabContent setIcon(@Nullable Drawable icon) {
+      this.icon = icon;
+      return this;
+    }
+
+    /**
+     * Sets the content description of the tab.
+     *
+     * @see TabLayout.Tab#setContentDescription(CharSequence)
+     * @return The current instance for call chaining.
+     */
+    @NonNull
+    public TabContent setContentDescription(@Nullable CharSequence contentDescription) {
+      this.contentDescription = contentDescription;
+      return this;
+    }
+
+    /**
+     * Shows a badge without a number on the tab.
+     *
+     * @see TabLayout.Tab#showBadge()
+     * @return The current instance for call chaining.
+     */
+    @NonNull
+    public TabContent showBadge() {
+      showBadge = true;
+      badgeNumber = NO_BADGE_NUMBER;
+      return this;
+    }
+
+    /**
+     * Shows a badge with {@code number} on the tab.
+     *
+     * @see BadgeDrawable#setNumber(int)
+     * @return The current instance for call chaining.
+     */
+    @NonNull
+    public TabContent showBadge(int number) {
+      showBadge = true;
+      badgeNumber = Math.max(0, number);
+      return this;
+    }
+
+    void applyTo(@NonNull TabLayout.Tab tab) {
+      tab.setText(text);
+      tab.setIcon(icon);
+      tab.setContentDescription(contentDescription);
+      if (showBadge) {
+        BadgeDrawable badge = tab.showBadge();
+        if (badgeNumber != NO_BADGE_NUMBER) {
+          badge.setNumber(badgeNumber);
+        } else {
+          badge.clearNumber();
+        }
+      } else {
+        tab.removeBadge();
+      }
+    }
+  }
+
   public TabLayoutMediator(
       @NonNull TabLayout tabLayout,
       @NonNull ViewPager2 viewPager,
@@ -76,10 +210,48 @@ public final class TabLayoutMediator {
       @NonNull ViewPager2 viewPager,
       boolean autoRefresh,
       @NonNull OnConfigureTabCallback onConfigureTabCallback) {
+    this(tabLayout, viewPager, autoRefresh, onConfigureTabCallback, null, null);
+  }
+
+  /**
+   * Creates a mediator which loads the content of the tabs with {@code tabContentLoader} on {@code
+   * executor}.
+   */
+  public TabLayoutMediator(
+      @NonNull TabLayout tabLayout,
+      @NonNull ViewPager2 viewPager,
+      @NonNull TabContentLoader tabContentLoader,
+      @NonNull Executor executor) {
+    this(tabLayout, viewPager, true, tabContentLoader, executor);
+  }
+
+  /**
+   * Creates a mediator which loads the content of the tabs with {@code tabContentLoader} on {@code
+   * executor}.
+   */
+  public TabLayoutMediator(
+      @NonNull TabLayout tabLayout,
+      @NonNull ViewPager2 viewPager,
+      boolean autoRefresh,
+      @NonNull TabContentLoader tabContentLoader,
+      @NonNull Executor executor) {
+    this(tabLayout, viewPager, autoRefresh, null, tabContentLoader, executor);
+  }
+
+  private TabLayoutMediator(
+      @NonNull TabLayout tabLayout,
+      @NonNull ViewPager2 viewPager,
+      boolean autoRefresh,
+      @Nullable OnConfigureTabCallback onConfigureTabCallback,
+      @Nullable TabContentLoader tabContentLoader,
+      @Nullable Executor tabContentExecutor) {
     this.tabLayout = tabLayout;
     this.viewPager = viewPager;
     this.autoRefresh = autoRefresh;
     this.onConfigureTabCallback = onConfigureTabCallback;
+    this.tabContentLoader = tabContentLoader;
+    this.tabContentExecutor = tabContentExecutor;
+    mainHandler = tabContentLoader != null ? new Handler(Looper.getMainLooper()) : null;
   }
 
   /**
@@ -129,6 +301,8 @@ public final class TabLayoutMediator {
     pagerAdapterObserver = null;
     onTabSelectedListener = null;
     onPageChangeCallback = null;
+    // Drop any content that is still loading
+    tabContentRequests = null;
     attached = false;
   }
 
@@ -140,9 +314,10 @@ public final class TabLayoutMediator {
       int adapterCount = adapter.getItemCount();
       for (int i = 0; i < adapterCount; i++) {
         TabLayout.Tab tab = tabLayout.newTab();
-        onConfigureTabCallback.onConfigureTab(tab, i);
+        configureTab(tab, i);
         tabLayout.addTab(tab, false);
       }
+      loadAllTabContent();
 
       // Make sure we reflect the currently set ViewPager item
       if (adapterCount > 0) {
@@ -154,6 +329,222 @@ public final class TabLayoutMediator {
     }
   }
 
+  /**
+   * Adds tabs for the pages inserted in the adapter. Existing tabs and the selected tab are left
+   * untouched.
+   */
+  @SuppressWarnings("WeakerAccess")
+  void insertTabs(int positionStart, int itemCount) {
+    if (tabLayout.getTabCount() + itemCount != adapter.getItemCount()
+        || positionStart > tabLayout.getTabCount()) {
+      // The tabs are out of sync with the adapter, so start over
+      populateTabsFromPagerAdapter();
+      return;
+    }
+
+    for (int i = positionStart; i < positionStart + itemCount; i++) {
+      TabLayout.Tab tab = tabLayout.newTab();
+      configureTab(tab, i);
+      tabLayout.addTab(tab, i, false);
+    }
+    insertTabContentRequests(positionStart, itemCount);
+    tabLayout.updateIndicatorForSelectedTab();
+    selectCurrentItemIfNoTabSelected();
+  }
+
+  /**
+   * Removes the tabs of the pages removed from the adapter. If the selected tab is removed, the tab
+   * of the ViewPager2's current item is selected instead.
+   */
+  @SuppressWarnings("WeakerAccess")
+  void removeTabs(int positionStart, int itemCount) {
+    if (tabLayout.getTabCount() - itemCount != adapter.getItemCount()
+        || positionStart + itemCount > tabLayout.getTabCount()) {
+      // The tabs are out of sync with the adapter, so start over
+      populateTabsFromPagerAdapter();
+      return;
+    }
+
+    tabLayout.removeTabs(positionStart, itemCount);
+    removeTabContentRequests(positionStart, itemCount);
+    selectCurrentItemIfNoTabSelected();
+  }
+
+  /**
+   * Configures the tabs of the pages changed in the adapter again, keeping their views and the
+   * selected tab.
+   */
+  @SuppressWarnings("WeakerAccess")
+  void rebindTabs(int positionStart, int itemCount) {
+    if (tabLayout.getTabCount() != adapter.getItemCount()
+        || positionStart + itemCount > tabLayout.getTabCount()) {
+      // The tabs are out of sync with the adapter, so start over
+      populateTabsFromPagerAdapter();
+      return;
+    }
+
+    if (tabContentLoader != null) {
+      // The tabs keep their current content until the new content is loaded
+      loadTabContent(positionStart, itemCount);
+      return;
+    }
+    for (int i = positionStart; i < positionStart + itemCount; i++) {
+      TabLayout.Tab tab = tabLayout.getTabAt(i);
+      tab.resetContent();
+      configureTab(tab, i);
+    }
+  }
+
+  /** Moves the tab of the page moved in the adapter, keeping the selected tab. */
+  @SuppressWarnings("WeakerAccess")
+  void moveTab(int fromPosition, int toPosition, int itemCount) {
+    if (itemCount != 1
+        || tabLayout.getTabCount() != adapter.getItemCount()
+        || Math.max(fromPosition, toPosition) >= tabLayout.getTabCount()) {
+      // RecyclerView only moves single items, anything else can't be applied to the tabs
+      populateTabsFromPagerAdapter();
+      return;
+    }
+
+    tabLayout.moveTab(fromPosition, toPosition);
+    moveTabContentRequest(fromPosition, toPosition);
+  }
+
+  private void configureTab(@NonNull TabLayout.Tab tab, int position) {
+    if (onConfigureTabCallback != null) {
+      onConfigureTabCallback.onConfigureTab(tab, position);
+    }
+  }
+
+  /** Loads the content of all the tabs, dropping any content that is still loading. */
+  private void loadAllTabContent() {
+    if (tabContentLoader == null) {
+      return;
+    }
+    tabContentRequests = new int[tabLayout.getTabCount()];
+    loadTabContent(0, tabContentRequests.length);
+  }
+
+  /** Loads the content of inserted tabs, and of the tabs after them which are still loading. */
+  private void insertTabContentRequests(int positionStart, int itemCount) {
+    if (tabContentRequests == null) {
+      return;
+    }
+    int[] requests = new int[tabContentRequests.length + itemCount];
+    System.arraycopy(tabContentRequests, 0, requests, 0, positionStart);
+    System.arraycopy(
+        tabContentRequests,
+        positionStart,
+        requests,
+        positionStart + itemCount,
+        tabContentRequests.length - positionStart);
+    tabContentRequests = requests;
+    loadTabContent(positionStart, itemCount);
+    reloadPendingTabContent(positionStart + itemCount, requests.length);
+  }
+
+  /** Loads the content of the tabs after removed tabs again, if they are still loading. */
+  private void removeTabContentRequests(int positionStart, int itemCount) {
+    if (tabContentRequests == null) {
+      return;
+    }
+    int[] requests = new int[tabContentRequests.length - itemCount];
+    System.arraycopy(tabContentRequests, 0, requests, 0, positionStart);
+    System.arraycopy(
+        tabContentRequests,
+        positionStart + itemCount,
+        requests,
+        positionStart,
+        requests.length - positionStart);
+    tabContentRequests = requests;
+    reloadPendingTabContent(positionStart, requests.length);
+  }
+
+  /** Loads the content of the tabs between a moved tab's positions again if they're loading. */
+  private void moveTabContentRequest(int fromPosition, int toPosition) {
+    if (tabContentRequests == null) {
+      return;
+    }
+    int request = tabContentRequests[fromPosition];
+    int start = Math.min(fromPosition, toPosition);
+    int end = Math.max(fromPosition, toPosition);
+    if (fromPosition < toPosition) {
+      System.arraycopy(tabContentRequests, start + 1, tabContentRequests, start, end - start);
+    } else {
+      System.arraycopy(tabContentRequests, start, tabContentRequests, start + 1, end - start);
+    }
+    tabContentRequests[toPosition] = request;
+    reloadPendingTabContent(start, end + 1);
+  }
+
+  /**
+   * Loads the content of the tabs between {@code start} and {@code end} which is still loading
+   * again, since it was requested for the previous positions of the tabs.
+   */
+  private void reloadPendingTabContent(int start, int end) {
+    int runStart = -1;
+    for (int i = start; i <= end; i++) {
+      boolean pending = i < end && tabContentRequests[i] != 0;
+      if (pending && runStart == -1) {
+        runStart = i;
+      } else if (!pending && runStart != -1) {
+        loadTabContent(runStart, i - runStart);
+        runStart = -1;
+      }
+    }
+  }
+
+  /**
+   * Loads the content of the tabs in the given range on the executor, then applies it to all of
+   * them in a single message on the main thread.
+   */
+  private void loadTabContent(final int positionStart, final int itemCount) {
+    if (itemCount == 0 || tabContentRequests == null) {
+      return;
+    }
+    final int request = ++lastTabContentRequest;
+    for (int i = positionStart; i < positionStart + itemCount; i++) {
+      tabContentRequests[i] = request;
+    }
+    tabContentExecutor.execute(
+        new Runnable() {
+          @Override
+          public void run() {
+            final TabContent[] contents = new TabContent[itemCount];
+            for (int i = 0; i < itemCount; i++) {
+              contents[i] = tabContentLoader.loadTabContent(positionStart + i);
+            }
+            mainHandler.post(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    applyTabContent(request, positionStart, contents);
+                  }
+                });
+          }
+        });
+  }
+
+  private void applyTabContent(int request, int positionStart, TabContent[] contents) {
+    if (tabContentRequests == null) {
+      return;
+    }
+    for (int i = 0; i < contents.length; i++) {
+      int position = positionStart + i;
+      if (position < tabContentRequests.length && tabContentRequests[position] == request) {
+        tabContentRequests[position] = 0;
+        contents[i].applyTo(tabLayout.getTabAt(position));
+      }
+    }
+  }
+
+  private void selectCurrentItemIfNoTabSelected() {
+    int tabCount = tabLayout.getTabCount();
+    if (tabLayout.getSelectedTabPosition() == -1 && tabCount > 0) {
+      tabLayout.getTabAt(Math.min(viewPager.getCurrentItem(), tabCount - 1)).select();
+    }
+  }
+
   /**
    * A {@link ViewPager2.OnPageChangeCallback} class which contains the necessary calls back to the
    * provided {@link TabLayout} so that the tab position is kept in sync.
@@ -253,27 +644,27 @@ public final class TabLayoutMediator {
 
     @Override
     public void onItemRangeChanged(int positionStart, int itemCount) {
-      populateTabsFromPagerAdapter();
+      rebindTabs(positionStart, itemCount);
     }
 
     @Override
     public void onItemRangeChanged(int positionStart, int itemCount, @Nullable Object payload) {
-      populateTabsFromPagerAdapter();
+      rebindTabs(positionStart, itemCount);
     }
 
     @Override
     public void onItemRangeInserted(int positionStart, int itemCount) {
-      populateTabsFromPagerAdapter();
+      insertTabs(positionStart, itemCount);
     }
 
     @Override
     public void onItemRangeRemoved(int positionStart, int itemCount) {
-      populateTabsFromPagerAdapter();
+      removeTabs(positionStart, itemCount);
     }
 
     @Override
     public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) {
-      populateTabsFromPagerAdapter();
+      moveTab(fromPosition, toPosition, itemCount);
     }
   }
 }
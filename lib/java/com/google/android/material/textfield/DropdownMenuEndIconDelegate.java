@@ -357,9 +357,11 @@ class DropdownMenuEndIconDelegate extends EndIconDelegate {
 
   private MaterialShapeDrawable getPopUpMaterialShapeDrawable(
       float topCornerRadius, float bottomCornerRadius, float elevation, int verticalPadding) {
-    ShapeAppearanceModel shapeAppearanceModel = new ShapeAppearanceModel();
-    shapeAppearanceModel.setCornerRadii(
-        topCornerRadius, topCornerRadius, bottomCornerRadius, bottomCornerRadius);
+    ShapeAppearanceModel shapeAppearanceModel =
+        new ShapeAppearanceModel.Builder()
+            .setCornerRadii(
+                topCornerRadius, topCornerRadius, bottomCornerRadius, bottomCornerRadius)
+            .build();
     MaterialShapeDrawable popupDrawable =
         MaterialShapeDrawable.createWithElevationOverlay(context, elevation);
     popupDrawable.setShapeAppearanceModel(shapeAppearanceModel);
@@ -22,6 +22,7 @@ import android.os.Build.VERSION_CODES;
 import androidx.annotation.Keep;
 import androidx.annotation.NonNull;
 import com.google.android.material.button.MaterialButton;
+import com.google.android.material.button.MaterialButtonAttributes;
 import com.google.android.material.checkbox.MaterialCheckBox;
 import com.google.android.material.radiobutton.MaterialRadioButton;
 import androidx.appcompat.app.AppCompatViewInflater;
@@ -42,6 +43,30 @@ public class MaterialComponentsViewInflater extends AppCompatViewInflater {
   // it's safe to use -1 as a sentinel here.
   private static int floatingToolbarItemBackgroundResId = -1;
 
+  /**
+   * Sets whether the styled attributes of Material Components widgets are resolved only once per
+   * layout element and theme, and reused whenever the same layout is inflated again in the same
+   * theme, for example for the items of a {@code RecyclerView}. This only applies to {@link
+   * MaterialButton} for now. Disabling the cache clears it.
+   *
+   * <p>If a theme is modified with {@link android.content.res.Resources.Theme#applyStyle(int,
+   * boolean)} after widgets have been inflated with it, the cache should be cleared with {@link
+   * #clearAttributeCache()}.
+   */
+  public static void setAttributeCacheEnabled(boolean enabled) {
+    MaterialButtonAttributes.setCacheEnabled(enabled);
+  }
+
+  /** Returns whether the styled attributes of Material Components widgets are cached. */
+  public static boolean isAttributeCacheEnabled() {
+    return MaterialButtonAttributes.isCacheEnabled();
+  }
+
+  /** Clears the styled attributes cached for Material Components widgets. */
+  public static void clearAttributeCache() {
+    MaterialButtonAttributes.clearCache();
+  }
+
   @NonNull
   @Override
   protected AppCompatButton createButton(Context context, AttributeSet attrs) {
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.appbar;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.robolectric.Shadows.shadowOf;
+import static org.robolectric.annotation.LooperMode.Mode.PAUSED;
+
+import android.os.Looper;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.coordinatorlayout.widget.CoordinatorLayout;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup.LayoutParams;
+import android.view.animation.AccelerateInterpolator;
+import android.widget.FrameLayout;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link com.google.android.material.appbar.AppBarLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(PAUSED)
+@DoNotInstrument
+public class AppBarLayoutTest {
+
+  private static final int CHILD_HEIGHT = 100;
+  private static final int PARENT_SIZE = 500;
+
+  private final RecordingListener listener = new RecordingListener();
+  private final RecordingListener internalListener = new RecordingListener();
+
+  private AppCompatActivity activity;
+  private AppBarLayout appBarLayout;
+
+  @Before
+  public void createAppBarLayout() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    appBarLayout = new AppBarLayout(activity);
+    appBarLayout.addOnOffsetChangedListener(listener);
+    appBarLayout.addInternalOnOffsetChangedListener(internalListener);
+  }
+
+  @Test
+  public void givenCoalesceOffsetUpdates_whenOffsetChanges_waitsForNextFrame() {
+    // The next frame only comes once the view is attached.
+    activity.setContentView(appBarLayout);
+    appBarLayout.setCoalesceOffsetUpdates(true);
+
+    appBarLayout.onOffsetChanged(-10);
+    appBarLayout.onOffsetChanged(-20);
+
+    assertThat(listener.offsets).isEmpty();
+    assertThat(appBarLayout.getCoalescedOffsetCount()).isEqualTo(1);
+
+    shadowOf(Looper.getMainLooper()).idle();
+
+    assertThat(listener.offsets).containsExactly(-20);
+  }
+
+  @Test
+  public void givenCoalesceOffsetUpdates_whenOffsetChanges_updatesInternalListenersImmediately() {
+    appBarLayout.setCoalesceOffsetUpdates(true);
+
+    appBarLayout.onOffsetChanged(-10);
+    appBarLayout.onOffsetChanged(-20);
+
+    assertThat(internalListener.offsets).containsExactly(-10, -20).inOrder();
+  }
+
+  @Test
+  public void givenPendingOffsetUpdate_whenCoalescingDisabled_dispatchesLatestOffset() {
+    appBarLayout.setCoalesceOffsetUpdates(true);
+    appBarLayout.onOffsetChanged(-10);
+    appBarLayout.onOffsetChanged(-20);
+
+    appBarLayout.setCoalesceOffsetUpdates(false);
+
+    assertThat(listener.offsets).containsExactly(-20);
+  }
+
+  @Test
+  public void givenPendingOffsetUpdate_whenDetached_dispatchesLatestOffset() {
+    FrameLayout parent = new FrameLayout(activity);
+    activity.setContentView(parent);
+    parent.addView(appBarLayout);
+    appBarLayout.setCoalesceOffsetUpdates(true);
+    appBarLayout.onOffsetChanged(-10);
+    appBarLayout.onOffsetChanged(-20);
+
+    parent.removeView(appBarLayout);
+
+    assertThat(listener.offsets).containsExactly(-20);
+  }
+
+  @Test
+  public void givenChildWithScrollInterpolator_whenScrolled_interpolatesOffset() {
+    AppBarLayout.Behavior behavior = new AppBarLayout.Behavior();
+    CoordinatorLayout coordinatorLayout = layOutWithInterpolatedChild(behavior);
+
+    behavior.setHeaderTopBottomOffset(coordinatorLayout, appBarLayout, -50);
+
+    // The accelerate interpolator squares the scrolled fraction of the child: 100 * 0.5^2 = 25.
+    assertThat(behavior.getTopAndBottomOffset()).isEqualTo(-25);
+  }
+
+  @Test
+  public void givenChildAddedAfterLayout_whenScrolled_interpolatesOffset() {
+    AppBarLayout.Behavior behavior = new AppBarLayout.Behavior();
+    CoordinatorLayout coordinatorLayout = layOutWithInterpolatedChild(behavior);
+    behavior.setHeaderTopBottomOffset(coordinatorLayout, appBarLayout, -50);
+
+    appBarLayout.addView(new View(activity), 0);
+    behavior.setHeaderTopBottomOffset(coordinatorLayout, appBarLayout, -60);
+
+    assertThat(behavior.getTopAndBottomOffset()).isEqualTo(-36);
+  }
+
+  private CoordinatorLayout layOutWithInterpolatedChild(AppBarLayout.Behavior behavior) {
+    View child = new View(activity);
+    AppBarLayout.LayoutParams childLayoutParams =
+        new AppBarLayout.LayoutParams(LayoutParams.MATCH_PARENT, CHILD_HEIGHT);
+    childLayoutParams.setScrollFlags(AppBarLayout.LayoutParams.SCROLL_FLAG_SCROLL);
+    childLayoutParams.setScrollInterpolator(new AccelerateInterpolator());
+    appBarLayout.addView(child, childLayoutParams);
+
+    CoordinatorLayout coordinatorLayout = new CoordinatorLayout(activity);
+    CoordinatorLayout.LayoutParams appBarLayoutParams =
+        new CoordinatorLayout.LayoutParams(LayoutParams.MATCH_PARENT, LayoutParams.WRAP_CONTENT);
+    appBarLayoutParams.setBehavior(behavior);
+    coordinatorLayout.addView(appBarLayout, appBarLayoutParams);
+    activity.setContentView(coordinatorLayout);
+
+    coordinatorLayout.measure(
+        MeasureSpec.makeMeasureSpec(PARENT_SIZE, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(PARENT_SIZE, MeasureSpec.EXACTLY));
+    coordinatorLayout.layout(0, 0, PARENT_SIZE, PARENT_SIZE);
+    return coordinatorLayout;
+  }
+
+  private static class RecordingListener implements AppBarLayout.OnOffsetChangedListener {
+
+    private final List<Integer> offsets = new ArrayList<>();
+
+    @Override
+    public void onOffsetChanged(AppBarLayout appBarLayout, int verticalOffset) {
+      offsets.add(verticalOffset);
+    }
+  }
+}
@@ -25,9 +25,13 @@ import com.google.android.material.shape.CornerTreatment;
 import com.google.android.material.shape.CutCornerTreatment;
 import com.google.android.material.shape.ShapeAppearanceModel;
 import androidx.test.core.app.ApplicationProvider;
+import android.util.AttributeSet;
+import android.view.View.MeasureSpec;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.internal.DoNotInstrument;
 
@@ -48,6 +52,11 @@ public class MaterialButtonTest {
     context.setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
   }
 
+  @After
+  public void disableAttributeCache() {
+    MaterialButtonAttributes.setCacheEnabled(false);
+  }
+
   @Test
   public void testSetShapeAppearanceModel_setCornerRadius() {
     MaterialButton materialButton = new MaterialButton(context);
@@ -84,6 +93,68 @@ public class MaterialButtonTest {
         materialButton.getShapeAppearanceModel(), CUT_CORNER_FAMILY_CLASS);
   }
 
+  @Test
+  public void givenAttributeCache_whenModifyShapeAppearanceModel_doesNotAffectOtherButtons() {
+    MaterialButtonAttributes.setCacheEnabled(true);
+    MaterialButton firstButton = new MaterialButton(context);
+    MaterialButton secondButton = new MaterialButton(context);
+    float cornerRadius = secondButton.getCornerRadius();
+
+    firstButton.getShapeAppearanceModel().setCornerRadius(LARGE_CORNER_SIZE);
+
+    assertThat(secondButton.getShapeAppearanceModel().getTopLeftCorner().getCornerSize())
+        .isEqualTo(cornerRadius);
+  }
+
+  @Test
+  public void givenAttributeCache_whenCreateWithOtherAttributes_usesOtherAttributes() {
+    MaterialButtonAttributes.setCacheEnabled(true);
+    new MaterialButton(context);
+    AttributeSet attributes =
+        Robolectric.buildAttributeSet().addAttribute(R.attr.cornerRadius, "40px").build();
+
+    MaterialButton materialButton = new MaterialButton(context, attributes);
+
+    assertThat(materialButton.getCornerRadius()).isEqualTo((int) LARGE_CORNER_SIZE);
+  }
+
+  @Test
+  public void givenImmutableShapeAppearanceModel_whenSetCornerRadius_replacesModel() {
+    MaterialButton materialButton = new MaterialButton(context);
+    ShapeAppearanceModel immutableModel = new ShapeAppearanceModel.Builder().build();
+    materialButton.setShapeAppearanceModel(immutableModel);
+
+    materialButton.setCornerRadius((int) LARGE_CORNER_SIZE);
+
+    assertThat(immutableModel.getTopLeftCorner().getCornerSize()).isEqualTo(0f);
+    assertThat(materialButton.getShapeAppearanceModel().getTopLeftCorner().getCornerSize())
+        .isEqualTo(LARGE_CORNER_SIZE);
+  }
+
+  @Test
+  public void givenImmutableShapeAppearanceModels_whenAddedToToggleGroup_replacesInnerCorners() {
+    ShapeAppearanceModel immutableModel =
+        new ShapeAppearanceModel.Builder().setCornerRadius(LARGE_CORNER_SIZE).build();
+    MaterialButtonToggleGroup toggleGroup = new MaterialButtonToggleGroup(context);
+    MaterialButton firstButton = new MaterialButton(context);
+    MaterialButton secondButton = new MaterialButton(context);
+    firstButton.setShapeAppearanceModel(immutableModel);
+    secondButton.setShapeAppearanceModel(immutableModel);
+
+    toggleGroup.addView(firstButton);
+    toggleGroup.addView(secondButton);
+    int unspecified = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+    toggleGroup.measure(unspecified, unspecified);
+
+    ShapeAppearanceModel firstModel = firstButton.getShapeAppearanceModel();
+    assertThat(firstModel.getTopLeftCorner().getCornerSize()).isEqualTo(LARGE_CORNER_SIZE);
+    assertThat(firstModel.getTopRightCorner().getCornerSize()).isEqualTo(0f);
+    ShapeAppearanceModel secondModel = secondButton.getShapeAppearanceModel();
+    assertThat(secondModel.getTopLeftCorner().getCornerSize()).isEqualTo(0f);
+    assertThat(secondModel.getTopRightCorner().getCornerSize()).isEqualTo(LARGE_CORNER_SIZE);
+    assertThat(immutableModel.getTopRightCorner().getCornerSize()).isEqualTo(LARGE_CORNER_SIZE);
+  }
+
   private void assertThatCornerFamilyMatches(
       ShapeAppearanceModel shapeAppearanceModel,
       Class<? extends CornerTreatment> expectedCornerFamily) {
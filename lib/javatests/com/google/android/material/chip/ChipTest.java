@@ -28,6 +28,7 @@ import android.text.TextUtils.TruncateAt;
 import android.view.View;
 import android.view.View.MeasureSpec;
 import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.shape.ShapeAppearanceModel;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -48,6 +49,7 @@ public class ChipTest {
   @Rule public final ExpectedException thrown = ExpectedException.none();
 
   private static final int CHIP_LINES = 2;
+  private static final float CHIP_CORNER_RADIUS = 12f;
   private static final double DELTA = 0.01;
   private static final int MIN_SIZE_FOR_ALLY_DP = 48;
 
@@ -167,6 +169,20 @@ public class ChipTest {
         chip.getMeasuredHeight() < getMinTouchTargetSize());
   }
 
+  @Test
+  public void givenImmutableShapeAppearanceModel_whenSetChipCornerRadius_replacesModel() {
+    ShapeAppearanceModel immutableModel = new ShapeAppearanceModel.Builder().build();
+    chip.setShapeAppearanceModel(immutableModel);
+
+    chip.setChipCornerRadius(CHIP_CORNER_RADIUS);
+
+    assertEquals(0f, immutableModel.getTopLeftCorner().getCornerSize(), DELTA);
+    assertEquals(
+        CHIP_CORNER_RADIUS,
+        chip.getShapeAppearanceModel().getTopLeftCorner().getCornerSize(),
+        DELTA);
+  }
+
   private static float getMinTouchTargetSize() {
     return dpToPx(ApplicationProvider.getApplicationContext(), MIN_SIZE_FOR_ALLY_DP);
   }
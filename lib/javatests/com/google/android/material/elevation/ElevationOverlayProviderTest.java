@@ -23,6 +23,7 @@ import static com.google.common.truth.Truth.assertThat;
 import android.content.Context;
 import android.graphics.Color;
 import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.color.MaterialColors;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -156,4 +157,18 @@ public class ElevationOverlayProviderTest {
 
     assertThat(provider.calculateOverlayAlpha(Float.MAX_VALUE)).isEqualTo(255);
   }
+
+  @Test
+  public void givenAnyElevation_whenLayerOverlay_matchesCalculatedColor() {
+    provider = new ElevationOverlayProvider(context);
+    int surfaceColor = provider.getSurfaceColor();
+
+    for (float elevation = -1; elevation < 200; elevation += 0.25f) {
+      float overlayAlpha = provider.calculateOverlayAlphaFraction(elevation);
+      assertThat(provider.layerOverlay(surfaceColor, elevation))
+          .isEqualTo(MaterialColors.layer(surfaceColor, provider.getOverlaysColor(), overlayAlpha));
+      assertThat(provider.layerOverlay(Color.RED, elevation))
+          .isEqualTo(MaterialColors.layer(Color.RED, provider.getOverlaysColor(), overlayAlpha));
+    }
+  }
 }
@@ -29,6 +29,7 @@ import android.content.Context;
 import androidx.appcompat.app.AppCompatActivity;
 import android.view.View.MeasureSpec;
 import androidx.test.core.app.ApplicationProvider;
+import com.google.android.material.shape.ShapeAppearanceModel;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -43,6 +44,8 @@ import org.robolectric.annotation.internal.DoNotInstrument;
 public class FabTest {
 
   private static final double DELTA = 0.01;
+  // Corner size of shapes using the default, size dependent corners.
+  private static final float DEFAULT_CORNER_SIZE = -1;
   private static final int MIN_SIZE_FOR_ALLY_DP = 48;
   private Context activity;
 
@@ -85,6 +88,41 @@ public class FabTest {
     assertTrue(fab.getMeasuredHeight() < minSize);
   }
 
+  @Test
+  public void givenImmutableDefaultCornerShape_whenSetSize_replacesModel() {
+    FloatingActionButton fab = new FloatingActionButton(activity);
+    ShapeAppearanceModel immutableModel =
+        new ShapeAppearanceModel.Builder().setCornerRadius(DEFAULT_CORNER_SIZE).build();
+    fab.setShapeAppearance(immutableModel);
+
+    fab.setSize(SIZE_MINI);
+
+    assertEquals(
+        DEFAULT_CORNER_SIZE, immutableModel.getTopLeftCorner().getCornerSize(), DELTA);
+    assertEquals(
+        fab.getSizeDimension() / 2f,
+        fab.getShapeAppearance().getTopLeftCorner().getCornerSize(),
+        DELTA);
+  }
+
+  @Test
+  public void givenImmutablePillShape_whenMeasureExtendedFab_replacesModel() {
+    ExtendedFloatingActionButton fab = new ExtendedFloatingActionButton(activity);
+    ShapeAppearanceModel immutableModel =
+        new ShapeAppearanceModel.Builder().setCornerRadius(ShapeAppearanceModel.PILL).build();
+    fab.setShapeAppearanceModel(immutableModel);
+
+    int measureSpec = MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED);
+    fab.measure(measureSpec, measureSpec);
+
+    assertEquals(
+        ShapeAppearanceModel.PILL, immutableModel.getTopLeftCorner().getCornerSize(), DELTA);
+    assertEquals(
+        (fab.getMeasuredHeight() - 1) / 2,
+        fab.getShapeAppearanceModel().getTopLeftCorner().getCornerSize(),
+        DELTA);
+  }
+
   private FloatingActionButton createFabForTest(boolean ensureMinTouchTarget) {
     FloatingActionButton fab = new FloatingActionButton(activity);
     float dimen = dpToPx(activity, MIN_SIZE_FOR_ALLY_DP);
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RenderNode;
+import android.os.Build.VERSION_CODES;
+import android.view.View;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link CollapsingTextHelper}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class CollapsingTextHelperTest {
+
+  private CollapsingTextHelper helper;
+  private InvalidationCountingView view;
+
+  @Before
+  public void createHelper() {
+    view = new InvalidationCountingView(ApplicationProvider.getApplicationContext());
+    view.layout(0, 0, 400, 200);
+    helper = new CollapsingTextHelper(view);
+    helper.setCollapsedTextSize(20);
+    helper.setExpandedTextSize(40);
+    helper.setCollapsedBounds(0, 0, 400, 50);
+    helper.setExpandedBounds(0, 100, 400, 200);
+    helper.setText("Title");
+  }
+
+  @Test
+  public void whenSetExpansionFraction_doesNotMeasureText() {
+    helper.setExpansionFraction(1f);
+    helper.setExpansionFraction(0f);
+    int textLayoutCount = helper.getTextLayoutCount();
+
+    for (int i = 0; i <= 10; i++) {
+      helper.setExpansionFraction(i / 10f);
+    }
+
+    assertThat(helper.getTextLayoutCount()).isEqualTo(textLayoutCount);
+  }
+
+  @Test
+  public void whenBoundsChange_measuresTextAgain() {
+    int textLayoutCount = helper.getTextLayoutCount();
+
+    helper.setCollapsedBounds(0, 0, 200, 50);
+    helper.recalculate();
+
+    assertThat(helper.getTextLayoutCount()).isGreaterThan(textLayoutCount);
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.Q)
+  public void givenRenderNodeEnabled_whenDrawnFromNodes_drawsRecordedTitleOnEveryChange() {
+    helper.setRenderNodeEnabled(true);
+    HardwareCanvas canvas = new HardwareCanvas();
+    helper.draw(canvas);
+    view.invalidationCount = 0;
+
+    helper.setExpansionFraction(0.2f);
+    helper.draw(canvas);
+    helper.setExpansionFraction(0.4f);
+    helper.draw(canvas);
+
+    assertThat(view.invalidationCount).isEqualTo(2);
+    assertThat(canvas.renderNodeCount).isEqualTo(3);
+    assertThat(canvas.textCount).isEqualTo(0);
+  }
+
+  @Test
+  @Config(sdk = VERSION_CODES.Q)
+  public void givenRenderNodeEnabled_whenDrawnInSoftware_drawsViewOnEveryChange() {
+    helper.setRenderNodeEnabled(true);
+    helper.draw(new Canvas(Bitmap.createBitmap(400, 200, Bitmap.Config.ARGB_8888)));
+    view.invalidationCount = 0;
+
+    helper.setExpansionFraction(0.2f);
+    helper.setExpansionFraction(0.4f);
+
+    assertThat(view.invalidationCount).isEqualTo(2);
+  }
+
+  private static class InvalidationCountingView extends View {
+
+    private int invalidationCount;
+
+    InvalidationCountingView(Context context) {
+      super(context);
+    }
+
+    @Override
+    public void postInvalidateOnAnimation() {
+      invalidationCount++;
+    }
+  }
+
+  /** Pretends to be hardware accelerated and counts the render nodes and text drawn into it. */
+  private static class HardwareCanvas extends Canvas {
+
+    private int renderNodeCount;
+    private int textCount;
+
+    @Override
+    public boolean isHardwareAccelerated() {
+      return true;
+    }
+
+    @Override
+    public void drawRenderNode(RenderNode renderNode) {
+      renderNodeCount++;
+    }
+
+    @Override
+    public void drawText(CharSequence text, int start, int end, float x, float y, Paint paint) {
+      textCount++;
+    }
+  }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link TextureBitmapPool}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TextureBitmapPoolTest {
+
+  @After
+  public void resetPool() {
+    TextureBitmapPool.setMaxBytes(TextureBitmapPool.DEFAULT_MAX_BYTES);
+    TextureBitmapPool.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+  }
+
+  @Test
+  public void whenAcquire_roundsUpToBucket() {
+    Bitmap bitmap = TextureBitmapPool.acquire(40, 10, Bitmap.Config.ALPHA_8);
+
+    assertThat(bitmap.getWidth()).isEqualTo(TextureBitmapPool.BUCKET_SIZE * 2);
+    assertThat(bitmap.getHeight()).isEqualTo(TextureBitmapPool.BUCKET_SIZE);
+  }
+
+  @Test
+  public void givenReleasedBitmap_whenAcquireSameBucket_returnsSameBitmap() {
+    Bitmap bitmap = TextureBitmapPool.acquire(40, 10, Bitmap.Config.ALPHA_8);
+    TextureBitmapPool.release(bitmap);
+
+    assertThat(TextureBitmapPool.acquire(50, 20, Bitmap.Config.ALPHA_8)).isSameInstanceAs(bitmap);
+  }
+
+  @Test
+  public void givenReleasedBitmap_whenAcquireDifferentConfig_returnsNewBitmap() {
+    Bitmap bitmap = TextureBitmapPool.acquire(40, 10, Bitmap.Config.ALPHA_8);
+    TextureBitmapPool.release(bitmap);
+
+    assertThat(TextureBitmapPool.acquire(40, 10, Bitmap.Config.ARGB_8888))
+        .isNotSameInstanceAs(bitmap);
+  }
+
+  @Test
+  public void givenPoolOverBudget_whenRelease_recyclesLeastRecentlyReleased() {
+    Bitmap first = TextureBitmapPool.acquire(32, 32, Bitmap.Config.ALPHA_8);
+    Bitmap second = TextureBitmapPool.acquire(64, 32, Bitmap.Config.ALPHA_8);
+    TextureBitmapPool.setMaxBytes(second.getByteCount());
+
+    TextureBitmapPool.release(first);
+    TextureBitmapPool.release(second);
+
+    assertThat(first.isRecycled()).isTrue();
+    assertThat(TextureBitmapPool.getPooledBytes()).isEqualTo(second.getByteCount());
+  }
+}
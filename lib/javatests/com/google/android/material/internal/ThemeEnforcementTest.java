@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.internal;
+
+import com.google.android.material.R;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link ThemeEnforcement}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ThemeEnforcementTest {
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  @Test
+  public void givenMaterialTheme_whenObtainStyledAttributesTwice_succeeds() {
+    Context materialContext =
+        new ContextThemeWrapper(context, R.style.Theme_MaterialComponents_Light);
+
+    obtainCardAttributes(materialContext);
+    obtainCardAttributes(materialContext);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void givenStyleCheckedInMaterialTheme_whenObtainInAppCompatTheme_throws() {
+    obtainCardAttributes(new ContextThemeWrapper(context, R.style.Theme_MaterialComponents_Light));
+
+    obtainCardAttributes(new ContextThemeWrapper(context, R.style.Theme_AppCompat_Light));
+  }
+
+  private static void obtainCardAttributes(Context context) {
+    ThemeEnforcement.obtainStyledAttributes(
+            context,
+            null,
+            R.styleable.MaterialCardView,
+            0,
+            R.style.Widget_MaterialComponents_CardView)
+        .recycle();
+  }
+}
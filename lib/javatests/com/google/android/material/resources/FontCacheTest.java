@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.resources;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.app.Application;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.graphics.Typeface;
+import android.os.Build.VERSION_CODES;
+import androidx.test.core.app.ApplicationProvider;
+import java.util.concurrent.Executor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link FontCache}. */
+@RunWith(RobolectricTestRunner.class)
+// Font files are loaded through Typeface.createFromFile() on this version.
+@Config(sdk = VERSION_CODES.LOLLIPOP)
+@DoNotInstrument
+public class FontCacheTest {
+
+  private static final Executor DIRECT_EXECUTOR =
+      new Executor() {
+        @Override
+        public void execute(Runnable task) {
+          task.run();
+        }
+      };
+
+  private final Application context = ApplicationProvider.getApplicationContext();
+
+  @Before
+  public void clearFontCache() {
+    FontCache.clear();
+  }
+
+  @Test
+  public void givenFontLoaded_whenTextAppearanceUsesSameFont_reusesCachedFont() {
+    new TextAppearance(context, R.style.TestTextAppearance_Font).getFont(context);
+    assertThat(FontCache.get(context, R.font.test_font)).isNotNull();
+    // Replace the loaded font, so that the font of the next text appearance shows where it's from.
+    FontCache.put(context, R.font.test_font, Typeface.MONOSPACE);
+
+    Typeface font = new TextAppearance(context, R.style.TestTextAppearance_Font).getFont(context);
+
+    assertThat(shadowOf(font).getFontDescription().getFamilyName()).isEqualTo("monospace");
+  }
+
+  @Test
+  public void givenDirectExecutor_whenFontsPreloaded_cachesFonts() {
+    TextAppearanceConfig.preloadFonts(context, DIRECT_EXECUTOR, R.style.TestTextAppearance_Font);
+
+    assertThat(FontCache.get(context, R.font.test_font)).isNotNull();
+  }
+
+  @Test
+  public void givenCachedFont_whenConfigurationDiffers_returnsNull() {
+    FontCache.put(context, R.font.test_font, Typeface.MONOSPACE);
+    Configuration configuration = new Configuration(context.getResources().getConfiguration());
+    configuration.uiMode &= ~Configuration.UI_MODE_NIGHT_MASK;
+    configuration.uiMode |= Configuration.UI_MODE_NIGHT_YES;
+    Context configurationContext = context.createConfigurationContext(configuration);
+
+    assertThat(FontCache.get(configurationContext, R.font.test_font)).isNull();
+    assertThat(FontCache.get(context, R.font.test_font)).isSameInstanceAs(Typeface.MONOSPACE);
+  }
+
+  @Test
+  public void givenCachedFont_whenMemoryIsTrimmed_clearsFonts() {
+    FontCache.put(context, R.font.test_font, Typeface.MONOSPACE);
+
+    context.onTrimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+
+    assertThat(FontCache.get(context, R.font.test_font)).isNull();
+  }
+}
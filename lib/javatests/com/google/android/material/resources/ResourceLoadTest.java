@@ -19,8 +19,14 @@ package com.google.android.material.resources;
 import com.google.android.material.R;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import android.content.Context;
+import android.content.res.Configuration;
+import android.util.TypedValue;
+import android.view.ContextThemeWrapper;
 import androidx.test.core.app.ApplicationProvider;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -75,4 +81,51 @@ public class ResourceLoadTest {
     assertEquals(
         context.getResources().getDimensionPixelSize(R.dimen.default_dimension), resolvedDimension);
   }
+
+  @Test
+  public void resolvedValueIsNotSharedWithCache() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light_BarSize);
+    TypedValue typedValue = MaterialAttributes.resolve(context, R.attr.actionBarSize);
+    int data = typedValue.data;
+    typedValue.data = 0;
+
+    assertEquals(data, MaterialAttributes.resolve(context, R.attr.actionBarSize).data);
+  }
+
+  @Test
+  public void resolvedValueIsNotSharedAcrossConfigurations() {
+    Context dayContext = createDayNightContext(Configuration.UI_MODE_NIGHT_NO);
+    Context nightContext = createDayNightContext(Configuration.UI_MODE_NIGHT_YES);
+
+    int dayColor = MaterialAttributes.resolve(dayContext, R.attr.colorSurface).data;
+    int nightColor = MaterialAttributes.resolve(nightContext, R.attr.colorSurface).data;
+
+    assertNotEquals(dayColor, nightColor);
+    assertEquals(resolveUncached(dayContext, R.attr.colorSurface), dayColor);
+    assertEquals(resolveUncached(nightContext, R.attr.colorSurface), nightColor);
+  }
+
+  @Test
+  public void resolvedValueIsUpdatedWhenStyleIsApplied() {
+    Context themedContext = new ContextThemeWrapper(context, R.style.EmptyTheme);
+    assertNull(MaterialAttributes.resolve(themedContext, R.attr.actionBarSize));
+
+    themedContext.getTheme().applyStyle(R.style.Theme_MaterialComponents_Light_BarSize, true);
+
+    assertNotNull(MaterialAttributes.resolve(themedContext, R.attr.actionBarSize));
+  }
+
+  private Context createDayNightContext(int nightMode) {
+    Configuration configuration = new Configuration(context.getResources().getConfiguration());
+    configuration.uiMode = (configuration.uiMode & ~Configuration.UI_MODE_NIGHT_MASK) | nightMode;
+    Context configurationContext = context.createConfigurationContext(configuration);
+    return new ContextThemeWrapper(
+        configurationContext, R.style.Theme_MaterialComponents_DayNight);
+  }
+
+  private static int resolveUncached(Context context, int attributeResId) {
+    TypedValue typedValue = new TypedValue();
+    context.getTheme().resolveAttribute(attributeResId, typedValue, true);
+    return typedValue.data;
+  }
 }
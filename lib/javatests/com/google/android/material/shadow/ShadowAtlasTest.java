@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shadow;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link ShadowAtlas}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ShadowAtlasTest {
+
+  private static final int ELEVATION = 4;
+  private static final float RADIUS = 12;
+  private static final float LARGE_RADIUS = 1000;
+
+  private static final int[] EDGE_COLORS = new int[] {Color.TRANSPARENT, Color.GRAY, Color.BLACK};
+  private static final float[] EDGE_POSITIONS = new float[] {0f, .5f, 1f};
+  private static final int[] CORNER_COLORS =
+      new int[] {Color.TRANSPARENT, Color.BLACK, Color.GRAY, Color.TRANSPARENT};
+  private static final float[] CORNER_POSITIONS = new float[] {0f, .6f, .8f, 1f};
+
+  private ShadowAtlas atlas;
+
+  @Before
+  public void createAtlas() {
+    atlas = new ShadowAtlas(1024 * 1024);
+  }
+
+  @Test
+  public void givenSameEdge_whenGetEdgeTile_returnsSameTile() {
+    assertThat(atlas.getEdgeTile(ELEVATION, EDGE_COLORS, EDGE_POSITIONS))
+        .isSameInstanceAs(atlas.getEdgeTile(ELEVATION, EDGE_COLORS, EDGE_POSITIONS));
+  }
+
+  @Test
+  public void givenDifferentElevation_whenGetEdgeTile_returnsDifferentTile() {
+    assertThat(atlas.getEdgeTile(ELEVATION, EDGE_COLORS, EDGE_POSITIONS))
+        .isNotSameInstanceAs(atlas.getEdgeTile(ELEVATION * 2, EDGE_COLORS, EDGE_POSITIONS));
+  }
+
+  @Test
+  public void givenSameCorner_whenGetCornerTile_returnsSameTile() {
+    Bitmap tile =
+        atlas.getCornerTile(RADIUS, ELEVATION, false, CORNER_COLORS, CORNER_POSITIONS);
+
+    assertThat(atlas.getCornerTile(RADIUS, ELEVATION, false, CORNER_COLORS, CORNER_POSITIONS))
+        .isSameInstanceAs(tile);
+  }
+
+  @Test
+  public void givenLargeCorner_whenGetCornerTile_returnsNull() {
+    assertThat(
+            atlas.getCornerTile(LARGE_RADIUS, ELEVATION, false, CORNER_COLORS, CORNER_POSITIONS))
+        .isNull();
+  }
+
+  @Test
+  public void givenTiles_whenTrimMemory_removesTiles() {
+    atlas.getEdgeTile(ELEVATION, EDGE_COLORS, EDGE_POSITIONS);
+    atlas.getCornerTile(RADIUS, ELEVATION, false, CORNER_COLORS, CORNER_POSITIONS);
+
+    atlas.trimMemory(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+
+    assertThat(atlas.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void givenTilesLargerThanMaxSize_whenGetTiles_evictsLeastRecentlyUsed() {
+    int tileSize = ShadowAtlas.getCornerTileSize(RADIUS);
+    int tileBytes = tileSize * tileSize * 4;
+    atlas = new ShadowAtlas(tileBytes * 3 / 2);
+
+    atlas.getCornerTile(RADIUS, ELEVATION, false, CORNER_COLORS, CORNER_POSITIONS);
+    atlas.getCornerTile(RADIUS, ELEVATION, true, CORNER_COLORS, CORNER_POSITIONS);
+
+    assertThat(atlas.size()).isEqualTo(tileBytes);
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shadow;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/**
+ * Tests for {@link ShadowRenderer}. Each steady-state draw is expected to re-use the shaders of the
+ * previous draw instead of allocating new ones.
+ */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ShadowRendererTest {
+
+  private static final int ELEVATION = 4;
+  private static final float SMALL_RADIUS = 12;
+  private static final float LARGE_RADIUS = 500;
+
+  private final ShadowRenderer shadowRenderer = new ShadowRenderer();
+  private final Canvas canvas = new Canvas(Bitmap.createBitmap(100, 100, Bitmap.Config.ARGB_8888));
+  private final Matrix matrix = new Matrix();
+
+  @Test
+  public void givenSameEdge_whenDrawEdgeShadowTwice_reusesShader() {
+    shadowRenderer.drawEdgeShadow(canvas, matrix, new RectF(0, 0, 50, 0), ELEVATION);
+    Shader shader = shadowRenderer.getEdgeShadowPaint().getShader();
+
+    shadowRenderer.drawEdgeShadow(canvas, matrix, new RectF(0, 20, 80, 20), ELEVATION);
+
+    assertThat(shadowRenderer.getEdgeShadowPaint().getShader()).isSameInstanceAs(shader);
+  }
+
+  @Test
+  public void givenSameCorner_whenDrawCornerShadowTwice_reusesShader() {
+    drawCornerShadow(SMALL_RADIUS, 0);
+    Shader shader = shadowRenderer.getCornerShadowPaint().getShader();
+
+    drawCornerShadow(SMALL_RADIUS, 40);
+
+    assertThat(shadowRenderer.getCornerShadowPaint().getShader()).isSameInstanceAs(shader);
+  }
+
+  @Test
+  public void givenTwoRenderers_whenDrawSameCornerShadow_useDifferentShaders() {
+    ShadowRenderer otherShadowRenderer = new ShadowRenderer();
+    drawCornerShadow(SMALL_RADIUS, 0);
+    otherShadowRenderer.drawCornerShadow(
+        canvas, matrix, new RectF(0, 0, SMALL_RADIUS * 2, SMALL_RADIUS * 2), ELEVATION, 180, 90);
+
+    // The renderers share the tile, but each moves its own shader into place.
+    assertThat(otherShadowRenderer.getCornerShadowPaint().getShader())
+        .isNotSameInstanceAs(shadowRenderer.getCornerShadowPaint().getShader());
+  }
+
+  @Test
+  public void givenSameLargeCorner_whenDrawCornerShadowTwice_reusesShader() {
+    drawCornerShadow(LARGE_RADIUS, 0);
+    Shader shader = shadowRenderer.getCornerShadowPaint().getShader();
+
+    drawCornerShadow(LARGE_RADIUS, 40);
+
+    assertThat(shadowRenderer.getCornerShadowPaint().getShader()).isSameInstanceAs(shader);
+  }
+
+  @Test
+  public void givenLargeCornersWithDifferentRadii_whenDrawAlternately_reusesShaders() {
+    drawCornerShadow(LARGE_RADIUS, 0);
+    Shader shader = shadowRenderer.getCornerShadowPaint().getShader();
+
+    drawCornerShadow(LARGE_RADIUS * 2, 0);
+    drawCornerShadow(LARGE_RADIUS, 0);
+
+    assertThat(shadowRenderer.getCornerShadowPaint().getShader()).isSameInstanceAs(shader);
+  }
+
+  @Test
+  public void givenNewShadowColor_whenDrawCornerShadow_createsNewShader() {
+    drawCornerShadow(LARGE_RADIUS, 0);
+    Shader shader = shadowRenderer.getCornerShadowPaint().getShader();
+
+    shadowRenderer.setShadowColor(0xFF0000FF);
+    drawCornerShadow(LARGE_RADIUS, 0);
+
+    assertThat(shadowRenderer.getCornerShadowPaint().getShader()).isNotSameInstanceAs(shader);
+  }
+
+  private void drawCornerShadow(float radius, float offset) {
+    RectF bounds = new RectF(offset, offset, offset + radius * 2, offset + radius * 2);
+    shadowRenderer.drawCornerShadow(canvas, matrix, bounds, ELEVATION, 180, 90);
+  }
+}
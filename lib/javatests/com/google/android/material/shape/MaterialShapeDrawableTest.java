@@ -19,7 +19,13 @@ import com.google.android.material.R;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Path;
+import android.graphics.PathMeasure;
+import android.graphics.RectF;
 import androidx.test.core.app.ApplicationProvider;
 import com.google.android.material.color.MaterialColors;
 import org.junit.Before;
@@ -36,6 +42,8 @@ public class MaterialShapeDrawableTest {
   private static final float ELEVATION = 4;
   private static final float TRANSLATION_Z = 2;
   private static final float Z = ELEVATION + TRANSLATION_Z;
+  private static final float TOLERANCE = 0.01f;
+  private static final int PATH_SAMPLES = 64;
 
   private final Context context = ApplicationProvider.getApplicationContext();
 
@@ -134,4 +142,106 @@ public class MaterialShapeDrawableTest {
     assertThat(drawable.getFillColor().getDefaultColor()).isEqualTo(colorSurface);
     assertThat(drawable.isElevationOverlayInitialized()).isTrue();
   }
+
+  @Test
+  public void givenCompatShadow_whenDrawnTwice_keepsShadowLayer() {
+    MaterialShapeDrawable drawable = createDrawableWithCompatShadow();
+    Canvas canvas = createCanvas();
+
+    drawable.draw(canvas);
+    int byteCount = drawable.getShadowLayerByteCount();
+    drawable.draw(canvas);
+
+    assertThat(byteCount).isGreaterThan(0);
+    assertThat(drawable.getShadowLayerByteCount()).isEqualTo(byteCount);
+  }
+
+  @Test
+  public void givenCachedShadowLayer_whenTrimShadowLayerCache_releasesShadowLayer() {
+    MaterialShapeDrawable drawable = createDrawableWithCompatShadow();
+    drawable.draw(createCanvas());
+
+    MaterialShapeDrawable.trimShadowLayerCache(ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE);
+
+    assertThat(drawable.getShadowLayerByteCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void givenShadowLayerLargerThanBudget_whenDrawn_doesNotKeepShadowLayer() {
+    MaterialShapeDrawable drawable = createDrawableWithCompatShadow();
+    MaterialShapeDrawable.setShadowLayerCacheMaxBytes(0);
+    try {
+      drawable.draw(createCanvas());
+
+      assertThat(drawable.getShadowLayerByteCount()).isEqualTo(0);
+    } finally {
+      MaterialShapeDrawable.setShadowLayerCacheMaxBytes(ShadowLayerCache.DEFAULT_MAX_BYTES);
+    }
+  }
+
+  @Test
+  public void givenInterpolateKeyPoints_whenGetPathForSize_matchesComputedCutCornerPath() {
+    ShapeAppearanceModel shapeAppearanceModel = new ShapeAppearanceModel();
+    shapeAppearanceModel.setAllCorners(CornerFamily.CUT, 20);
+    shapeAppearanceModel.setTopEdge(new TriangleEdgeTreatment(10, false));
+
+    assertInterpolatedPathsMatchComputedPaths(shapeAppearanceModel);
+  }
+
+  @Test
+  public void givenInterpolateKeyPoints_whenGetPathForSize_matchesComputedRoundedCornerPath() {
+    ShapeAppearanceModel shapeAppearanceModel = new ShapeAppearanceModel();
+    shapeAppearanceModel.setAllCorners(CornerFamily.ROUNDED, 20);
+    shapeAppearanceModel.setCornerRadii(10, 20, 30, 40);
+    shapeAppearanceModel.setBottomEdge(new TriangleEdgeTreatment(10, true));
+
+    assertInterpolatedPathsMatchComputedPaths(shapeAppearanceModel);
+  }
+
+  private static void assertInterpolatedPathsMatchComputedPaths(
+      ShapeAppearanceModel shapeAppearanceModel) {
+    MaterialShapeDrawable drawable = new MaterialShapeDrawable(shapeAppearanceModel);
+    drawable.setInterpolateKeyPoints(true);
+    ShapeAppearancePathProvider pathProvider = new ShapeAppearancePathProvider();
+    RectF bounds = new RectF(0, 0, 100, 100);
+    for (float interpolation : new float[] {0, 0.5f, 1}) {
+      drawable.setInterpolation(interpolation);
+      Path interpolatedPath = new Path();
+      drawable.getPathForSize(100, 100, interpolatedPath);
+      Path computedPath = new Path();
+      pathProvider.calculatePath(shapeAppearanceModel, interpolation, bounds, computedPath);
+
+      assertPathsMatch(computedPath, interpolatedPath);
+    }
+  }
+
+  /** Checks that both paths have the same length and pass through the same points. */
+  private static void assertPathsMatch(Path expected, Path actual) {
+    PathMeasure expectedMeasure = new PathMeasure(expected, false);
+    PathMeasure actualMeasure = new PathMeasure(actual, false);
+    float length = expectedMeasure.getLength();
+    assertThat(length).isGreaterThan(0f);
+    assertThat(actualMeasure.getLength()).isWithin(TOLERANCE).of(length);
+    float[] expectedPosition = new float[2];
+    float[] actualPosition = new float[2];
+    for (int i = 0; i <= PATH_SAMPLES; i++) {
+      float distance = length * i / PATH_SAMPLES;
+      expectedMeasure.getPosTan(distance, expectedPosition, null);
+      actualMeasure.getPosTan(distance, actualPosition, null);
+      assertThat(actualPosition[0]).isWithin(TOLERANCE).of(expectedPosition[0]);
+      assertThat(actualPosition[1]).isWithin(TOLERANCE).of(expectedPosition[1]);
+    }
+  }
+
+  private static MaterialShapeDrawable createDrawableWithCompatShadow() {
+    MaterialShapeDrawable drawable = new MaterialShapeDrawable();
+    drawable.setShadowCompatibilityMode(MaterialShapeDrawable.SHADOW_COMPAT_MODE_ALWAYS);
+    drawable.setElevation(ELEVATION);
+    drawable.setBounds(0, 0, 100, 100);
+    return drawable;
+  }
+
+  private static Canvas createCanvas() {
+    return new Canvas(Bitmap.createBitmap(200, 200, Bitmap.Config.ARGB_8888));
+  }
 }
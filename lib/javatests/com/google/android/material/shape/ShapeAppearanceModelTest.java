@@ -22,6 +22,8 @@ import static com.google.common.truth.Truth.assertThat;
 import android.content.Context;
 import android.util.AttributeSet;
 import androidx.test.core.app.ApplicationProvider;
+import java.util.HashSet;
+import java.util.Set;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -167,6 +169,98 @@ public class ShapeAppearanceModelTest {
     assertCornerSize(largeCornerShape, LARGE_CORNER_SIZE);
   }
 
+  @Test
+  public void builder_buildsImmutableModel() {
+    shapeAppearance =
+        new ShapeAppearanceModel.Builder()
+            .setAllCorners(CornerFamily.CUT, (int) DEFAULT_CORNER_SIZE)
+            .build();
+
+    assertThat(shapeAppearance.isImmutable()).isTrue();
+    assertCornersInstanceOf(CutCornerTreatment.class);
+    assertCornerSize(DEFAULT_CORNER_SIZE);
+  }
+
+  @Test
+  public void builder_sameShape_returnsSameInstance() {
+    ShapeAppearanceModel first =
+        new ShapeAppearanceModel.Builder().setCornerRadius(DEFAULT_CORNER_SIZE).build();
+    ShapeAppearanceModel second =
+        new ShapeAppearanceModel.Builder().setCornerRadius(DEFAULT_CORNER_SIZE).build();
+
+    assertThat(second).isSameInstanceAs(first);
+  }
+
+  @Test
+  public void builder_differentShape_returnsDifferentInstance() {
+    ShapeAppearanceModel first =
+        new ShapeAppearanceModel.Builder().setCornerRadius(DEFAULT_CORNER_SIZE).build();
+    ShapeAppearanceModel second =
+        new ShapeAppearanceModel.Builder().setCornerRadius(LARGE_CORNER_SIZE).build();
+
+    assertThat(second).isNotEqualTo(first);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void immutableModel_setCornerRadius_throws() {
+    new ShapeAppearanceModel.Builder().build().setCornerRadius(LARGE_CORNER_SIZE);
+  }
+
+  @Test
+  public void mutableModels_haveIdentityEquality() {
+    shapeAppearance = new ShapeAppearanceModel();
+    shapeAppearance.setAllCorners(CornerFamily.CUT, (int) DEFAULT_CORNER_SIZE);
+    ShapeAppearanceModel other = new ShapeAppearanceModel();
+    other.setAllCorners(CornerFamily.CUT, (int) DEFAULT_CORNER_SIZE);
+
+    assertThat(other).isNotEqualTo(shapeAppearance);
+  }
+
+  @Test
+  public void mutableModelInSet_setCornerRadius_staysInSet() {
+    shapeAppearance = new ShapeAppearanceModel();
+    Set<ShapeAppearanceModel> models = new HashSet<>();
+    models.add(shapeAppearance);
+
+    shapeAppearance.setCornerRadius(LARGE_CORNER_SIZE);
+
+    assertThat(models.contains(shapeAppearance)).isTrue();
+  }
+
+  @Test
+  public void materialShapeDrawableWithImmutableModel_setCornerRadius_replacesModel() {
+    ShapeAppearanceModel immutableModel =
+        new ShapeAppearanceModel.Builder().setCornerRadius(DEFAULT_CORNER_SIZE).build();
+    MaterialShapeDrawable drawable = new MaterialShapeDrawable(immutableModel);
+
+    drawable.setCornerRadius(LARGE_CORNER_SIZE);
+
+    assertCornerSize(immutableModel, DEFAULT_CORNER_SIZE);
+    assertCornerSize(drawable.getShapeAppearanceModel(), LARGE_CORNER_SIZE);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void builtModel_setCornerSizeOnTreatment_throws() {
+    ShapeAppearanceModel immutableModel =
+        new ShapeAppearanceModel.Builder().setCornerRadius(DEFAULT_CORNER_SIZE).build();
+
+    immutableModel.getTopLeftCorner().setCornerSize(LARGE_CORNER_SIZE);
+  }
+
+  @Test
+  public void builtModel_copy_canBeModified() {
+    ShapeAppearanceModel immutableModel =
+        new ShapeAppearanceModel.Builder().setCornerRadius(DEFAULT_CORNER_SIZE).build();
+    ShapeAppearanceModel copy = new ShapeAppearanceModel(immutableModel);
+
+    copy.getTopLeftCorner().setCornerSize(LARGE_CORNER_SIZE);
+
+    assertThat(copy.getTopLeftCorner().getCornerSize()).isEqualTo(LARGE_CORNER_SIZE);
+    assertCornerSize(immutableModel, DEFAULT_CORNER_SIZE);
+    assertThat(new ShapeAppearanceModel.Builder().setCornerRadius(DEFAULT_CORNER_SIZE).build())
+        .isSameInstanceAs(immutableModel);
+  }
+
   private AttributeSetBuilder buildStyleAttributeSet() {
     return Robolectric.buildAttributeSet()
         .addAttribute(R.attr.shapeAppearance, "@style/ShapeAppearance.MaterialComponents.Test");
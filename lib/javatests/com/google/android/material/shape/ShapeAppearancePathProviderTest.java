@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link ShapeAppearancePathProvider}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ShapeAppearancePathProviderTest {
+
+  private static final float CORNER_SIZE = 10;
+
+  private final ShapeAppearancePathProvider pathProvider = new ShapeAppearancePathProvider();
+  private final Path path = new Path();
+
+  private ShapeAppearanceModel shapeAppearanceModel;
+
+  @Before
+  public void createShapeAppearanceModel() {
+    shapeAppearanceModel = new ShapeAppearanceModel();
+    shapeAppearanceModel.setCornerRadius(CORNER_SIZE);
+  }
+
+  @Test
+  public void givenSameSize_whenCalculatePath_hitsCache() {
+    pathProvider.calculatePath(shapeAppearanceModel, 1, new RectF(0, 0, 100, 50), path);
+    pathProvider.calculatePath(shapeAppearanceModel, 1, new RectF(20, 20, 120, 70), path);
+
+    assertThat(pathProvider.getPathCacheMissCount()).isEqualTo(1);
+    assertThat(pathProvider.getPathCacheHitCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void givenOscillatingSizes_whenCalculatePath_hitsCache() {
+    for (int i = 0; i < 3; i++) {
+      pathProvider.calculatePath(shapeAppearanceModel, 1, new RectF(0, 0, 100, 50), path);
+      pathProvider.calculatePath(shapeAppearanceModel, 1, new RectF(0, 0, 100, 60), path);
+    }
+
+    assertThat(pathProvider.getPathCacheMissCount()).isEqualTo(2);
+    assertThat(pathProvider.getPathCacheHitCount()).isEqualTo(4);
+  }
+
+  @Test
+  public void givenChangedCornerSize_whenCalculatePath_missesCache() {
+    pathProvider.calculatePath(shapeAppearanceModel, 1, new RectF(0, 0, 100, 50), path);
+    shapeAppearanceModel.getTopLeftCorner().setCornerSize(CORNER_SIZE * 2);
+    pathProvider.calculatePath(shapeAppearanceModel, 1, new RectF(0, 0, 100, 50), path);
+
+    assertThat(pathProvider.getPathCacheMissCount()).isEqualTo(2);
+    assertThat(pathProvider.getPathCacheHitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void givenCustomTreatment_whenCalculatePath_doesNotUseCache() {
+    shapeAppearanceModel.setTopEdge(new EdgeTreatment() {});
+    pathProvider.calculatePath(shapeAppearanceModel, 1, new RectF(0, 0, 100, 50), path);
+    pathProvider.calculatePath(shapeAppearanceModel, 1, new RectF(0, 0, 100, 50), path);
+
+    assertThat(pathProvider.getPathCacheMissCount()).isEqualTo(0);
+    assertThat(pathProvider.getPathCacheHitCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void givenCutCorners_whenCalculatePath_fillsBounds() {
+    shapeAppearanceModel.setAllCorners(CornerFamily.CUT, (int) CORNER_SIZE);
+    RectF bounds = new RectF(10, 20, 110, 70);
+    pathProvider.calculatePath(shapeAppearanceModel, 1, bounds, path);
+
+    RectF pathBounds = new RectF();
+    path.computeBounds(pathBounds, true);
+    assertThat(pathBounds).isEqualTo(bounds);
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.graphics.Path;
+import android.graphics.RectF;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link ShapeConvexHull}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ShapeConvexHullTest {
+
+  private static final float TOLERANCE = 0.01f;
+
+  private final ShapeConvexHull convexHull = new ShapeConvexHull();
+  private final ShapeAppearancePathProvider pathProvider = new ShapeAppearancePathProvider();
+  private final Path hullPath = new Path();
+
+  @Test
+  public void givenConcaveShape_whenCalculateHull_coversBounds() {
+    ShapeAppearanceModel shapeAppearanceModel = new ShapeAppearanceModel();
+    shapeAppearanceModel.setAllCorners(CornerFamily.CUT, 10);
+    shapeAppearanceModel.setAllEdges(new TriangleEdgeTreatment(10, true));
+    RectF bounds = new RectF(0, 0, 100, 100);
+
+    assertThat(convexHull.calculateHull(pathProvider, shapeAppearanceModel, 1, bounds, hullPath))
+        .isTrue();
+
+    RectF hullBounds = new RectF();
+    hullPath.computeBounds(hullBounds, true);
+    assertThat(hullBounds.left).isWithin(TOLERANCE).of(bounds.left);
+    assertThat(hullBounds.top).isWithin(TOLERANCE).of(bounds.top);
+    assertThat(hullBounds.right).isWithin(TOLERANCE).of(bounds.right);
+    assertThat(hullBounds.bottom).isWithin(TOLERANCE).of(bounds.bottom);
+  }
+
+  @Test
+  public void givenRoundedCorners_whenCalculateHull_enclosesCorners() {
+    ShapeAppearanceModel shapeAppearanceModel = new ShapeAppearanceModel();
+    shapeAppearanceModel.setCornerRadius(50);
+    RectF bounds = new RectF(0, 0, 100, 100);
+
+    assertThat(convexHull.calculateHull(pathProvider, shapeAppearanceModel, 1, bounds, hullPath))
+        .isTrue();
+
+    RectF hullBounds = new RectF();
+    hullPath.computeBounds(hullBounds, true);
+    assertThat(hullBounds.width()).isAtLeast(bounds.width() - TOLERANCE);
+    assertThat(hullBounds.height()).isAtLeast(bounds.height() - TOLERANCE);
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.shape;
+
+import static com.google.android.material.shape.ShapePath.OPERATION_ARC;
+import static com.google.android.material.shape.ShapePath.OPERATION_LINE;
+import static com.google.android.material.shape.ShapePath.VALUES_PER_OPERATION;
+import static com.google.common.truth.Truth.assertThat;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.RectF;
+import com.google.android.material.shadow.ShadowRenderer;
+import com.google.android.material.shape.ShapePath.OperationList;
+import com.google.android.material.shape.ShapePath.PathShadowOperation;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link ShapePath}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class ShapePathTest {
+
+  private static final int ELEVATION = 4;
+
+  private final ShapePath shapePath = new ShapePath();
+  private final RecordingShadowRenderer shadowRenderer = new RecordingShadowRenderer();
+  private final Canvas canvas = new Canvas(Bitmap.createBitmap(1, 1, Bitmap.Config.ARGB_8888));
+
+  @Test
+  public void lineAndArc_recordsOperations() {
+    shapePath.lineTo(10, 0);
+    shapePath.addArc(0, 0, 20, 20, 270, 90);
+
+    OperationList operations = new OperationList();
+    Matrix translation = new Matrix();
+    translation.setTranslate(5, 5);
+    assertThat(shapePath.appendMappedOperations(translation, operations)).isTrue();
+
+    assertThat(operations.size).isEqualTo(2);
+    assertThat(operations.types[0]).isEqualTo(OPERATION_LINE);
+    assertThat(operations.values[0]).isEqualTo(15f);
+    assertThat(operations.values[1]).isEqualTo(5f);
+    assertThat(operations.types[1]).isEqualTo(OPERATION_ARC);
+    int offset = VALUES_PER_OPERATION;
+    assertThat(operations.values[offset]).isEqualTo(5f);
+    assertThat(operations.values[offset + 1]).isEqualTo(5f);
+    assertThat(operations.values[offset + 2]).isEqualTo(25f);
+    assertThat(operations.values[offset + 3]).isEqualTo(25f);
+    assertThat(operations.values[offset + 4]).isEqualTo(270f);
+    assertThat(operations.values[offset + 5]).isEqualTo(90f);
+    assertThat(shapePath.endX).isWithin(0.001f).of(20);
+    assertThat(shapePath.endY).isWithin(0.001f).of(10);
+  }
+
+  @Test
+  public void lineAndArc_drawsEdgeAndCornerShadows() {
+    shapePath.lineTo(10, 0);
+    shapePath.addArc(0, 0, 20, 20, 270, 90);
+
+    drawShadow();
+
+    assertThat(shadowRenderer.edgeBounds).containsExactly(new RectF(0, 0, 10, 0));
+    assertThat(shadowRenderer.cornerBounds).containsExactly(new RectF(0, 0, 20, 20));
+    assertThat(shadowRenderer.cornerAngles).containsExactly(270f, 90f).inOrder();
+  }
+
+  @Test
+  public void linesAtRightAngle_drawConnectingCornerShadow() {
+    shapePath.lineTo(10, 0);
+    shapePath.lineTo(10, 10);
+
+    drawShadow();
+
+    assertThat(shadowRenderer.edgeBounds)
+        .containsExactly(new RectF(0, 0, 10, 0), new RectF(0, 0, 10, 0));
+    // The gap between the two edge shadows is filled by an empty arc at the shared point.
+    assertThat(shadowRenderer.cornerBounds).containsExactly(new RectF(10, 0, 10, 0));
+    assertThat(shadowRenderer.cornerAngles).containsExactly(270f, 90f).inOrder();
+  }
+
+  @Test
+  public void reset_clearsShadow() {
+    shapePath.lineTo(10, 0);
+    shapePath.reset(0, 0);
+
+    drawShadow();
+
+    assertThat(shadowRenderer.edgeBounds).isEmpty();
+    assertThat(shadowRenderer.cornerBounds).isEmpty();
+  }
+
+  private void drawShadow() {
+    PathShadowOperation shadowOperation = new PathShadowOperation();
+    shapePath.fillShadowCompatOperation(new Matrix(), shadowOperation);
+    shadowOperation.draw(shadowRenderer, ELEVATION, canvas);
+  }
+
+  /** Records the shadows drawn instead of drawing them. */
+  private static class RecordingShadowRenderer extends ShadowRenderer {
+
+    private final List<RectF> edgeBounds = new ArrayList<>();
+    private final List<RectF> cornerBounds = new ArrayList<>();
+    private final List<Float> cornerAngles = new ArrayList<>();
+
+    @Override
+    public void drawEdgeShadow(Canvas canvas, Matrix transform, RectF bounds, int elevation) {
+      edgeBounds.add(new RectF(bounds));
+    }
+
+    @Override
+    public void drawCornerShadow(
+        Canvas canvas,
+        Matrix matrix,
+        RectF bounds,
+        int elevation,
+        float startAngle,
+        float sweepAngle) {
+      cornerBounds.add(new RectF(bounds));
+      cornerAngles.add(startAngle);
+      cornerAngles.add(sweepAngle);
+    }
+  }
+}
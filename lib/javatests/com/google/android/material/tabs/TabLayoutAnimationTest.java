@@ -0,0 +1,83 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.tabs;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.animation.ValueAnimator;
+import androidx.appcompat.app.AppCompatActivity;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup.LayoutParams;
+import androidx.test.core.app.ApplicationProvider;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for the tab selection animations of {@link TabLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TabLayoutAnimationTest {
+
+  private static final int TAB_COUNT = 10;
+  private static final int WIDTH = 400;
+  private static final int HEIGHT = 48;
+
+  private TabLayout tabLayout;
+
+  @Before
+  public void createTabLayout() {
+    ApplicationProvider.getApplicationContext()
+        .setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    AppCompatActivity activity = Robolectric.buildActivity(AppCompatActivity.class).setup().get();
+    tabLayout = new TabLayout(activity);
+    tabLayout.setTabMode(TabLayout.MODE_SCROLLABLE);
+    for (int i = 0; i < TAB_COUNT; i++) {
+      tabLayout.addTab(tabLayout.newTab().setText("Tab " + i));
+    }
+    activity.setContentView(tabLayout, new LayoutParams(WIDTH, HEIGHT));
+    tabLayout.measure(
+        MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+    tabLayout.layout(0, 0, WIDTH, HEIGHT);
+  }
+
+  @Test
+  public void whenTabSelected_animatesScrollAndIndicator() {
+    tabLayout.selectTab(tabLayout.getTabAt(TAB_COUNT - 1));
+
+    assertThat(tabLayout.getScrollAnimator()).isNotNull();
+    assertThat(tabLayout.getIndicatorAnimator()).isNotNull();
+  }
+
+  @Test
+  public void whenTabsSelectedAgain_reusesAnimators() {
+    tabLayout.selectTab(tabLayout.getTabAt(TAB_COUNT - 1));
+    ValueAnimator scrollAnimator = tabLayout.getScrollAnimator();
+    ValueAnimator indicatorAnimator = tabLayout.getIndicatorAnimator();
+
+    tabLayout.selectTab(tabLayout.getTabAt(0));
+    tabLayout.selectTab(tabLayout.getTabAt(TAB_COUNT / 2));
+
+    assertThat(tabLayout.getScrollAnimator()).isSameInstanceAs(scrollAnimator);
+    assertThat(tabLayout.getIndicatorAnimator()).isSameInstanceAs(indicatorAnimator);
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.tabs;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.content.Context;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.viewpager2.widget.ViewPager2;
+import android.view.View;
+import android.view.ViewGroup;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for {@link TabLayoutMediator}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TabLayoutMediatorTest {
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  private TitlesAdapter adapter;
+  private TabLayout tabLayout;
+  private int configuredTabCount;
+  private String contentVersion = "";
+  private final List<Integer> loadedPositions = new ArrayList<>();
+
+  @Before
+  public void attachMediator() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    adapter = new TitlesAdapter("A", "B", "C", "D");
+    ViewPager2 viewPager = new ViewPager2(context);
+    viewPager.setAdapter(adapter);
+    tabLayout = new TabLayout(context);
+    new TabLayoutMediator(
+            tabLayout,
+            viewPager,
+            new TabLayoutMediator.OnConfigureTabCallback() {
+              @Override
+              public void onConfigureTab(@NonNull TabLayout.Tab tab, int position) {
+                tab.setText(adapter.titles.get(position));
+                configuredTabCount++;
+              }
+            })
+        .attach();
+    configuredTabCount = 0;
+  }
+
+  @Test
+  public void givenTabs_whenItemsInserted_addsOnlyNewTabs() {
+    TabLayout.Tab firstTab = tabLayout.getTabAt(0);
+    TabLayout.Tab lastTab = tabLayout.getTabAt(3);
+
+    adapter.titles.addAll(1, Arrays.asList("X", "Y"));
+    adapter.notifyItemRangeInserted(1, 2);
+
+    assertTabTexts("A", "X", "Y", "B", "C", "D");
+    assertThat(configuredTabCount).isEqualTo(2);
+    assertThat(tabLayout.getTabAt(0)).isSameInstanceAs(firstTab);
+    assertThat(tabLayout.getTabAt(5)).isSameInstanceAs(lastTab);
+  }
+
+  @Test
+  public void givenSelectedTab_whenItemsInsertedBefore_keepsSelectedTab() {
+    TabLayout.Tab selectedTab = tabLayout.getTabAt(2);
+    selectedTab.select();
+
+    adapter.titles.add(0, "X");
+    adapter.notifyItemInserted(0);
+
+    assertThat(tabLayout.getSelectedTabPosition()).isEqualTo(3);
+    assertThat(tabLayout.getTabAt(3)).isSameInstanceAs(selectedTab);
+  }
+
+  @Test
+  public void givenTabs_whenItemsRemoved_removesOnlyTheirTabs() {
+    TabLayout.Tab lastTab = tabLayout.getTabAt(3);
+
+    adapter.titles.subList(1, 3).clear();
+    adapter.notifyItemRangeRemoved(1, 2);
+
+    assertTabTexts("A", "D");
+    assertThat(configuredTabCount).isEqualTo(0);
+    assertThat(tabLayout.getTabAt(1)).isSameInstanceAs(lastTab);
+  }
+
+  @Test
+  public void givenSelectedTab_whenItemRemoved_selectsAnotherTab() {
+    tabLayout.getTabAt(3).select();
+
+    adapter.titles.remove(3);
+    adapter.notifyItemRemoved(3);
+
+    assertTabTexts("A", "B", "C");
+    assertThat(tabLayout.getSelectedTabPosition()).isNotEqualTo(-1);
+  }
+
+  @Test
+  public void givenTabs_whenItemsChanged_reconfiguresSameTabs() {
+    TabLayout.Tab changedTab = tabLayout.getTabAt(1);
+    changedTab.setContentDescription("Description");
+
+    adapter.titles.set(1, "X");
+    adapter.notifyItemChanged(1);
+
+    assertTabTexts("A", "X", "C", "D");
+    assertThat(configuredTabCount).isEqualTo(1);
+    assertThat(tabLayout.getTabAt(1)).isSameInstanceAs(changedTab);
+    assertThat(changedTab.getContentDescription().toString()).isEqualTo("X");
+  }
+
+  @Test
+  public void givenSelectedTab_whenItemMoved_movesTabAndKeepsSelection() {
+    TabLayout.Tab movedTab = tabLayout.getTabAt(0);
+    movedTab.select();
+
+    adapter.titles.add(2, adapter.titles.remove(0));
+    adapter.notifyItemMoved(0, 2);
+
+    assertTabTexts("B", "C", "A", "D");
+    assertThat(configuredTabCount).isEqualTo(0);
+    assertThat(tabLayout.getTabAt(2)).isSameInstanceAs(movedTab);
+    assertThat(tabLayout.getSelectedTabPosition()).isEqualTo(2);
+  }
+
+  @Test
+  public void givenTabs_whenDataSetChanged_recreatesAllTabs() {
+    adapter.titles.add("E");
+    adapter.notifyDataSetChanged();
+
+    assertTabTexts("A", "B", "C", "D", "E");
+    assertThat(configuredTabCount).isEqualTo(5);
+  }
+
+  @Test
+  public void givenContentLoader_whenAttached_appliesContentOnceLoaded() {
+    List<Runnable> tasks = attachContentLoadingMediator();
+    assertThat(tabLayout.getTabCount()).isEqualTo(4);
+    assertThat(tabLayout.getTabAt(0).getText()).isNull();
+
+    runTasks(tasks);
+
+    assertTabTexts("A", "B", "C", "D");
+    assertThat(tabLayout.getTabAt(2).getBadge().getNumber()).isEqualTo(2);
+  }
+
+  @Test
+  public void givenContentLoader_whenItemInsertedWhileLoading_dropsOutdatedContent() {
+    List<Runnable> tasks = attachContentLoadingMediator();
+    adapter.titles.add(0, "X");
+    adapter.snapshotTitles();
+    adapter.notifyItemInserted(0);
+
+    // Content requested before the insertion finishes loading last
+    runTasks(tasks.subList(1, tasks.size()));
+    contentVersion = " (outdated)";
+    runTasks(tasks.subList(0, 1));
+
+    assertTabTexts("X", "A", "B", "C", "D");
+  }
+
+  @Test
+  public void givenLoadedContent_whenItemsInserted_onlyLoadsInsertedTabs() {
+    List<Runnable> tasks = attachContentLoadingMediator();
+    runTasks(tasks);
+    tasks.clear();
+    loadedPositions.clear();
+
+    adapter.titles.addAll(1, Arrays.asList("X", "Y"));
+    adapter.snapshotTitles();
+    adapter.notifyItemRangeInserted(1, 2);
+    runTasks(tasks);
+
+    assertTabTexts("A", "X", "Y", "B", "C", "D");
+    assertThat(loadedPositions).containsExactly(1, 2);
+  }
+
+  @Test
+  public void givenLoadedContent_whenItemRemovedAndMoved_loadsNothing() {
+    List<Runnable> tasks = attachContentLoadingMediator();
+    runTasks(tasks);
+    tasks.clear();
+
+    adapter.titles.remove(0);
+    adapter.snapshotTitles();
+    adapter.notifyItemRemoved(0);
+    adapter.titles.add(2, adapter.titles.remove(0));
+    adapter.snapshotTitles();
+    adapter.notifyItemMoved(0, 2);
+
+    assertThat(tasks).isEmpty();
+    assertTabTexts("C", "D", "B");
+  }
+
+  /** Links a new TabLayout to the adapter, loading content on an executor that queues tasks. */
+  private List<Runnable> attachContentLoadingMediator() {
+    final List<Runnable> tasks = new ArrayList<>();
+    adapter = new TitlesAdapter("A", "B", "C", "D");
+    ViewPager2 viewPager = new ViewPager2(context);
+    viewPager.setAdapter(adapter);
+    tabLayout = new TabLayout(context);
+    new TabLayoutMediator(
+            tabLayout,
+            viewPager,
+            new TabLayoutMediator.TabContentLoader() {
+              @NonNull
+              @Override
+              public TabLayoutMediator.TabContent loadTabContent(int position) {
+                loadedPositions.add(position);
+                return new TabLayoutMediator.TabContent()
+                    .setText(adapter.titlesSnapshot.get(position) + contentVersion)
+                    .showBadge(position);
+              }
+            },
+            new Executor() {
+              @Override
+              public void execute(Runnable task) {
+                tasks.add(task);
+              }
+            })
+        .attach();
+    return tasks;
+  }
+
+  private static void runTasks(List<Runnable> tasks) {
+    for (Runnable task : tasks) {
+      task.run();
+    }
+    shadowOf(Looper.getMainLooper()).idle();
+  }
+
+  private void assertTabTexts(String... texts) {
+    assertThat(tabLayout.getTabCount()).isEqualTo(texts.length);
+    for (int i = 0; i < texts.length; i++) {
+      TabLayout.Tab tab = tabLayout.getTabAt(i);
+      assertThat(tab.getText().toString()).isEqualTo(texts[i]);
+      assertThat(tab.getPosition()).isEqualTo(i);
+      assertThat(tab.view.getTab()).isSameInstanceAs(tab);
+    }
+  }
+
+  private static class TitlesAdapter extends RecyclerView.Adapter<RecyclerView.ViewHolder> {
+    private final List<String> titles;
+    // Immutable copy of the titles, which content loaders read off the main thread.
+    private volatile List<String> titlesSnapshot;
+
+    TitlesAdapter(String... titles) {
+      this.titles = new ArrayList<>(Arrays.asList(titles));
+      snapshotTitles();
+    }
+
+    /** Publishes the titles to content loaders, before notifying a change. */
+    void snapshotTitles() {
+      titlesSnapshot = Collections.unmodifiableList(new ArrayList<>(titles));
+    }
+
+    @NonNull
+    @Override
+    public RecyclerView.ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+      View view = new View(parent.getContext());
+      view.setLayoutParams(
+          new ViewGroup.LayoutParams(
+              ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+      return new RecyclerView.ViewHolder(view) {};
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull RecyclerView.ViewHolder holder, int position) {}
+
+    @Override
+    public int getItemCount() {
+      return titles.size();
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.tabs;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import androidx.test.core.app.ApplicationProvider;
+import android.text.SpannableString;
+import android.text.TextUtils;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import android.widget.TextView;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for the text size of multi line tab titles in {@link TabLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TabLayoutMultiLineTextTest {
+
+  private static final int WIDTH = 400;
+  private static final int HEIGHT = 72;
+  // Wider than a fixed tab and the maximum width of a scrollable tab at the single line size.
+  private static final String LONG_TEXT = TextUtils.join("", Collections.nCopies(300, "W"));
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  private TabLayout tabLayout;
+
+  @Before
+  public void createTabLayout() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    tabLayout = new TabLayout(context);
+  }
+
+  @Test
+  public void givenFixedMode_whenTextIsTooWide_usesMultiLineTextSize() {
+    tabLayout.setTabMode(TabLayout.MODE_FIXED);
+    TabLayout.Tab tab = addTab(LONG_TEXT);
+    addTab("Tab");
+
+    layout();
+
+    assertThat(getTextView(tab).getTextSize()).isEqualTo(tabLayout.tabTextMultiLineSize);
+  }
+
+  @Test
+  public void givenFixedMode_whenTextFits_keepsSingleLineTextSize() {
+    tabLayout.setTabMode(TabLayout.MODE_FIXED);
+    TabLayout.Tab tab = addTab("Tab");
+    addTab("Tab");
+
+    layout();
+
+    assertThat(getTextView(tab).getTextSize()).isEqualTo(tabLayout.tabTextSize);
+  }
+
+  @Test
+  public void givenScrollableMode_whenTextIsTooWide_usesMultiLineTextSize() {
+    tabLayout.setTabMode(TabLayout.MODE_SCROLLABLE);
+    TabLayout.Tab tab = addTab(LONG_TEXT);
+
+    layout();
+
+    assertThat(getTextView(tab).getTextSize()).isEqualTo(tabLayout.tabTextMultiLineSize);
+  }
+
+  @Test
+  public void givenScrollableMode_whenTextFits_keepsSingleLineTextSize() {
+    tabLayout.setTabMode(TabLayout.MODE_SCROLLABLE);
+    TabLayout.Tab tab = addTab("Tab");
+
+    layout();
+
+    assertThat(getTextView(tab).getTextSize()).isEqualTo(tabLayout.tabTextSize);
+  }
+
+  @Test
+  public void givenScrollableMode_whenSpannedTextIsTooWide_usesMultiLineTextSize() {
+    tabLayout.setTabMode(TabLayout.MODE_SCROLLABLE);
+    addTab(new SpannableString("Tab"));
+    TabLayout.Tab tab = addTab(new SpannableString(LONG_TEXT));
+
+    layout();
+
+    assertThat(getTextView(tab).getTextSize()).isEqualTo(tabLayout.tabTextMultiLineSize);
+  }
+
+  @Test
+  public void givenIconIsVisible_whenTextIsTooWide_keepsSingleLineTextSize() {
+    tabLayout.setTabMode(TabLayout.MODE_FIXED);
+    TabLayout.Tab tab = addTab(LONG_TEXT);
+    tab.setIcon(new ColorDrawable(Color.BLACK));
+    addTab("Tab");
+
+    layout();
+
+    TextView textView = getTextView(tab);
+    assertThat(textView.getTextSize()).isEqualTo(tabLayout.tabTextSize);
+    assertThat(textView.getMaxLines()).isEqualTo(1);
+  }
+
+  private TabLayout.Tab addTab(CharSequence text) {
+    TabLayout.Tab tab = tabLayout.newTab().setText(text);
+    tabLayout.addTab(tab);
+    return tab;
+  }
+
+  private void layout() {
+    tabLayout.measure(
+        MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+    tabLayout.layout(0, 0, WIDTH, HEIGHT);
+  }
+
+  private static TextView getTextView(TabLayout.Tab tab) {
+    ViewGroup tabView = tab.view;
+    for (int i = 0; i < tabView.getChildCount(); i++) {
+      if (tabView.getChildAt(i) instanceof TextView) {
+        return (TextView) tabView.getChildAt(i);
+      }
+    }
+    throw new AssertionError("The tab has no text view");
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.google.android.material.tabs;
+
+import com.google.android.material.R;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import android.content.Context;
+import androidx.test.core.app.ApplicationProvider;
+import android.text.TextUtils;
+import android.view.View;
+import android.view.View.MeasureSpec;
+import android.view.ViewGroup;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.internal.DoNotInstrument;
+
+/** Tests for virtualized tab views in {@link TabLayout}. */
+@RunWith(RobolectricTestRunner.class)
+@DoNotInstrument
+public class TabLayoutVirtualizationTest {
+
+  private static final int TAB_COUNT = 100;
+  private static final int WIDTH = 400;
+  private static final int HEIGHT = 48;
+
+  private final Context context = ApplicationProvider.getApplicationContext();
+
+  private TabLayout tabLayout;
+
+  @Before
+  public void createTabLayout() {
+    context.setTheme(R.style.Theme_MaterialComponents_Light_NoActionBar_Bridge);
+    tabLayout = new TabLayout(context);
+    tabLayout.setTabMode(TabLayout.MODE_SCROLLABLE);
+    tabLayout.setTabViewVirtualizationEnabled(true);
+    for (int i = 0; i < TAB_COUNT; i++) {
+      tabLayout.addTab(tabLayout.newTab().setText("Tab " + i));
+    }
+    layout();
+  }
+
+  @Test
+  public void givenVirtualization_whenLaidOut_onlyCreatesVisibleTabViews() {
+    assertThat(tabLayout.getTabAt(0).view).isNotNull();
+    assertThat(tabLayout.getTabAt(TAB_COUNT - 1).view).isNull();
+    assertThat(getTabViewCount()).isLessThan(TAB_COUNT / 2);
+  }
+
+  @Test
+  public void givenVirtualization_whenScrolledToEnd_movesTabViewsToEnd() {
+    tabLayout.scrollTo(getStrip().getWidth(), 0);
+
+    assertThat(tabLayout.getTabAt(TAB_COUNT - 1).view).isNotNull();
+    // The selected tab keeps its view
+    assertThat(tabLayout.getTabAt(0).view).isNotNull();
+    assertThat(tabLayout.getTabAt(1).view).isNull();
+  }
+
+  @Test
+  public void givenVirtualizedTab_whenSelected_createsTabView() {
+    TabLayout.Tab tab = tabLayout.getTabAt(TAB_COUNT - 1);
+
+    tab.select();
+
+    assertThat(tab.view).isNotNull();
+    assertThat(getStrip().getChildAt(TAB_COUNT - 1)).isSameInstanceAs(tab.view);
+  }
+
+  @Test
+  public void givenVirtualizedTab_whenTextChanges_measuresPlaceholderAgain() {
+    TabLayout.Tab tab = tabLayout.getTabAt(TAB_COUNT - 1);
+    View placeholderView = getStrip().getChildAt(TAB_COUNT - 1);
+    int width = placeholderView.getMeasuredWidth();
+
+    tab.setText(TextUtils.join("", Collections.nCopies(150, "W")));
+    layout();
+
+    assertThat(tab.view).isNull();
+    assertThat(placeholderView.getMeasuredWidth()).isGreaterThan(width);
+  }
+
+  @Test
+  public void givenVirtualization_whenDisabled_createsAllTabViews() {
+    tabLayout.setTabViewVirtualizationEnabled(false);
+
+    assertThat(getTabViewCount()).isEqualTo(TAB_COUNT);
+  }
+
+  private void layout() {
+    tabLayout.measure(
+        MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+        MeasureSpec.makeMeasureSpec(HEIGHT, MeasureSpec.EXACTLY));
+    tabLayout.layout(0, 0, WIDTH, HEIGHT);
+  }
+
+  private ViewGroup getStrip() {
+    return (ViewGroup) tabLayout.getChildAt(0);
+  }
+
+  private int getTabViewCount() {
+    int count = 0;
+    for (int i = 0; i < getStrip().getChildCount(); i++) {
+      if (getStrip().getChildAt(i) instanceof TabLayout.TabView) {
+        count++;
+      }
+    }
+    return count;
+  }
+}